@@ -0,0 +1,25 @@
+package com.fc.serverless.aot;
+
+import com.fc.serverless.proxy.BatchResult;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Hints for the framework's own class presence checks and wire types; hints for
+ * application @RemoteFunction fields come from {@link RemoteFunctionAotProcessor}.
+ *
+ * zstd-jni is deliberately left out: its native library cannot be loaded from
+ * the jar in a native image, so remote calls compress with gzip there.
+ */
+public class FunctionMeshRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // FunctionMeshMetrics.global() looks Micrometer up by name
+        hints.reflection().registerTypeIfPresent(classLoader, "io.micrometer.core.instrument.Metrics", hint -> {
+        });
+        // Batch responses are written and read as BatchResult elements
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), BatchResult.class);
+    }
+}
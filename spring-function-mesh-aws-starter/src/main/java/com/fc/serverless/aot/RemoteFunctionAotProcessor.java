@@ -0,0 +1,134 @@
+package com.fc.serverless.aot;
+
+import com.fc.serverless.config.RemoteFunctionBeanPostProcessor;
+import com.fc.serverless.config.RemoteFunctionInjectionPoint;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves @RemoteFunction injection points at build time and contributes
+ * what a native image needs to inject them: reflection on the annotated
+ * fields, binding hints for the types their proxies serialize, a JDK proxy
+ * for each field interface, and the index the post processor reads instead
+ * of inspecting every bean.
+ *
+ * Bean types alone miss functions registered through a @Bean method that
+ * returns Function, so the application's packages and
+ * spring.cloud.function.scan.packages are scanned as well.
+ */
+public class RemoteFunctionAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    private static final Log log = LogFactory.getLog(RemoteFunctionAotProcessor.class);
+
+    private static final String SCAN_PACKAGES_PROPERTY = "spring.cloud.function.scan.packages";
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        Map<Class<?>, List<RemoteFunctionInjectionPoint>> injectionPoints = new LinkedHashMap<>();
+        for (Class<?> candidate : candidates(beanFactory)) {
+            try {
+                List<RemoteFunctionInjectionPoint> points = RemoteFunctionInjectionPoint.find(candidate);
+                if (!points.isEmpty()) {
+                    injectionPoints.put(candidate, points);
+                }
+            } catch (LinkageError e) {
+                // Fields typed with optional dependencies that are not on the build class path
+                log.debug("🔗 FC Framework: Skipping " + candidate.getName() + " in AOT processing: " + e);
+            }
+        }
+        log.info("🔗 FC Framework: Resolved remote function injection points in " + injectionPoints.size() +
+                " classes ahead of time");
+        return (generationContext, code) -> {
+            RuntimeHints hints = generationContext.getRuntimeHints();
+            registerHints(hints, injectionPoints);
+            generationContext.getGeneratedFiles().addResourceFile(
+                    RemoteFunctionBeanPostProcessor.INJECTION_POINT_INDEX, index(injectionPoints));
+            hints.resources().registerPattern(RemoteFunctionBeanPostProcessor.INJECTION_POINT_INDEX);
+        };
+    }
+
+    private static void registerHints(RuntimeHints hints, Map<Class<?>, List<RemoteFunctionInjectionPoint>> injectionPoints) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        injectionPoints.forEach((type, points) -> {
+            for (RemoteFunctionInjectionPoint point : points) {
+                hints.reflection().registerField(point.getField());
+                bindings.registerReflectionHints(hints.reflection(), point.getInputType(), point.getReturnType());
+                hints.proxies().registerJdkProxy(point.getField().getType());
+            }
+        });
+    }
+
+    /**
+     * Properties of class name to field names, sorted so that builds are reproducible
+     */
+    private static String index(Map<Class<?>, List<RemoteFunctionInjectionPoint>> injectionPoints) {
+        StringBuilder index = new StringBuilder("# @RemoteFunction injection points resolved at build time\n");
+        injectionPoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey((a, b) -> a.getName().compareTo(b.getName())))
+                .forEach(entry -> index.append(entry.getKey().getName()).append('=')
+                        .append(entry.getValue().stream()
+                                .map(point -> point.getField().getName())
+                                .collect(Collectors.joining(",")))
+                        .append('\n'));
+        return index.toString();
+    }
+
+    /**
+     * Bean classes, and every class in the application and function scan packages
+     */
+    private static Set<Class<?>> candidates(ConfigurableListableBeanFactory beanFactory) {
+        ClassLoader classLoader = beanFactory.getBeanClassLoader();
+        Set<Class<?>> candidates = new LinkedHashSet<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            Class<?> type = beanFactory.getType(beanName, false);
+            if (type != null) {
+                candidates.add(ClassUtils.getUserClass(type));
+            }
+        }
+
+        List<String> packages = new ArrayList<>();
+        if (AutoConfigurationPackages.has(beanFactory)) {
+            packages.addAll(AutoConfigurationPackages.get(beanFactory));
+        }
+        if (beanFactory.containsBean("environment")) {
+            String scanPackages = beanFactory.getBean("environment", Environment.class).getProperty(SCAN_PACKAGES_PROPERTY);
+            packages.addAll(StringUtils.commaDelimitedListToSet(scanPackages));
+        }
+
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+        if (classLoader != null) {
+            scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        }
+        for (String basePackage : new LinkedHashSet<>(packages)) {
+            for (BeanDefinition definition : scanner.findCandidateComponents(basePackage.trim())) {
+                try {
+                    candidates.add(ClassUtils.forName(definition.getBeanClassName(), classLoader));
+                } catch (ClassNotFoundException | LinkageError e) {
+                    log.debug("🔗 FC Framework: Skipping " + definition.getBeanClassName() + " in AOT processing: " + e);
+                }
+            }
+        }
+        return candidates;
+    }
+}
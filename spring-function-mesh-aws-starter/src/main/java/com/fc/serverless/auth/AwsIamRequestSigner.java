@@ -4,19 +4,29 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.auth.signer.Aws4Signer;
 import software.amazon.awssdk.auth.signer.params.Aws4SignerParams;
-import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.http.SdkHttpFullRequest;
 import software.amazon.awssdk.http.SdkHttpMethod;
 import software.amazon.awssdk.regions.Region;
 
+import java.io.ByteArrayInputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
 
 /**
  * AWS IAM request signer for signing HTTP requests to Lambda functions
@@ -27,15 +37,159 @@ public class AwsIamRequestSigner {
     private static final Log log = LogFactory.getLog(AwsIamRequestSigner.class);
 
     private static final String SERVICE_NAME = "lambda";
-    private final DefaultCredentialsProvider credentialsProvider;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    // Credentials are re-resolved in the background after 5 minutes, and synchronously after 15,
+    // or sooner when they expire before then
+    private static final Duration CREDENTIALS_REFRESH_AFTER = Duration.ofMinutes(5);
+    private static final Duration CREDENTIALS_MAX_AGE = Duration.ofMinutes(15);
+
+    // The example keys from the AWS documentation, used to prime the signing path
+    private static final String PRIMING_URL = "https://example.lambda-url.us-east-1.on.aws/";
+    private static final CachedCredentials PRIMING_CREDENTIALS = new CachedCredentials(
+            StaticCredentialsProvider.create(AwsSessionCredentials.create("AKIDEXAMPLE",
+                    "wJalrXUtnFEMI/K7MDENG/bPxRfiCYEXAMPLEKEY", "EXAMPLE-SESSION-TOKEN")),
+            Clock.systemUTC(), CREDENTIALS_REFRESH_AFTER, CREDENTIALS_MAX_AGE);
+
+    private final AwsCredentialsProvider credentialsProvider;
+    private final CachedCredentials cachedCredentials;
+    private final Clock clock;
     private final Aws4Signer signer;
 
     public AwsIamRequestSigner() {
-        this.credentialsProvider = DefaultCredentialsProvider.create();
+        this(DefaultCredentialsProvider.create(), Clock.systemUTC());
+    }
+
+    public AwsIamRequestSigner(AwsCredentialsProvider credentialsProvider, Clock clock) {
+        this.credentialsProvider = credentialsProvider;
+        this.cachedCredentials = new CachedCredentials(credentialsProvider, clock, CREDENTIALS_REFRESH_AFTER, CREDENTIALS_MAX_AGE);
+        this.clock = clock;
         this.signer = Aws4Signer.create();
         log.info("AWS IAM Request Signer initialized");
     }
 
+    /**
+     * Resolve region, canonical host, path and query of a URL once, for use with {@link #sign}
+     */
+    public SigningTarget target(String url) {
+        return new SigningTarget(url, extractRegionFromUrl(url).id(), SERVICE_NAME);
+    }
+
+    /**
+     * Target for a URL whose host does not name the region, such as a custom Lambda API endpoint
+     */
+    public SigningTarget target(String url, String region) {
+        return new SigningTarget(url, region, SERVICE_NAME);
+    }
+
+    /**
+     * Fast path SigV4 signing for a prepared target.
+     *
+     * Uses cached credentials and the signing key cached on the target for the
+     * current day, hashes the body once, and adds the signature headers to the
+     * given headers in place. Every header present is signed.
+     *
+     * @param body The encoded request body, exactly as it will be sent (can be null)
+     * @return The same headers with X-Amz-Date, X-Amz-Security-Token and Authorization set
+     */
+    public HttpHeaders sign(SigningTarget target, HttpMethod method, HttpHeaders headers, byte[] body) {
+        return sign(target, method, headers, body, cachedCredentials);
+    }
+
+    private HttpHeaders sign(SigningTarget target, HttpMethod method, HttpHeaders headers, byte[] body,
+                             CachedCredentials credentialsCache) {
+        try {
+            AwsCredentials credentials = credentialsCache.get();
+            String amzDate = AMZ_DATE.format(clock.instant());
+            String date = amzDate.substring(0, 8);
+
+            headers.remove(HttpHeaders.AUTHORIZATION);
+            headers.set("X-Amz-Date", amzDate);
+            if (credentials instanceof AwsSessionCredentials session) {
+                headers.set("X-Amz-Security-Token", session.sessionToken());
+            } else {
+                headers.remove("X-Amz-Security-Token");
+            }
+
+            // Canonical headers: lower-case names in order, trimmed values, host as the transport sends it
+            TreeMap<String, String> canonicalHeaders = new TreeMap<>();
+            canonicalHeaders.put("host", target.getHost());
+            headers.forEach((name, values) -> {
+                String lowerName = name.toLowerCase(Locale.ROOT);
+                if (!lowerName.equals("host")) {
+                    canonicalHeaders.put(lowerName, canonicalHeaderValue(values));
+                }
+            });
+            String signedHeaders = String.join(";", canonicalHeaders.keySet());
+
+            StringBuilder canonicalRequest = new StringBuilder(256)
+                    .append(method.name()).append('\n')
+                    .append(target.getCanonicalUri()).append('\n')
+                    .append(target.getCanonicalQuery()).append('\n');
+            canonicalHeaders.forEach((name, value) -> canonicalRequest.append(name).append(':').append(value).append('\n'));
+            canonicalRequest.append('\n')
+                    .append(signedHeaders).append('\n')
+                    .append(SigV4.sha256Hex(body == null ? new byte[0] : body));
+
+            String scope = date + "/" + target.getRegion() + "/" + target.getService() + "/" + SigV4.TERMINATOR;
+            String stringToSign = SigV4.ALGORITHM + "\n" + amzDate + "\n" + scope + "\n" +
+                    SigV4.sha256Hex(canonicalRequest.toString().getBytes(StandardCharsets.UTF_8));
+            String signature = SigV4.hex(SigV4.hmac(signingKey(target, credentials, date), stringToSign));
+
+            headers.set(HttpHeaders.AUTHORIZATION, SigV4.ALGORITHM + " Credential=" + credentials.accessKeyId() + "/" + scope +
+                    ", SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+            return headers;
+
+        } catch (Exception e) {
+            log.error("Failed to sign AWS IAM request for URL: " + target.getUrl(), e);
+            throw new RuntimeException("Failed to sign AWS IAM request", e);
+        }
+    }
+
+    /**
+     * Sign a synthetic request with example credentials, so that the first real
+     * signature does not also load and compile the signing code; no credentials
+     * are resolved, and none end up in a snapshot taken afterwards
+     */
+    public void prime() {
+        sign(target(PRIMING_URL), HttpMethod.POST, new HttpHeaders(), "{}".getBytes(StandardCharsets.UTF_8),
+                PRIMING_CREDENTIALS);
+    }
+
+    /**
+     * Resolve credentials again on the next signature. Needed after a restore:
+     * the cached credentials' age does not include the time spent in the snapshot.
+     */
+    public void refreshCredentials() {
+        cachedCredentials.invalidate();
+    }
+
+    /**
+     * The derived key only changes with the day or the credentials, so it is kept on the target
+     */
+    private byte[] signingKey(SigningTarget target, AwsCredentials credentials, String date) {
+        SigningTarget.SigningKey cached = target.getSigningKey();
+        if (cached != null && cached.matches(credentials.accessKeyId(), credentials.secretAccessKey(), date)) {
+            return cached.key();
+        }
+        byte[] key = SigV4.deriveSigningKey(credentials.secretAccessKey(), date, target.getRegion(), target.getService());
+        target.setSigningKey(new SigningTarget.SigningKey(credentials.accessKeyId(), credentials.secretAccessKey(), date, key));
+        return key;
+    }
+
+    private static String canonicalHeaderValue(List<String> values) {
+        StringBuilder value = new StringBuilder();
+        for (String v : values) {
+            if (value.length() > 0) {
+                value.append(',');
+            }
+            value.append(WHITESPACE.matcher(v.trim()).replaceAll(" "));
+        }
+        return value.toString();
+    }
+
     /**
      * Signs an HTTP request using AWS SigV4 algorithm
      *
@@ -46,6 +200,16 @@ public class AwsIamRequestSigner {
      * @return Updated headers with AWS signature
      */
     public HttpHeaders signRequest(String url, HttpMethod method, HttpHeaders headers, String body) {
+        return signRequest(url, method, headers, body == null ? null : body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Signs an HTTP request whose body is already encoded, hashing the bytes in place
+     *
+     * @param body The encoded request body, exactly as it will be sent (can be null)
+     * @return Updated headers with AWS signature
+     */
+    public HttpHeaders signRequest(String url, HttpMethod method, HttpHeaders headers, byte[] body) {
         try {
             log.debug("Signing AWS IAM request for URL: " + url);
 
@@ -73,9 +237,8 @@ public class AwsIamRequestSigner {
             }
 
             // Add body if present
-            if (body != null && !body.isEmpty()) {
-                requestBuilder.contentStreamProvider(() ->
-                        SdkBytes.fromString(body, StandardCharsets.UTF_8).asInputStream());
+            if (body != null && body.length > 0) {
+                requestBuilder.contentStreamProvider(() -> new ByteArrayInputStream(body));
             }
 
             SdkHttpFullRequest request = requestBuilder.build();
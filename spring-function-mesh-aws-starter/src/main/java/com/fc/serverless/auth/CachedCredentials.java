@@ -0,0 +1,128 @@
+package com.fc.serverless.auth;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Credentials resolved once and reused across signatures.
+ *
+ * After refreshAfter the next caller starts one background refresh and keeps
+ * signing with the current credentials; only after maxAge does a caller wait for
+ * a fresh set. Temporary credentials that carry an expiration time are refreshed
+ * in the background from 5 minutes before it, and waited for from 1 minute
+ * before it, if that comes sooner, so no request is signed with credentials
+ * about to expire.
+ */
+final class CachedCredentials {
+
+    private static final Log log = LogFactory.getLog(CachedCredentials.class);
+
+    private static final Duration EXPIRY_REFRESH_AHEAD = Duration.ofMinutes(5);
+    private static final Duration EXPIRY_MARGIN = Duration.ofMinutes(1);
+
+    private final AwsCredentialsProvider provider;
+    private final Clock clock;
+    private final long refreshAfterNanos;
+    private final long maxAgeNanos;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Entry entry;
+
+    /**
+     * @param clock reads the current time against the credentials' expiration time
+     */
+    CachedCredentials(AwsCredentialsProvider provider, Clock clock, Duration refreshAfter, Duration maxAge) {
+        this.provider = provider;
+        this.clock = clock;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    AwsCredentials get() {
+        Entry current = entry;
+        if (current == null || current.isStale()) {
+            return load();
+        }
+        if (current.isDueForRefresh() && refreshing.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    load();
+                } catch (RuntimeException e) {
+                    log.warn("⚠️ FC Framework: Background AWS credentials refresh failed: " + e.getMessage());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+        return current.credentials;
+    }
+
+    /**
+     * Forget the current credentials; the next caller loads a fresh set
+     */
+    synchronized void invalidate() {
+        entry = null;
+    }
+
+    private synchronized AwsCredentials load() {
+        Entry current = entry;
+        if (current != null && !current.isDueForRefresh()) {
+            return current.credentials;
+        }
+        AwsCredentials credentials = provider.resolveCredentials();
+        entry = newEntry(credentials);
+        return credentials;
+    }
+
+    private Entry newEntry(AwsCredentials credentials) {
+        long refreshAfter = refreshAfterNanos;
+        long maxAge = maxAgeNanos;
+        Optional<Instant> expiration = credentials.expirationTime();
+        if (expiration.isPresent()) {
+            Duration untilExpiry = Duration.between(clock.instant(), expiration.get());
+            refreshAfter = sooner(refreshAfter, untilExpiry.minus(EXPIRY_REFRESH_AHEAD));
+            maxAge = sooner(maxAge, untilExpiry.minus(EXPIRY_MARGIN));
+        }
+        return new Entry(credentials, refreshAfter, maxAge);
+    }
+
+    private static long sooner(long nanos, Duration other) {
+        if (other.isNegative()) {
+            return 0;
+        }
+        return other.compareTo(Duration.ofNanos(nanos)) < 0 ? other.toNanos() : nanos;
+    }
+
+    private static final class Entry {
+        private final AwsCredentials credentials;
+        private final long loadedAt = System.nanoTime();
+        private final long refreshAfterNanos;
+        private final long maxAgeNanos;
+
+        private Entry(AwsCredentials credentials, long refreshAfterNanos, long maxAgeNanos) {
+            this.credentials = credentials;
+            this.refreshAfterNanos = refreshAfterNanos;
+            this.maxAgeNanos = maxAgeNanos;
+        }
+
+        private boolean isDueForRefresh() {
+            return age() >= refreshAfterNanos;
+        }
+
+        private boolean isStale() {
+            return age() >= maxAgeNanos;
+        }
+
+        private long age() {
+            return System.nanoTime() - loadedAt;
+        }
+    }
+}
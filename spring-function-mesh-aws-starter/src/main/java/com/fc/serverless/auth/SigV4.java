@@ -0,0 +1,87 @@
+package com.fc.serverless.auth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * SigV4 primitives: hashing, HMAC and AWS-style URI encoding.
+ * Digest and Mac instances are kept per thread since creating them dominates small signatures.
+ */
+final class SigV4 {
+
+    static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    static final String TERMINATOR = "aws4_request";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static final ThreadLocal<Mac> HMAC_SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private SigV4() {
+    }
+
+    static String sha256Hex(byte[] data) {
+        return hex(SHA256.get().digest(data));
+    }
+
+    static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = HMAC_SHA256.get();
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static byte[] deriveSigningKey(String secretAccessKey, String date, String region, String service) {
+        byte[] dateKey = hmac(("AWS4" + secretAccessKey).getBytes(StandardCharsets.UTF_8), date);
+        byte[] regionKey = hmac(dateKey, region);
+        byte[] serviceKey = hmac(regionKey, service);
+        return hmac(serviceKey, TERMINATOR);
+    }
+
+    static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * RFC 3986 encoding as SigV4 defines it: unreserved characters stay, everything else is %XX
+     */
+    static String uriEncode(String value, boolean encodeSlash) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        StringBuilder encoded = new StringBuilder(bytes.length + 16);
+        for (byte b : bytes) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(HEX[(b >> 4) & 0xF]))
+                        .append(Character.toUpperCase(HEX[b & 0xF]));
+            }
+        }
+        return encoded.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.fc.serverless.auth;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything about a request URL that SigV4 needs, worked out once per proxy:
+ * region, canonical host, path and query. Also carries the signing key cached
+ * for the current day and credentials.
+ */
+public final class SigningTarget {
+
+    private final String url;
+    private final String host;
+    private final String canonicalUri;
+    private final String canonicalQuery;
+    private final String region;
+    private final String service;
+    private volatile SigningKey signingKey;
+
+    SigningTarget(String url, String region, String service) {
+        URI uri = URI.create(url);
+        this.url = url;
+        this.host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        this.canonicalUri = canonicalUri(uri.getRawPath());
+        this.canonicalQuery = canonicalQuery(uri.getRawQuery());
+        this.region = region;
+        this.service = service;
+    }
+
+    public String getUrl() { return url; }
+    public String getRegion() { return region; }
+    String getHost() { return host; }
+    String getCanonicalUri() { return canonicalUri; }
+    String getCanonicalQuery() { return canonicalQuery; }
+    String getService() { return service; }
+
+    SigningKey getSigningKey() { return signingKey; }
+    void setSigningKey(SigningKey signingKey) { this.signingKey = signingKey; }
+
+    /**
+     * Non-S3 services expect each path segment URI-encoded twice; the raw path is already encoded once
+     */
+    private static String canonicalUri(String rawPath) {
+        if (rawPath == null || rawPath.isEmpty()) {
+            return "/";
+        }
+        return SigV4.uriEncode(rawPath, false);
+    }
+
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        List<String> parameters = new ArrayList<>();
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.add(SigV4.uriEncode(URLDecoder.decode(name, StandardCharsets.UTF_8), true) + "=" +
+                    SigV4.uriEncode(URLDecoder.decode(value, StandardCharsets.UTF_8), true));
+        }
+        parameters.sort(null);
+        return String.join("&", parameters);
+    }
+
+    /**
+     * Derived kSigning for one access key, day, region and service
+     */
+    record SigningKey(String accessKeyId, String secretAccessKey, String date, byte[] key) {
+
+        boolean matches(String accessKeyId, String secretAccessKey, String date) {
+            return this.date.equals(date) && this.accessKeyId.equals(accessKeyId)
+                    && this.secretAccessKey.equals(secretAccessKey);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.fc.serverless.cache;
+
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Result caching settings, resolved from fc.functions.{name}.cache.*
+ *
+ * Caching is off unless a positive cache.ttl is configured, and cache.enabled=false
+ * turns it off again.
+ */
+public class CacheSettings {
+
+    private final Duration ttl;
+    private final Duration refreshAhead;
+    private final Duration staleIfError;
+    private final long maxSize;
+
+    public CacheSettings(Duration ttl, Duration refreshAhead, Duration staleIfError, long maxSize) {
+        this.ttl = ttl;
+        this.refreshAhead = refreshAhead;
+        this.staleIfError = staleIfError;
+        this.maxSize = maxSize;
+    }
+
+    public static CacheSettings resolve(String functionName, Environment environment,
+                                        EnvironmentPropertyResolver resolver) {
+        Duration ttl = resolver.resolveBoolean(functionName, "cache.enabled", true, environment)
+                ? resolver.resolveDuration(functionName, "cache.ttl", Duration.ZERO, environment)
+                : Duration.ZERO;
+        return new CacheSettings(
+                ttl,
+                // Start refreshing in the background during the last fifth of the TTL
+                resolver.resolveDuration(functionName, "cache.refreshAhead", ttl.dividedBy(5), environment),
+                resolver.resolveDuration(functionName, "cache.staleIfError", ttl, environment),
+                resolver.resolveInt(functionName, "cache.maxSize", 1000, environment));
+    }
+
+    public boolean isEnabled() {
+        return ttl != null && !ttl.isNegative() && !ttl.isZero() && maxSize > 0;
+    }
+
+    public Duration getTtl() { return ttl; }
+    public Duration getRefreshAhead() { return refreshAhead; }
+    public Duration getStaleIfError() { return staleIfError; }
+    public long getMaxSize() { return maxSize; }
+
+    @Override
+    public String toString() {
+        return "CacheSettings{ttl=" + ttl + ", refreshAhead=" + refreshAhead + ", staleIfError=" + staleIfError +
+                ", maxSize=" + maxSize + "}";
+    }
+}
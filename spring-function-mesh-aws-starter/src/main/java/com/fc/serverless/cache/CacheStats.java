@@ -0,0 +1,50 @@
+package com.fc.serverless.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Running hit/miss counters for a remote function cache
+ */
+public class CacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongSupplier size;
+
+    public CacheStats(LongSupplier size) {
+        this.size = size;
+    }
+
+    void recordHit() { hits.increment(); }
+    void recordMiss() { misses.increment(); }
+    void recordRefresh() { refreshes.increment(); }
+    void recordStaleHit() { staleHits.increment(); }
+    void recordLoadFailure() { loadFailures.increment(); }
+    void recordEviction() { evictions.increment(); }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getRefreshes() { return refreshes.sum(); }
+    public long getStaleHits() { return staleHits.sum(); }
+    public long getLoadFailures() { return loadFailures.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+    public long getSize() { return size.getAsLong(); }
+
+    public double getHitRate() {
+        long hitCount = getHits() + getStaleHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + getHits() + ", misses=" + getMisses() + ", refreshes=" + getRefreshes() +
+                ", staleHits=" + getStaleHits() + ", loadFailures=" + getLoadFailures() +
+                ", evictions=" + getEvictions() + ", size=" + getSize() + ", hitRate=" + String.format("%.3f", getHitRate()) + "}";
+    }
+}
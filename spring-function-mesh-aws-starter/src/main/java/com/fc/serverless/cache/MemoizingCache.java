@@ -0,0 +1,83 @@
+package com.fc.serverless.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Bounded result cache in front of a remote Function, keyed by the
+ * serialized input.
+ *
+ * Entries live for cache.ttl and the cache holds at most cache.maxSize of them.
+ * Caffeine's W-TinyLFU policy decides what to evict, so frequently repeated
+ * inputs survive bursts of one-off ones. Failed calls are never cached.
+ */
+public class MemoizingCache {
+
+    private final AsyncCache<String, Object> cache;
+    private final CacheStats stats;
+
+    public MemoizingCache(CacheSettings settings) {
+        this.stats = new CacheStats(this::size);
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(settings.getTtl())
+                .maximumSize(settings.getMaxSize())
+                .removalListener((String key, Object value, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        stats.recordEviction();
+                    }
+                })
+                // Blocking loads run on the caller's thread rather than holding a common pool worker
+                .executor(Runnable::run)
+                .buildAsync();
+    }
+
+    /**
+     * Blocking lookup: concurrent callers with the same key wait for a single load,
+     * which runs on the first caller's thread. Callers that find the value cached or
+     * being loaded count as hits, the one that loads it as a miss.
+     */
+    public Object get(String key, Supplier<Object> loader) {
+        boolean[] loaded = new boolean[1];
+        try {
+            return cache.synchronous().get(key, k -> {
+                loaded[0] = true;
+                stats.recordMiss();
+                return loader.get();
+            });
+        } finally {
+            if (!loaded[0]) {
+                stats.recordHit();
+            }
+        }
+    }
+
+    /**
+     * Non-blocking lookup for CompletableFuture / Mono proxies
+     */
+    public CompletableFuture<Object> getAsync(String key, Supplier<CompletableFuture<Object>> loader) {
+        boolean[] loaded = new boolean[1];
+        try {
+            return cache.get(key, (k, executor) -> {
+                loaded[0] = true;
+                stats.recordMiss();
+                return loader.get();
+            });
+        } finally {
+            if (!loaded[0]) {
+                stats.recordHit();
+            }
+        }
+    }
+
+    private long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,156 @@
+package com.fc.serverless.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Single-value cache in front of a remote Supplier.
+ *
+ * A value is served for cache.ttl. During the last cache.refreshAhead of that
+ * window the next caller triggers one background reload, so callers keep getting
+ * hits while the value is renewed. If a reload fails after expiry, the old value
+ * is still served for up to cache.staleIfError.
+ */
+public class SupplierCache {
+
+    private static final Log log = LogFactory.getLog(SupplierCache.class);
+
+    private final String functionName;
+    private final long ttlNanos;
+    private final long refreshAtNanos;
+    private final long staleLimitNanos;
+    private final CacheStats stats = new CacheStats(() -> this.entry == null ? 0 : 1);
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final Object loadLock = new Object();
+    private volatile Entry entry;
+
+    public SupplierCache(String functionName, CacheSettings settings) {
+        this.functionName = functionName;
+        this.ttlNanos = settings.getTtl().toNanos();
+        this.refreshAtNanos = Math.max(0, ttlNanos - settings.getRefreshAhead().toNanos());
+        this.staleLimitNanos = ttlNanos + settings.getStaleIfError().toNanos();
+    }
+
+    /**
+     * Blocking lookup: concurrent misses wait for a single load
+     *
+     * @param loader    blocking remote call used on a miss
+     * @param refresher non-blocking remote call used for refresh-ahead
+     */
+    public Object get(Callable<Object> loader, Supplier<CompletableFuture<Object>> refresher) throws Exception {
+        Entry current = entry;
+        if (isFresh(current)) {
+            stats.recordHit();
+            refreshAheadIfDue(current, refresher);
+            return current.value;
+        }
+
+        synchronized (loadLock) {
+            current = entry;
+            if (isFresh(current)) {
+                stats.recordHit();
+                return current.value;
+            }
+
+            stats.recordMiss();
+            try {
+                Object value = loader.call();
+                entry = new Entry(value);
+                return value;
+            } catch (Exception e) {
+                stats.recordLoadFailure();
+                if (isServableStale(current)) {
+                    stats.recordStaleHit();
+                    log.warn("⚠️ FC Framework: Serving stale " + functionName + " after load failure: " + e.getMessage());
+                    return current.value;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Non-blocking lookup for CompletableFuture / Mono proxies
+     */
+    public CompletableFuture<Object> getAsync(Supplier<CompletableFuture<Object>> loader) {
+        Entry current = entry;
+        if (isFresh(current)) {
+            stats.recordHit();
+            refreshAheadIfDue(current, loader);
+            return CompletableFuture.completedFuture(current.value);
+        }
+
+        stats.recordMiss();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        loader.get().whenComplete((value, error) -> {
+            if (error == null) {
+                entry = new Entry(value);
+                result.complete(value);
+            } else {
+                stats.recordLoadFailure();
+                if (isServableStale(current)) {
+                    stats.recordStaleHit();
+                    log.warn("⚠️ FC Framework: Serving stale " + functionName + " after load failure: " + error.getMessage());
+                    result.complete(current.value);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            }
+        });
+        return result;
+    }
+
+    private void refreshAheadIfDue(Entry current, Supplier<CompletableFuture<Object>> refresher) {
+        if (current.age() < refreshAtNanos || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        log.debug("🔄 FC Framework: Refreshing cached " + functionName + " ahead of expiry");
+        CompletableFuture<Object> refresh;
+        try {
+            refresh = refresher.get();
+        } catch (RuntimeException e) {
+            refresh = CompletableFuture.failedFuture(e);
+        }
+        refresh.whenComplete((value, error) -> {
+            if (error == null) {
+                stats.recordRefresh();
+                entry = new Entry(value);
+            } else {
+                stats.recordLoadFailure();
+                log.warn("⚠️ FC Framework: Background refresh failed for " + functionName + ": " + error.getMessage());
+            }
+            refreshing.set(false);
+        });
+    }
+
+    private boolean isFresh(Entry current) {
+        return current != null && current.age() < ttlNanos;
+    }
+
+    private boolean isServableStale(Entry current) {
+        return current != null && current.age() < staleLimitNanos;
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long loadedAt = System.nanoTime();
+
+        private Entry(Object value) {
+            this.value = value;
+        }
+
+        private long age() {
+            return System.nanoTime() - loadedAt;
+        }
+    }
+}
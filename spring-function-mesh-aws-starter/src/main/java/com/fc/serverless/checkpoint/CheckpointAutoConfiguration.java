@@ -0,0 +1,28 @@
+package com.fc.serverless.checkpoint;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+
+/**
+ * Priming before a checkpoint and renewal after a restore (CRaC, Lambda SnapStart);
+ * turned off with fc.checkpoint.enabled=false
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "fc.checkpoint", name = "enabled", matchIfMissing = true)
+public class CheckpointAutoConfiguration {
+
+    /**
+     * Created even under lazy initialization, or the resource would never be registered
+     */
+    @Bean
+    @Lazy(false)
+    public CheckpointRestoreHooks checkpointRestoreHooks(ObjectProvider<CheckpointParticipant> participants,
+                                                         Environment environment) {
+        return new CheckpointRestoreHooks(participants,
+                environment.getProperty("fc.checkpoint.simulate", Boolean.class, false));
+    }
+}
@@ -0,0 +1,20 @@
+package com.fc.serverless.checkpoint;
+
+/**
+ * A bean with warm-up to do before a snapshot is taken and state to renew after
+ * the instance is restored from it. Called by {@link CheckpointRestoreHooks}.
+ */
+public interface CheckpointParticipant {
+
+    /**
+     * Run the bean's code paths on synthetic payloads, without remote calls or
+     * invoking application functions, then release what a snapshot cannot carry
+     * (open connections)
+     */
+    void beforeCheckpoint();
+
+    /**
+     * Renew what went stale while the snapshot was stored: credentials, connections
+     */
+    void afterRestore();
+}
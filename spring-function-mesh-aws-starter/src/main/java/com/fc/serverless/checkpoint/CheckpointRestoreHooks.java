@@ -0,0 +1,84 @@
+package com.fc.serverless.checkpoint;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.util.function.Consumer;
+
+/**
+ * CRaC resource that primes the framework before a checkpoint and renews its
+ * state after a restore; Lambda SnapStart calls the same hooks.
+ *
+ * Before the checkpoint every {@link CheckpointParticipant} exercises its code
+ * paths on synthetic payloads, so class loading, serializer lookup and JIT
+ * warm-up are in the snapshot rather than in the first request, and closes its
+ * connections. After the restore randomness is re-seeded and participants
+ * renew credentials and connections.
+ *
+ * On a JVM without CRaC the hooks never run on their own; fc.checkpoint.simulate=true
+ * runs both once the context is ready, as a checkpoint on refresh would.
+ */
+public class CheckpointRestoreHooks implements Resource, SmartInitializingSingleton {
+
+    private static final Log log = LogFactory.getLog(CheckpointRestoreHooks.class);
+
+    private final ObjectProvider<CheckpointParticipant> participants;
+    private final boolean simulate;
+
+    public CheckpointRestoreHooks(ObjectProvider<CheckpointParticipant> participants, boolean simulate) {
+        this.participants = participants;
+        this.simulate = simulate;
+        // The global context only holds resources weakly; as a bean this stays reachable
+        Core.getGlobalContext().register(this);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        long start = System.nanoTime();
+        forEachParticipant("prime", CheckpointParticipant::beforeCheckpoint);
+        log.info("📸 FC Framework: Primed for checkpoint in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        long start = System.nanoTime();
+        InstanceRandom.reseed();
+        forEachParticipant("restore", CheckpointParticipant::afterRestore);
+        log.info("📸 FC Framework: Restored from checkpoint in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Run both hooks in order, as a checkpoint immediately followed by a restore would
+     */
+    public void simulateCheckpoint() {
+        log.info("📸 FC Framework: Simulating checkpoint and restore");
+        beforeCheckpoint(null);
+        afterRestore(null);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (simulate) {
+            simulateCheckpoint();
+        }
+    }
+
+    /**
+     * Priming is best effort: one participant failing does not stop the others or the checkpoint
+     */
+    private void forEachParticipant(String action, Consumer<CheckpointParticipant> hook) {
+        participants.orderedStream().forEach(participant -> {
+            try {
+                hook.accept(participant);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ FC Framework: Could not " + action + " " + participant.getClass().getSimpleName() +
+                        " around checkpoint: " + e.getMessage());
+            }
+        });
+    }
+}
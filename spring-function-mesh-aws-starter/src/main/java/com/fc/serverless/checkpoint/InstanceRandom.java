@@ -0,0 +1,58 @@
+package com.fc.serverless.checkpoint;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+
+/**
+ * Per-thread random numbers that differ between instances restored from the same snapshot.
+ *
+ * ThreadLocalRandom cannot be re-seeded: threads started after a restore draw
+ * their seeds from state captured in the snapshot, so every restored instance
+ * would generate the same trace ids and the same retry jitter. Here each thread
+ * splits its generator from a root seeded from SecureRandom, and {@link #reseed()}
+ * replaces the root so every thread splits a new generator on its next call.
+ */
+public final class InstanceRandom {
+
+    private static final ThreadLocal<Local> LOCAL = ThreadLocal.withInitial(Local::new);
+
+    private static SplittableRandom root = newRoot();
+    private static volatile int generation;
+
+    private InstanceRandom() {
+    }
+
+    /**
+     * This thread's generator; not to be shared with other threads
+     */
+    public static SplittableRandom current() {
+        Local local = LOCAL.get();
+        int current = generation;
+        if (local.generation != current || local.random == null) {
+            local.random = split();
+            local.generation = current;
+        }
+        return local.random;
+    }
+
+    /**
+     * Start every thread on a new seed, e.g. after restoring from a snapshot
+     */
+    public static synchronized void reseed() {
+        root = newRoot();
+        generation++;
+    }
+
+    private static synchronized SplittableRandom split() {
+        return root.split();
+    }
+
+    private static SplittableRandom newRoot() {
+        return new SplittableRandom(new SecureRandom().nextLong());
+    }
+
+    private static final class Local {
+        private SplittableRandom random;
+        private int generation;
+    }
+}
@@ -0,0 +1,34 @@
+package com.fc.serverless.checkpoint;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+
+/**
+ * Values of arbitrary declared types for priming codecs before a checkpoint.
+ *
+ * A value is read from the smallest JSON document the type accepts: an empty
+ * object for beans, records and maps, an empty array for collections, then an
+ * empty string, zero and false for scalars. Types that accept none get null.
+ */
+public final class SyntheticPayloads {
+
+    private static final String[] CANDIDATES = {"{}", "[]", "\"\"", "0", "false"};
+
+    private SyntheticPayloads() {
+    }
+
+    public static Object sample(ObjectMapper jsonMapper, JavaType type) {
+        ObjectReader reader = jsonMapper.readerFor(type);
+        for (String candidate : CANDIDATES) {
+            try {
+                return reader.readValue(candidate);
+            } catch (IOException | RuntimeException e) {
+                // Not a shape this type accepts, try the next
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.fc.serverless.codec;
+
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.env.Environment;
+
+/**
+ * Request compression settings, resolved from fc.functions.{name}.compression.*
+ *
+ * Off by default. When enabled, request bodies of at least compression.minSize
+ * bytes are sent with compression.codec, and compressed responses are accepted.
+ */
+public class CompressionSettings {
+
+    private static final Log log = LogFactory.getLog(CompressionSettings.class);
+
+    private final boolean enabled;
+    private final ContentCoding coding;
+    private final int minSize;
+
+    public CompressionSettings(boolean enabled, ContentCoding coding, int minSize) {
+        this.enabled = enabled;
+        this.coding = coding;
+        this.minSize = minSize;
+    }
+
+    public static CompressionSettings resolve(String functionName, Environment environment,
+                                              EnvironmentPropertyResolver resolver) {
+        String codec = resolver.resolveProperty(functionName, "compression.codec", environment);
+        ContentCoding coding = ContentCoding.GZIP;
+        if (codec != null) {
+            try {
+                coding = ContentCoding.valueOf(codec.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                log.warn("⚠️ FC Framework: Unknown compression.codec '" + codec + "' for " + functionName + ", using gzip");
+            }
+        }
+        if (!coding.isAvailable()) {
+            log.warn("⚠️ FC Framework: " + coding.getToken() + " requested for " + functionName +
+                    " but zstd-jni is not on the classpath, using gzip");
+            coding = ContentCoding.GZIP;
+        }
+
+        return new CompressionSettings(
+                resolver.resolveBoolean(functionName, "compression.enabled", false, environment),
+                coding,
+                resolver.resolveInt(functionName, "compression.minSize", ContentCoding.DEFAULT_MIN_SIZE, environment));
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public ContentCoding getCoding() { return coding; }
+    public int getMinSize() { return minSize; }
+
+    @Override
+    public String toString() {
+        return "CompressionSettings{codec=" + coding.getToken() + ", minSize=" + minSize + "}";
+    }
+}
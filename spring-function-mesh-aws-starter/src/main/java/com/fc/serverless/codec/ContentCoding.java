@@ -0,0 +1,114 @@
+package com.fc.serverless.codec;
+
+import org.springframework.core.NativeDetector;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP content codings supported for mesh payloads.
+ *
+ * gzip is always available; zstd compresses faster at a similar ratio and is
+ * offered when zstd-jni is on the classpath, except in a native image, which
+ * cannot load its JNI library.
+ */
+public enum ContentCoding {
+
+    ZSTD("zstd"),
+    GZIP("gzip");
+
+    /**
+     * Payloads smaller than this are not worth compressing
+     */
+    public static final int DEFAULT_MIN_SIZE = 1024;
+
+    private static final boolean ZSTD_PRESENT = !NativeDetector.inNativeImage()
+            && ClassUtils.isPresent("com.github.luben.zstd.ZstdOutputStream", ContentCoding.class.getClassLoader());
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public boolean isAvailable() {
+        return this != ZSTD || ZSTD_PRESENT;
+    }
+
+    public byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (OutputStream out = this == ZSTD ? ZstdSupport.compressing(buffer) : new GZIPOutputStream(buffer)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    public InputStream decompress(InputStream in) throws IOException {
+        return this == ZSTD ? ZstdSupport.decompressing(in) : new GZIPInputStream(in);
+    }
+
+    /**
+     * Coding named by a Content-Encoding header; null for none or identity
+     *
+     * @throws IllegalArgumentException for codings this side cannot decode
+     */
+    public static ContentCoding fromContentEncoding(String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.isBlank()
+                || contentEncoding.trim().equalsIgnoreCase("identity")) {
+            return null;
+        }
+        String token = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        for (ContentCoding coding : values()) {
+            if (coding.token.equals(token) || (coding == GZIP && token.equals("x-gzip"))) {
+                if (coding.isAvailable()) {
+                    return coding;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported Content-Encoding: " + contentEncoding);
+    }
+
+    /**
+     * Best available coding the caller listed in Accept-Encoding, null if none
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        String accepted = acceptEncoding.toLowerCase(Locale.ROOT);
+        for (ContentCoding coding : values()) {
+            if (coding.isAvailable() && lists(accepted, coding.token)) {
+                return coding;
+            }
+        }
+        return null;
+    }
+
+    private static boolean lists(String acceptEncoding, String token) {
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.trim().split(";");
+            if (parts[0].trim().equals(token)) {
+                // An explicit q=0 means "not acceptable"
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Accept-Encoding value advertising every available coding
+     */
+    public static String acceptEncodingHeader() {
+        return ZSTD_PRESENT ? ZSTD.token + ", " + GZIP.token : GZIP.token;
+    }
+}
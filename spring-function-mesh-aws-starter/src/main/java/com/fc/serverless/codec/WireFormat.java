@@ -0,0 +1,118 @@
+package com.fc.serverless.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.util.InvalidMimeTypeException;
+
+/**
+ * Payload encodings understood between mesh functions.
+ *
+ * JSON is the default and what external callers use; SMILE and CBOR are compact
+ * binary encodings of the same Jackson data model, selected per function with
+ * fc.functions.{name}.wireFormat.
+ */
+public enum WireFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    SMILE(new MediaType("application", "x-jackson-smile")),
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private static final Log log = LogFactory.getLog(WireFormat.class);
+
+    private final MediaType mediaType;
+
+    WireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public boolean isBinary() {
+        return this != JSON;
+    }
+
+    /**
+     * Mapper for this format sharing the configuration of the given JSON mapper
+     */
+    public ObjectMapper codec(ObjectMapper jsonMapper) {
+        return switch (this) {
+            case JSON -> jsonMapper;
+            case SMILE -> jsonMapper.copyWith(new SmileFactory());
+            case CBOR -> jsonMapper.copyWith(new CBORFactory());
+        };
+    }
+
+    /**
+     * Accept header value: the binary format first, JSON for peers that only speak JSON
+     */
+    public String acceptHeader() {
+        return isBinary()
+                ? mediaType + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9"
+                : MediaType.APPLICATION_JSON_VALUE;
+    }
+
+    /**
+     * Format of a body with the given Content-Type, JSON when absent or unknown
+     */
+    public static WireFormat fromContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return JSON;
+        }
+        try {
+            return fromMediaType(MediaType.parseMediaType(contentType));
+        } catch (InvalidMimeTypeException e) {
+            return JSON;
+        }
+    }
+
+    /**
+     * First format listed in an Accept header, JSON when none is recognised
+     */
+    public static WireFormat fromAccept(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                for (WireFormat format : values()) {
+                    if (format.mediaType.equalsTypeAndSubtype(type)) {
+                        return format;
+                    }
+                }
+            }
+        } catch (InvalidMimeTypeException e) {
+            // Fall through to JSON
+        }
+        return JSON;
+    }
+
+    private static WireFormat fromMediaType(MediaType type) {
+        for (WireFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(type)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    public static WireFormat resolve(String functionName, Environment environment, EnvironmentPropertyResolver resolver) {
+        String value = resolver.resolveProperty(functionName, "wireFormat", environment);
+        if (value == null) {
+            return JSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ FC Framework: Unknown wireFormat '" + value + "' for " + functionName + ", using JSON");
+            return JSON;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.fc.serverless.codec;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Keeps zstd-jni references out of ContentCoding so the optional
+ * dependency is only loaded when zstd is actually used
+ */
+final class ZstdSupport {
+
+    private ZstdSupport() {
+    }
+
+    static OutputStream compressing(OutputStream out) throws IOException {
+        return new ZstdOutputStream(out);
+    }
+
+    static InputStream decompressing(InputStream in) throws IOException {
+        return new ZstdInputStream(in);
+    }
+}
@@ -2,9 +2,14 @@ package com.fc.serverless.config;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Enhanced property resolver supporting auth types while maintaining backward compatibility
  */
@@ -17,8 +22,10 @@ public class EnvironmentPropertyResolver {
     private static final String PROP_SUFFIX = ".url";
     private static final String FC_FUNCTION_PREFIX = "fc.functions.";
     private static final String FC_FUNCTION_URL_SUFFIX = ".url";
+    private static final String FC_FUNCTION_URLS_SUFFIX = ".urls";
     private static final String FC_FUNCTION_PORT_SUFFIX = ".port";
     private static final String FC_FUNCTION_AUTH_TYPE_SUFFIX = ".authType";
+    private static final String FC_FUNCTION_DEFAULTS = "default";
     private static final String DEFAULT_LOCAL_HOST = "localhost";
     private static final int DEFAULT_BASE_PORT = 8080;
 
@@ -28,15 +35,23 @@ public class EnvironmentPropertyResolver {
     }
 
     public static class FunctionConfig {
-        private final String url;
+        private final List<String> urls;
         private final AuthType authType;
 
         public FunctionConfig(String url, AuthType authType) {
-            this.url = url;
+            this(List.of(url), authType);
+        }
+
+        public FunctionConfig(List<String> urls, AuthType authType) {
+            this.urls = List.copyOf(urls);
             this.authType = authType;
         }
 
-        public String getUrl() { return url; }
+        /**
+         * The first endpoint, the only one unless fc.functions.{name}.urls lists several
+         */
+        public String getUrl() { return urls.get(0); }
+        public List<String> getUrls() { return urls; }
         public AuthType getAuthType() { return authType; }
     }
 
@@ -44,11 +59,38 @@ public class EnvironmentPropertyResolver {
      * New method: Get complete function configuration including auth type
      */
     public FunctionConfig resolveFunctionConfig(String functionName, Environment environment) {
-        String url = resolveUrl(functionName, environment);
+        List<String> urls = resolveUrls(functionName, environment);
+        if (urls.isEmpty()) {
+            urls = List.of(resolveUrl(functionName, environment));
+        }
         AuthType authType = resolveAuthType(functionName, environment);
 
-        log.debug("Resolved config for " + functionName + ": url=" + url + ", authType=" + authType);
-        return new FunctionConfig(url, authType);
+        log.debug("Resolved config for " + functionName + ": urls=" + urls + ", authType=" + authType);
+        return new FunctionConfig(urls, authType);
+    }
+
+    /**
+     * Endpoints to balance across from fc.functions.{functionName}.urls, either a
+     * comma-separated value or a YAML list; empty when not configured
+     */
+    public List<String> resolveUrls(String functionName, Environment environment) {
+        String prefix = FC_FUNCTION_PREFIX + functionName + FC_FUNCTION_URLS_SUFFIX;
+        List<String> urls = new ArrayList<>();
+        String value = environment.getProperty(prefix);
+        if (value != null) {
+            for (String url : value.split(",")) {
+                if (!url.trim().isEmpty()) {
+                    urls.add(normalizeUrl(url.trim(), functionName));
+                }
+            }
+            return urls;
+        }
+        // YAML lists are flattened to urls[0], urls[1], ...
+        String url;
+        while ((url = environment.getProperty(prefix + "[" + urls.size() + "]")) != null && !url.trim().isEmpty()) {
+            urls.add(normalizeUrl(url.trim(), functionName));
+        }
+        return urls;
     }
 
     /**
@@ -106,6 +148,66 @@ public class EnvironmentPropertyResolver {
         return AuthType.NONE;
     }
 
+    /**
+     * Resolve a per-function setting: fc.functions.{functionName}.{key},
+     * then fc.functions.default.{key}, otherwise null
+     */
+    public String resolveProperty(String functionName, String key, Environment environment) {
+        String value = environment.getProperty(FC_FUNCTION_PREFIX + functionName + "." + key);
+        if (value == null || value.trim().isEmpty()) {
+            value = environment.getProperty(FC_FUNCTION_PREFIX + FC_FUNCTION_DEFAULTS + "." + key);
+        }
+        return (value == null || value.trim().isEmpty()) ? null : value.trim();
+    }
+
+    public int resolveInt(String functionName, String key, int defaultValue, Environment environment) {
+        String value = resolveProperty(functionName, key, environment);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid " + key + " for " + functionName + ": " + value + ", using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public double resolveDouble(String functionName, String key, double defaultValue, Environment environment) {
+        String value = resolveProperty(functionName, key, environment);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid " + key + " for " + functionName + ": " + value + ", using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public boolean resolveBoolean(String functionName, String key, boolean defaultValue, Environment environment) {
+        String value = resolveProperty(functionName, key, environment);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Durations accept Spring Boot style values such as "500ms", "5s" or "PT1M";
+     * a bare number is read as milliseconds
+     */
+    public Duration resolveDuration(String functionName, String key, Duration defaultValue, Environment environment) {
+        String value = resolveProperty(functionName, key, environment);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return DurationStyle.detectAndParse(value);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid " + key + " for " + functionName + ": " + value + ", using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
     private String normalizeUrl(String url, String functionName) {
         // Remove trailing slash
         if (url.endsWith("/")) {
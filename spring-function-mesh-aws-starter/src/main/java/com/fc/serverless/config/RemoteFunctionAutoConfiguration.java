@@ -1,7 +1,17 @@
 package com.fc.serverless.config;
 
+import com.fc.serverless.checkpoint.CheckpointAutoConfiguration;
+import com.fc.serverless.export.FunctionExportAutoConfiguration;
+import com.fc.serverless.http.PooledRemoteHttpClientFactory;
+import com.fc.serverless.http.RemoteHttpClientFactory;
+import com.fc.serverless.metrics.FunctionMeshMetrics;
+import com.fc.serverless.metrics.FunctionMeshMetricsAutoConfiguration;
 import com.fc.serverless.proxy.RemoteFunctionProxyFactory;
+import com.fc.serverless.tracing.TracingAutoConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.function.context.FunctionCatalog;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -10,7 +20,11 @@ import org.springframework.core.env.Environment;
 @Configuration
 @Import({
         JacksonAutoConfiguration.class,
-        WebMvcAutoConfiguration.class
+        WebMvcAutoConfiguration.class,
+        FunctionExportAutoConfiguration.class,
+        FunctionMeshMetricsAutoConfiguration.class,
+        TracingAutoConfiguration.class,
+        CheckpointAutoConfiguration.class
 })
 public class RemoteFunctionAutoConfiguration {
 
@@ -20,8 +34,16 @@ public class RemoteFunctionAutoConfiguration {
     }
 
     @Bean
-    public static RemoteFunctionProxyFactory proxyFactory() {
-        return new RemoteFunctionProxyFactory();
+    @ConditionalOnMissingBean(RemoteHttpClientFactory.class)
+    public static RemoteHttpClientFactory remoteHttpClientFactory() {
+        return new PooledRemoteHttpClientFactory();
+    }
+
+    @Bean
+    public static RemoteFunctionProxyFactory proxyFactory(RemoteHttpClientFactory remoteHttpClientFactory,
+                                                          ObjectProvider<FunctionCatalog> functionCatalog,
+                                                          ObjectProvider<FunctionMeshMetrics> metrics) {
+        return new RemoteFunctionProxyFactory(remoteHttpClientFactory, functionCatalog, metrics);
     }
 
     @Bean
@@ -1,30 +1,53 @@
 package com.fc.serverless.config;
 
 import com.fc.serverless.core.annotation.RemoteFunction;
+import com.fc.serverless.proxy.InvocationMode;
 import com.fc.serverless.proxy.RemoteFunctionProxyFactory;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.aot.AotDetector;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Simplified BeanPostProcessor for injecting remote function proxies
+ *
+ * With AOT-generated artifacts (native images, spring.aot.enabled) only the
+ * classes in the injection point index written at build time are inspected,
+ * and only through the fields named there.
  */
     public class RemoteFunctionBeanPostProcessor implements BeanPostProcessor {
 
+    /**
+     * Class name to comma-separated @RemoteFunction field names, written by the AOT processing
+     */
+    public static final String INJECTION_POINT_INDEX = "META-INF/fc/remote-function-injection-points.properties";
+
     private static final Log log = LogFactory.getLog(RemoteFunctionBeanPostProcessor.class);
 
     private final RemoteFunctionProxyFactory proxyFactory;
     private final Environment environment;
+    private final Map<String, List<String>> index;
+    private final Map<Class<?>, List<RemoteFunctionInjectionPoint>> injectionPoints = new ConcurrentHashMap<>();
 
     public RemoteFunctionBeanPostProcessor(RemoteFunctionProxyFactory proxyFactory, Environment environment) {
         this.proxyFactory = proxyFactory;
         this.environment = environment;
+        this.index = AotDetector.useGeneratedArtifacts() ? loadIndex() : null;
     }
 
     @Override
@@ -36,46 +59,65 @@ import java.lang.reflect.Type;
             clazz = clazz.getSuperclass();
         }
 
-        for (Field field : clazz.getDeclaredFields()) {
-            if (field.isAnnotationPresent(RemoteFunction.class)) {
-                field.setAccessible(true);
-                try {
-                    RemoteFunction annotation = field.getAnnotation(RemoteFunction.class);
-                    Class<?> returnType = extractReturnType(field);
+        for (RemoteFunctionInjectionPoint point : injectionPoints.computeIfAbsent(clazz, this::resolve)) {
+            Field field = point.getField();
+            field.setAccessible(true);
+            try {
+                RemoteFunction annotation = point.getAnnotation();
+                InvocationMode mode = point.getMode();
+                Type returnType = point.getReturnType();
 
-                    Object proxy = proxyFactory.createProxy(field.getType(), annotation, environment, returnType);
-                    field.set(bean, proxy);
+                Object proxy = proxyFactory.createProxy(field.getType(), annotation, environment,
+                        point.getInputType(), returnType, mode);
+                field.set(bean, proxy);
 
-                    log.info("🔗 Injected remote function proxy: " + annotation.name() +
-                            " into " + beanName + " [returnType: " + returnType.getSimpleName() + "]");
+                log.info("🔗 Injected remote function proxy: " + annotation.name() +
+                        " into " + beanName + " [returnType: " + returnType.getTypeName() + ", mode: " + mode + "]");
 
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException("Failed to inject remote function proxy: " + field.getName(), e);
-                }
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("Failed to inject remote function proxy: " + field.getName(), e);
             }
         }
         return bean;
     }
 
-    private Class<?> extractReturnType(Field field) {
-        Type genericType = field.getGenericType();
-
-        if (genericType instanceof ParameterizedType) {
-            ParameterizedType paramType = (ParameterizedType) genericType;
-            Type[] typeArgs = paramType.getActualTypeArguments();
-
-            // For Function<Input, Output>, we want the second type argument (Output)
-            // For Supplier<Output>, we want the first type argument (Output)
-            // For Consumer<Input>, there's no return type (use Void)
-            if (typeArgs.length >= 1) {
-                Type returnTypeArg = typeArgs.length == 2 ? typeArgs[1] : typeArgs[0];
-                if (returnTypeArg instanceof Class) {
-                    return (Class<?>) returnTypeArg;
-                }
+    private List<RemoteFunctionInjectionPoint> resolve(Class<?> clazz) {
+        if (index == null) {
+            return RemoteFunctionInjectionPoint.find(clazz);
+        }
+        List<String> fieldNames = index.get(clazz.getName());
+        if (fieldNames == null) {
+            return Collections.emptyList();
+        }
+        List<RemoteFunctionInjectionPoint> points = new ArrayList<>();
+        for (String fieldName : fieldNames) {
+            try {
+                points.add(RemoteFunctionInjectionPoint.of(clazz.getDeclaredField(fieldName)));
+            } catch (NoSuchFieldException e) {
+                throw new RuntimeException("FC Framework: Indexed remote function field " + clazz.getName() + "." +
+                        fieldName + " not found, rerun the AOT processing", e);
             }
         }
+        return points;
+    }
 
-        // Fallback to Object if we can't determine the type
-        return Object.class;
+    private static Map<String, List<String>> loadIndex() {
+        Map<String, List<String>> index = new ConcurrentHashMap<>();
+        ClassPathResource resource = new ClassPathResource(INJECTION_POINT_INDEX, RemoteFunctionBeanPostProcessor.class.getClassLoader());
+        if (!resource.exists()) {
+            log.warn("⚠️ FC Framework: No remote function injection point index in the AOT artifacts, " +
+                    "@RemoteFunction fields will not be injected");
+            return index;
+        }
+        try {
+            Properties properties = PropertiesLoaderUtils.loadProperties(resource);
+            for (String className : properties.stringPropertyNames()) {
+                index.put(className, List.of(StringUtils.commaDelimitedListToStringArray(properties.getProperty(className))));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("FC Framework: Could not read " + INJECTION_POINT_INDEX, e);
+        }
+        log.info("🔗 FC Framework: Loaded " + index.size() + " classes with remote functions from the AOT index");
+        return index;
     }
-}
\ No newline at end of file
+}
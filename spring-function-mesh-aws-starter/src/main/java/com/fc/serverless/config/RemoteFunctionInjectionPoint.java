@@ -0,0 +1,138 @@
+package com.fc.serverless.config;
+
+import com.fc.serverless.core.annotation.RemoteFunction;
+import com.fc.serverless.proxy.InvocationMode;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A @RemoteFunction field and what its declaration says about the proxy: the
+ * invocation mode and the input and result types, generics included
+ */
+public final class RemoteFunctionInjectionPoint {
+
+    private final Field field;
+    private final RemoteFunction annotation;
+    private final InvocationMode mode;
+    private final Type inputType;
+    private final Type returnType;
+
+    private RemoteFunctionInjectionPoint(Field field) {
+        this.field = field;
+        this.annotation = field.getAnnotation(RemoteFunction.class);
+        this.mode = extractInvocationMode(field);
+        this.inputType = extractInputType(field);
+        this.returnType = extractReturnType(field, mode);
+    }
+
+    public static RemoteFunctionInjectionPoint of(Field field) {
+        return new RemoteFunctionInjectionPoint(field);
+    }
+
+    /**
+     * The @RemoteFunction fields declared by the class itself
+     */
+    public static List<RemoteFunctionInjectionPoint> find(Class<?> clazz) {
+        List<RemoteFunctionInjectionPoint> points = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (field.isAnnotationPresent(RemoteFunction.class)) {
+                points.add(new RemoteFunctionInjectionPoint(field));
+            }
+        }
+        return points;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public RemoteFunction getAnnotation() {
+        return annotation;
+    }
+
+    public InvocationMode getMode() {
+        return mode;
+    }
+
+    public Type getInputType() {
+        return inputType;
+    }
+
+    /**
+     * Result type without the CompletableFuture or Mono of an asynchronous proxy
+     */
+    public Type getReturnType() {
+        return returnType;
+    }
+
+    /**
+     * Full generic result type, e.g. List<PriceInfo> for Function<OrderRequest, List<PriceInfo>>
+     */
+    private static Type extractReturnType(Field field, InvocationMode mode) {
+        Type returnTypeArg = extractResultTypeArgument(field);
+
+        // For Function<Input, CompletableFuture<Output>> or Mono<Output>, we want Output;
+        // a raw CompletableFuture or Mono decodes to Object
+        if (mode.isAsync()) {
+            returnTypeArg = returnTypeArg instanceof ParameterizedType paramType
+                    ? paramType.getActualTypeArguments()[0]
+                    : Object.class;
+        }
+
+        // Fallback to Object if we can't determine the type
+        return returnTypeArg != null ? returnTypeArg : Object.class;
+    }
+
+    /**
+     * Declared input type for Function<Input, ?> and Consumer<Input>, Object otherwise
+     */
+    private static Type extractInputType(Field field) {
+        Type genericType = field.getGenericType();
+        if (genericType instanceof ParameterizedType paramType
+                && (Function.class.isAssignableFrom(field.getType()) || Consumer.class.isAssignableFrom(field.getType()))) {
+            return paramType.getActualTypeArguments()[0];
+        }
+        return Object.class;
+    }
+
+    private static InvocationMode extractInvocationMode(Field field) {
+        if (Consumer.class.isAssignableFrom(field.getType())) {
+            return InvocationMode.BLOCKING;
+        }
+        Type returnTypeArg = extractResultTypeArgument(field);
+        if (returnTypeArg instanceof ParameterizedType) {
+            Type rawType = ((ParameterizedType) returnTypeArg).getRawType();
+            if (rawType instanceof Class) {
+                return InvocationMode.of((Class<?>) rawType);
+            }
+        }
+        // Raw result types such as Function<OrderRequest, Mono>
+        if (returnTypeArg instanceof Class<?> rawClass) {
+            return InvocationMode.of(rawClass);
+        }
+        return InvocationMode.BLOCKING;
+    }
+
+    private static Type extractResultTypeArgument(Field field) {
+        Type genericType = field.getGenericType();
+
+        if (genericType instanceof ParameterizedType) {
+            ParameterizedType paramType = (ParameterizedType) genericType;
+            Type[] typeArgs = paramType.getActualTypeArguments();
+
+            // For Function<Input, Output>, we want the second type argument (Output)
+            // For Supplier<Output>, we want the first type argument (Output)
+            // For Consumer<Input>, there's no return type (use Void)
+            if (typeArgs.length >= 1) {
+                return typeArgs.length == 2 ? typeArgs[1] : typeArgs[0];
+            }
+        }
+        return null;
+    }
+}
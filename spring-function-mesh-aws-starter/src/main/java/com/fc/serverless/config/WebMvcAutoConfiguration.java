@@ -1,21 +1,37 @@
 package com.fc.serverless.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fc.serverless.codec.WireFormat;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
  * Auto-configuration for Web MVC with sensible defaults for serverless functions
  *
  * Configures content negotiation to default to JSON responses,
- * which is what most serverless functions need.
+ * which is what most serverless functions need. Smile and CBOR converters
+ * are added after the JSON ones so that only callers asking for them
+ * (remote function proxies with a binary wireFormat) get binary responses.
  */
 @Configuration
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WebMvcAutoConfiguration implements WebMvcConfigurer {
 
+    private final ObjectProvider<ObjectMapper> objectMapper;
+
+    public WebMvcAutoConfiguration(ObjectProvider<ObjectMapper> objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
     @Override
     public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
         configurer
@@ -34,4 +50,11 @@ public class WebMvcAutoConfiguration implements WebMvcConfigurer {
                 // Use Accept header for content negotiation
                 .ignoreAcceptHeader(false);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        ObjectMapper jsonMapper = objectMapper.getIfAvailable(ObjectMapper::new);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(WireFormat.SMILE.codec(jsonMapper)));
+        converters.add(new MappingJackson2CborHttpMessageConverter(WireFormat.CBOR.codec(jsonMapper)));
+    }
+}
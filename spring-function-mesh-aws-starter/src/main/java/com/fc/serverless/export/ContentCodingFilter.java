@@ -0,0 +1,183 @@
+package com.fc.serverless.export;
+
+import com.fc.serverless.codec.ContentCoding;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * Content-Encoding support for exported function endpoints.
+ *
+ * Compressed request bodies (gzip, zstd) are decoded before they reach the
+ * function. Responses to remote function proxies (X-FC-Framework) are compressed
+ * with the best coding the caller accepts once they reach the size threshold.
+ * Other callers' responses are left alone. Responses completed by an async
+ * dispatch, as suppliers' are, are compressed once that dispatch finishes.
+ */
+public class ContentCodingFilter extends OncePerRequestFilter {
+
+    private final int minSize;
+
+    public ContentCodingFilter(int minSize) {
+        this.minSize = minSize;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            // The body is still going to the buffer installed by the initial dispatch
+            chain.doFilter(request, response);
+            ContentCachingResponseWrapper bufferedResponse =
+                    WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (bufferedResponse != null && !isAsyncStarted(request)) {
+                writeResponse(request, bufferedResponse);
+            }
+            return;
+        }
+
+        ContentCoding requestCoding;
+        try {
+            requestCoding = ContentCoding.fromContentEncoding(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(), e.getMessage());
+            return;
+        }
+        HttpServletRequest decodedRequest = requestCoding == null ? request : new DecodedRequest(request, requestCoding);
+
+        ContentCoding responseCoding = request.getHeader("X-FC-Framework") != null
+                ? ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                : null;
+        if (responseCoding == null) {
+            chain.doFilter(decodedRequest, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper bufferedResponse = new ContentCachingResponseWrapper(response);
+        chain.doFilter(decodedRequest, bufferedResponse);
+        if (!isAsyncStarted(request)) {
+            writeResponse(request, bufferedResponse);
+        }
+    }
+
+    private void writeResponse(HttpServletRequest request, ContentCachingResponseWrapper bufferedResponse)
+            throws IOException {
+        HttpServletResponse response = (HttpServletResponse) bufferedResponse.getResponse();
+        ContentCoding responseCoding = ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] content = bufferedResponse.getContentAsByteArray();
+        if (content.length < minSize || response.containsHeader(HttpHeaders.CONTENT_ENCODING) || response.isCommitted()) {
+            bufferedResponse.copyBodyToResponse();
+            return;
+        }
+
+        byte[] compressed = responseCoding.compress(content);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, responseCoding.getToken());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+        response.flushBuffer();
+    }
+
+    /**
+     * Presents the decompressed body as a plain request of unknown length
+     */
+    private static final class DecodedRequest extends HttpServletRequestWrapper {
+
+        private final ContentCoding coding;
+        private ServletInputStream inputStream;
+
+        private DecodedRequest(HttpServletRequest request, ContentCoding coding) {
+            super(request);
+            this.coding = coding;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                InputStream decoded = coding.decompress(super.getInputStream());
+                inputStream = new ServletInputStream() {
+                    private boolean finished;
+
+                    @Override
+                    public int read() throws IOException {
+                        int b = decoded.read();
+                        finished = b == -1;
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int n = decoded.read(buffer, offset, length);
+                        finished = n == -1;
+                        return n;
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return finished;
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener listener) {
+                        throw new UnsupportedOperationException("Asynchronous reads are not supported");
+                    }
+                };
+            }
+            return inputStream;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (isDecodedHeader(name)) {
+                return null;
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (isDecodedHeader(name)) {
+                return Collections.emptyEnumeration();
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        private static boolean isDecodedHeader(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.fc.serverless.export;
+
+import com.fc.serverless.metrics.ExportedFunctionMetrics;
+import com.fc.serverless.metrics.FunctionMeshMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.function.context.FunctionCatalog;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records calls of exported function endpoints (/{function} and /{function}/batch).
+ *
+ * Runs outside content coding so sizes are what went over the wire. Only paths
+ * naming a function in the catalog are recorded, which keeps arbitrary request
+ * paths out of the metric tags.
+ */
+public class ExportMetricsFilter extends OncePerRequestFilter implements Ordered {
+
+    private final ObjectProvider<FunctionMeshMetrics> metrics;
+    private final ObjectProvider<FunctionCatalog> functionCatalog;
+    private final Map<String, ExportedFunctionMetrics> exportedFunctions = new ConcurrentHashMap<>();
+    private volatile FunctionMeshMetrics resolved;
+
+    public ExportMetricsFilter(ObjectProvider<FunctionMeshMetrics> metrics, ObjectProvider<FunctionCatalog> functionCatalog) {
+        this.metrics = metrics;
+        this.functionCatalog = functionCatalog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ExportedFunctionMetrics functionMetrics = metricsFor(request);
+        if (!functionMetrics.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        CountingResponse countingResponse = new CountingResponse(response);
+        functionMetrics.callStarted();
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            chain.doFilter(request, countingResponse);
+        } catch (IOException | ServletException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            functionMetrics.callFinished(System.nanoTime() - start, request.getContentLengthLong(),
+                    countingResponse.getBytesWritten(), error != null ? 500 : response.getStatus(), error);
+        }
+    }
+
+    private ExportedFunctionMetrics metricsFor(HttpServletRequest request) {
+        FunctionMeshMetrics meshMetrics = resolved;
+        if (meshMetrics == null) {
+            meshMetrics = metrics.getIfAvailable(() -> FunctionMeshMetrics.NOOP);
+            resolved = meshMetrics;
+        }
+        if (meshMetrics == FunctionMeshMetrics.NOOP) {
+            return ExportedFunctionMetrics.NOOP;
+        }
+
+        String functionName = ExportedFunctionPaths.functionName(request);
+        if (functionName == null) {
+            return ExportedFunctionMetrics.NOOP;
+        }
+        ExportedFunctionMetrics functionMetrics = exportedFunctions.get(functionName);
+        if (functionMetrics == null) {
+            FunctionCatalog catalog = functionCatalog.getIfAvailable();
+            if (catalog == null || catalog.lookup(functionName) == null) {
+                return ExportedFunctionMetrics.NOOP;
+            }
+            functionMetrics = exportedFunctions.computeIfAbsent(functionName, meshMetrics::exportedFunction);
+        }
+        return functionMetrics;
+    }
+
+    /**
+     * Ahead of ContentCodingFilter, so compressed sizes are recorded
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private ServletOutputStream outputStream;
+        private long bytesWritten;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytesWritten++;
+                    }
+
+                    @Override
+                    public void write(byte[] buffer, int offset, int length) throws IOException {
+                        delegate.write(buffer, offset, length);
+                        bytesWritten += length;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        /**
+         * Bytes written through the output stream, otherwise the declared Content-Length, -1 if unknown
+         */
+        long getBytesWritten() {
+            if (outputStream != null) {
+                return bytesWritten;
+            }
+            String contentLength = getHeader("Content-Length");
+            try {
+                return contentLength != null ? Long.parseLong(contentLength) : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
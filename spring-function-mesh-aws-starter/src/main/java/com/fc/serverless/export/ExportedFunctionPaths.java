@@ -0,0 +1,28 @@
+package com.fc.serverless.export;
+
+import com.fc.serverless.proxy.RemoteFunctionClient;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Maps requests to the exported function endpoints, /{function} and /{function}/batch
+ */
+final class ExportedFunctionPaths {
+
+    private ExportedFunctionPaths() {
+    }
+
+    /**
+     * The function the request path names, or null for any other path; whether
+     * such a function exists is up to the caller
+     */
+    static String functionName(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.endsWith(RemoteFunctionClient.BATCH_PATH)) {
+            path = path.substring(0, path.length() - RemoteFunctionClient.BATCH_PATH.length());
+        }
+        if (path.length() < 2 || path.indexOf('/', 1) != -1) {
+            return null;
+        }
+        return path.substring(1);
+    }
+}
@@ -0,0 +1,129 @@
+package com.fc.serverless.export;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fc.serverless.checkpoint.CheckpointParticipant;
+import com.fc.serverless.checkpoint.SyntheticPayloads;
+import com.fc.serverless.codec.ContentCoding;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.function.context.FunctionCatalog;
+import org.springframework.cloud.function.context.catalog.SimpleFunctionRegistry.FunctionInvocationWrapper;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Primes the server side of exported functions before a checkpoint: each
+ * function is looked up in the catalog, and synthetic values of its input and
+ * output types go through every mapper the endpoints decode and encode with
+ * (JSON, Smile, CBOR) and through every content coding. Functions are looked
+ * up, never invoked.
+ */
+public class ExportedFunctionPrimer implements CheckpointParticipant {
+
+    private static final Log log = LogFactory.getLog(ExportedFunctionPrimer.class);
+
+    private final ObjectProvider<FunctionCatalog> functionCatalog;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+
+    public ExportedFunctionPrimer(ObjectProvider<FunctionCatalog> functionCatalog, ObjectMapper objectMapper,
+                                  ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter) {
+        this.functionCatalog = functionCatalog;
+        this.objectMapper = objectMapper;
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    @Override
+    public void beforeCheckpoint() {
+        FunctionCatalog catalog = functionCatalog.getIfAvailable();
+        if (catalog == null) {
+            return;
+        }
+        List<ObjectMapper> mappers = mappers();
+        int primed = 0;
+        for (String name : catalog.getNames(null)) {
+            try {
+                FunctionInvocationWrapper function = catalog.lookup(name);
+                if (function == null) {
+                    continue;
+                }
+                if (!function.isSupplier()) {
+                    prime(function.getInputType(), mappers);
+                }
+                if (!function.isConsumer()) {
+                    prime(function.getOutputType(), mappers);
+                }
+                primed++;
+            } catch (Exception e) {
+                log.debug("🔗 FC Framework: Could not prime exported function " + name + ": " + e);
+            }
+        }
+        primeContentCodings();
+        log.info("📸 FC Framework: Primed " + primed + " exported functions with " + mappers.size() + " mappers");
+    }
+
+    @Override
+    public void afterRestore() {
+    }
+
+    /**
+     * The context mapper and those of the MVC message converters, which include the binary formats
+     */
+    private List<ObjectMapper> mappers() {
+        List<ObjectMapper> mappers = new ArrayList<>();
+        mappers.add(objectMapper);
+        RequestMappingHandlerAdapter adapter = handlerAdapter.getIfAvailable();
+        if (adapter != null) {
+            for (HttpMessageConverter<?> converter : adapter.getMessageConverters()) {
+                if (converter instanceof AbstractJackson2HttpMessageConverter jackson
+                        && mappers.stream().noneMatch(mapper -> mapper == jackson.getObjectMapper())) {
+                    mappers.add(jackson.getObjectMapper());
+                }
+            }
+        }
+        return mappers;
+    }
+
+    /**
+     * Single calls and batches, as FunctionBatchController converts them
+     */
+    private void prime(Type type, List<ObjectMapper> mappers) throws IOException {
+        JavaType javaType = objectMapper.constructType(type);
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, javaType);
+        Object value = SyntheticPayloads.sample(objectMapper, javaType);
+        objectMapper.convertValue(objectMapper.valueToTree(value), javaType);
+        for (ObjectMapper mapper : mappers) {
+            mapper.readValue(mapper.writeValueAsBytes(value), javaType);
+            mapper.readValue(mapper.writeValueAsBytes(Collections.singletonList(value)), listType);
+        }
+    }
+
+    /**
+     * Payloads above any threshold, so the codings' compressors and decompressors all load
+     */
+    private static void primeContentCodings() {
+        byte[] payload = "{\"primed\":true}".repeat(ContentCoding.DEFAULT_MIN_SIZE / 8).getBytes(StandardCharsets.UTF_8);
+        ContentCoding.negotiate(ContentCoding.acceptEncodingHeader());
+        for (ContentCoding coding : ContentCoding.values()) {
+            if (!coding.isAvailable()) {
+                continue;
+            }
+            try {
+                coding.decompress(new ByteArrayInputStream(coding.compress(payload))).readAllBytes();
+            } catch (IOException e) {
+                log.debug("🔗 FC Framework: Could not prime " + coding.getToken() + " content coding: " + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.fc.serverless.export;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fc.serverless.proxy.BatchResult;
+import com.fc.serverless.proxy.RemoteFunctionClient;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.function.context.FunctionCatalog;
+import org.springframework.cloud.function.context.catalog.SimpleFunctionRegistry.FunctionInvocationWrapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch endpoint for exported functions: POST /{functionName}/batch with a JSON
+ * array applies the function to every element and returns a {@link BatchResult}
+ * per element in the same order, so an element that fails does not fail the
+ * others. Used by proxies with fc.functions.{name}.batch.enabled.
+ * Smile and CBOR arrays are accepted too, answered in the format the caller accepts.
+ */
+@RestController
+public class FunctionBatchController {
+
+    private static final Log log = LogFactory.getLog(FunctionBatchController.class);
+
+    private static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private final ObjectProvider<FunctionCatalog> functionCatalog;
+    private final ObjectMapper objectMapper;
+
+    public FunctionBatchController(ObjectProvider<FunctionCatalog> functionCatalog, ObjectMapper objectMapper) {
+        this.functionCatalog = functionCatalog;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(path = "/{functionName}" + RemoteFunctionClient.BATCH_PATH,
+            consumes = {MediaType.APPLICATION_JSON_VALUE, SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public List<BatchResult<Object>> invokeBatch(@PathVariable String functionName, @RequestBody List<JsonNode> inputs) {
+        FunctionCatalog catalog = functionCatalog.getIfAvailable();
+        FunctionInvocationWrapper function = catalog != null ? catalog.lookup(functionName) : null;
+        if (function == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No exported function named " + functionName);
+        }
+
+        log.debug("📦 FC Framework: Applying " + functionName + " to batch of " + inputs.size());
+
+        JavaType inputType = function.isSupplier() ? null : objectMapper.constructType(function.getInputType());
+        List<BatchResult<Object>> results = new ArrayList<>(inputs.size());
+        for (JsonNode input : inputs) {
+            try {
+                results.add(BatchResult.success(function.isSupplier()
+                        ? function.get()
+                        : function.apply(objectMapper.convertValue(input, inputType))));
+            } catch (RuntimeException e) {
+                log.warn("⚠️ FC Framework: " + functionName + " failed on one batch element: " + e);
+                results.add(BatchResult.failure(e));
+            }
+        }
+        return results;
+    }
+}
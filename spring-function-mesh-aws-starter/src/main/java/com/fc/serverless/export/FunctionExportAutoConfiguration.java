@@ -0,0 +1,64 @@
+package com.fc.serverless.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fc.serverless.codec.ContentCoding;
+import com.fc.serverless.metrics.FunctionMeshMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cloud.function.context.FunctionCatalog;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * Auto-configuration for the server side of exported functions
+ * (endpoints that remote function proxies call into)
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(FunctionCatalog.class)
+public class FunctionExportAutoConfiguration {
+
+    @Bean
+    public FunctionBatchController functionBatchController(ObjectProvider<FunctionCatalog> functionCatalog,
+                                                           ObjectMapper objectMapper) {
+        return new FunctionBatchController(functionCatalog, objectMapper);
+    }
+
+    /**
+     * Compressed requests from, and responses to, remote function proxies;
+     * the response threshold is fc.export.compression.minSize bytes
+     */
+    @Bean
+    public ContentCodingFilter contentCodingFilter(Environment environment) {
+        return new ContentCodingFilter(environment.getProperty("fc.export.compression.minSize", Integer.class,
+                ContentCoding.DEFAULT_MIN_SIZE));
+    }
+
+    @Bean
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    public ExportMetricsFilter exportMetricsFilter(ObjectProvider<FunctionMeshMetrics> metrics,
+                                                   ObjectProvider<FunctionCatalog> functionCatalog) {
+        return new ExportMetricsFilter(metrics, functionCatalog);
+    }
+
+    /**
+     * Warms the exported function endpoints before a checkpoint, see fc.checkpoint.enabled
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "fc.checkpoint", name = "enabled", matchIfMissing = true)
+    public ExportedFunctionPrimer exportedFunctionPrimer(ObjectProvider<FunctionCatalog> functionCatalog,
+                                                         ObjectMapper objectMapper,
+                                                         ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter) {
+        return new ExportedFunctionPrimer(functionCatalog, objectMapper, handlerAdapter);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "fc.tracing", name = "enabled", matchIfMissing = true)
+    public TraceContextFilter traceContextFilter(ObjectProvider<FunctionCatalog> functionCatalog) {
+        return new TraceContextFilter(functionCatalog);
+    }
+}
@@ -0,0 +1,86 @@
+package com.fc.serverless.export;
+
+import com.fc.serverless.tracing.FunctionSpan;
+import com.fc.serverless.tracing.SpanReporter;
+import com.fc.serverless.tracing.SpanReporters;
+import com.fc.serverless.tracing.TraceContext;
+import com.fc.serverless.tracing.TraceContextHolder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.function.context.FunctionCatalog;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Continues the caller's trace in exported function endpoints: the incoming
+ * traceparent and call chain become the current TraceContext while the function
+ * runs, so remote calls it makes carry them on, and the request is reported as
+ * a server span.
+ */
+public class TraceContextFilter extends OncePerRequestFilter implements Ordered {
+
+    private final ObjectProvider<FunctionCatalog> functionCatalog;
+    private final Map<String, Boolean> exportedFunctions = new ConcurrentHashMap<>();
+
+    public TraceContextFilter(ObjectProvider<FunctionCatalog> functionCatalog) {
+        this.functionCatalog = functionCatalog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String functionName = exportedFunction(request);
+        if (functionName == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        TraceContext trace = TraceContext.extract(request::getHeader, functionName);
+        SpanReporter reporter = SpanReporters.global();
+        long startMicros = reporter.isEnabled() ? FunctionSpan.nowEpochMicros() : 0;
+        long start = reporter.isEnabled() ? System.nanoTime() : 0;
+        Throwable error = null;
+        try (TraceContextHolder.Scope scope = TraceContextHolder.open(trace)) {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            if (reporter.isEnabled()) {
+                if (error == null && response.getStatus() >= 500) {
+                    error = new IllegalStateException("HTTP " + response.getStatus());
+                }
+                reporter.report(new FunctionSpan(FunctionSpan.Kind.SERVER, functionName, trace, startMicros,
+                        System.nanoTime() - start, error));
+            }
+        }
+    }
+
+    private String exportedFunction(HttpServletRequest request) {
+        String functionName = ExportedFunctionPaths.functionName(request);
+        if (functionName == null || exportedFunctions.containsKey(functionName)) {
+            return functionName;
+        }
+        FunctionCatalog catalog = functionCatalog.getIfAvailable();
+        if (catalog == null || catalog.lookup(functionName) == null) {
+            return null;
+        }
+        exportedFunctions.put(functionName, Boolean.TRUE);
+        return functionName;
+    }
+
+    /**
+     * Outermost of the export filters, so the span covers decoding and encoding
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 90;
+    }
+}
@@ -0,0 +1,60 @@
+package com.fc.serverless.http;
+
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Per-function HTTP client settings, resolved from fc.functions.{name}.*
+ * (falling back to fc.functions.default.*)
+ */
+public class HttpClientSettings {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 50;
+    public static final Duration DEFAULT_IDLE_EVICTION = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+
+    private final int maxConnections;
+    private final Duration idleEviction;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final boolean http2;
+
+    public HttpClientSettings(int maxConnections, Duration idleEviction, Duration connectTimeout,
+                              Duration readTimeout, boolean http2) {
+        this.maxConnections = maxConnections;
+        this.idleEviction = idleEviction;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.http2 = http2;
+    }
+
+    public static HttpClientSettings defaults() {
+        return new HttpClientSettings(DEFAULT_MAX_CONNECTIONS, DEFAULT_IDLE_EVICTION,
+                DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, false);
+    }
+
+    public static HttpClientSettings resolve(String functionName, Environment environment,
+                                             EnvironmentPropertyResolver resolver) {
+        return new HttpClientSettings(
+                resolver.resolveInt(functionName, "maxConnections", DEFAULT_MAX_CONNECTIONS, environment),
+                resolver.resolveDuration(functionName, "idleEviction", DEFAULT_IDLE_EVICTION, environment),
+                resolver.resolveDuration(functionName, "connectTimeout", DEFAULT_CONNECT_TIMEOUT, environment),
+                resolver.resolveDuration(functionName, "readTimeout", DEFAULT_READ_TIMEOUT, environment),
+                resolver.resolveBoolean(functionName, "http2", false, environment));
+    }
+
+    public int getMaxConnections() { return maxConnections; }
+    public Duration getIdleEviction() { return idleEviction; }
+    public Duration getConnectTimeout() { return connectTimeout; }
+    public Duration getReadTimeout() { return readTimeout; }
+    public boolean isHttp2() { return http2; }
+
+    @Override
+    public String toString() {
+        return "HttpClientSettings{maxConnections=" + maxConnections + ", idleEviction=" + idleEviction +
+                ", connectTimeout=" + connectTimeout + ", readTimeout=" + readTimeout + ", http2=" + http2 + "}";
+    }
+}
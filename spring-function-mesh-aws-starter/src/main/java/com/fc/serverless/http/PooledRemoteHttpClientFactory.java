@@ -0,0 +1,157 @@
+package com.fc.serverless.http;
+
+import com.fc.serverless.checkpoint.CheckpointParticipant;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Default transport: one keep-alive connection pool per remote function.
+ *
+ * HTTP/1.1 functions get an Apache HttpClient pool sized by maxConnections (all
+ * connections go to the single Function URL host, so the per-route limit equals
+ * the total). Functions with http2 enabled use the JDK client, which negotiates
+ * h2 via ALPN and multiplexes calls over one connection, falling back to HTTP/1.1
+ * when the peer does not support it.
+ *
+ * Asynchronous proxies always use a JDK client, which keeps its own connection
+ * pool and completes calls without holding a caller thread. Over HTTP/1.1 it is
+ * held to maxConnections exchanges at once, so to as many connections. Its idle
+ * connections close after the JVM-wide jdk.httpclient.keepalive.timeout rather
+ * than idleEviction, which only the Apache pool applies.
+ *
+ * Around a checkpoint every pooled connection is dropped: a snapshot must not
+ * hold open sockets, and connections restored from one are dead. Pools then
+ * connect again on the next call.
+ */
+public class PooledRemoteHttpClientFactory implements RemoteHttpClientFactory, CheckpointParticipant, DisposableBean {
+
+    private static final Log log = LogFactory.getLog(PooledRemoteHttpClientFactory.class);
+
+    private final Map<String, ClientHttpRequestFactory> requestFactories = new ConcurrentHashMap<>();
+    private final Map<String, CloseableHttpClient> pooledClients = new ConcurrentHashMap<>();
+    private final Map<String, PoolingHttpClientConnectionManager> connectionManagers = new ConcurrentHashMap<>();
+    private final Map<String, HttpClient> asyncClients = new ConcurrentHashMap<>();
+    private final List<RenewableHttpClient> jdkClients = new CopyOnWriteArrayList<>();
+
+    @Override
+    public ClientHttpRequestFactory getRequestFactory(String functionName, HttpClientSettings settings) {
+        return requestFactories.computeIfAbsent(functionName, name -> {
+            log.info("🔌 FC Framework: Creating HTTP client for " + name + ": " + settings);
+            return settings.isHttp2() ? createHttp2RequestFactory(settings) : createPooledRequestFactory(name, settings);
+        });
+    }
+
+    @Override
+    public HttpClient getAsyncClient(String functionName, HttpClientSettings settings) {
+        return asyncClients.computeIfAbsent(functionName, name -> {
+            if (!settings.getIdleEviction().equals(HttpClientSettings.DEFAULT_IDLE_EVICTION)) {
+                log.warn("⚠️ FC Framework: idleEviction does not apply to the JDK client used for " + name +
+                        "; it closes idle connections after jdk.httpclient.keepalive.timeout");
+            }
+            return createJdkClient(settings);
+        });
+    }
+
+    private ClientHttpRequestFactory createPooledRequestFactory(String functionName, HttpClientSettings settings) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.getMaxConnections())
+                .setMaxConnPerRoute(settings.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(settings.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(settings.getReadTimeout()))
+                        .build())
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(settings.getConnectTimeout()))
+                        .setResponseTimeout(Timeout.of(settings.getReadTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(settings.getIdleEviction()))
+                // Retries are decided by the proxy, which only repeats idempotent calls
+                .disableAutomaticRetries()
+                .build();
+
+        connectionManagers.put(functionName, connectionManager);
+        pooledClients.put(functionName, httpClient);
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    private ClientHttpRequestFactory createHttp2RequestFactory(HttpClientSettings settings) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(createJdkClient(settings));
+        requestFactory.setReadTimeout(settings.getReadTimeout());
+        return requestFactory;
+    }
+
+    /**
+     * HTTP/2 multiplexes every call over one connection, so only HTTP/1.1 clients are limited
+     */
+    private HttpClient createJdkClient(HttpClientSettings settings) {
+        RenewableHttpClient client = new RenewableHttpClient(() -> HttpClient.newBuilder()
+                .version(settings.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.getConnectTimeout())
+                .build(), settings.isHttp2() ? 0 : settings.getMaxConnections(), settings.getConnectTimeout());
+        jdkClients.add(client);
+        return client;
+    }
+
+    /**
+     * Close every idle pooled connection and replace the JDK clients, which cannot close theirs
+     */
+    private void dropConnections() {
+        connectionManagers.values().forEach(manager -> manager.closeIdle(TimeValue.ZERO_MILLISECONDS));
+        jdkClients.forEach(RenewableHttpClient::renew);
+    }
+
+    @Override
+    public void beforeCheckpoint() {
+        dropConnections();
+        log.info("🔌 FC Framework: Closed pooled connections of " + (connectionManagers.size() + jdkClients.size()) +
+                " HTTP clients before checkpoint");
+    }
+
+    /**
+     * Anything still pooled was connected before the snapshot
+     */
+    @Override
+    public void afterRestore() {
+        dropConnections();
+    }
+
+    @Override
+    public void destroy() {
+        pooledClients.forEach((name, client) -> {
+            try {
+                client.close();
+            } catch (IOException e) {
+                log.warn("Failed to close HTTP client for " + name + ": " + e.getMessage());
+            }
+        });
+        pooledClients.clear();
+        connectionManagers.clear();
+        jdkClients.clear();
+        requestFactories.clear();
+        asyncClients.clear();
+    }
+}
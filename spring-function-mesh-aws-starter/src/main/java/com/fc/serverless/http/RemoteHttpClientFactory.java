@@ -0,0 +1,24 @@
+package com.fc.serverless.http;
+
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+
+/**
+ * Creates the HTTP transport used by remote function proxies.
+ *
+ * Register your own bean of this type to replace the default pooled client.
+ */
+public interface RemoteHttpClientFactory {
+
+    /**
+     * Returns the request factory for the given remote function. Implementations
+     * are expected to hand out one long-lived, keep-alive client per function.
+     */
+    ClientHttpRequestFactory getRequestFactory(String functionName, HttpClientSettings settings);
+
+    /**
+     * Returns the non-blocking client used by CompletableFuture and Mono proxies.
+     */
+    HttpClient getAsyncClient(String functionName, HttpClientSettings settings);
+}
@@ -0,0 +1,216 @@
+package com.fc.serverless.http;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * JDK client whose underlying client, and with it every pooled connection, can
+ * be replaced while transports keep their reference.
+ *
+ * The JDK client has no way to drop its idle connections, and connections
+ * carried across a snapshot are dead after the restore; renewing swaps in a new
+ * client that connects on its next request.
+ *
+ * The JDK client opens another HTTP/1.1 connection for every exchange that finds
+ * none idle, without limit. Given maxExchanges, exchanges beyond it wait for one
+ * to finish, for up to the connect timeout, which caps the connections it opens
+ * the way maxConnections caps the Apache pool.
+ */
+final class RenewableHttpClient extends HttpClient {
+
+    private final Supplier<HttpClient> factory;
+    private final Semaphore permits;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private final Duration maxWait;
+    private volatile HttpClient delegate;
+
+    /**
+     * @param maxExchanges exchanges in flight at once; 0 for no limit
+     * @param maxWait      how long an exchange may wait for another to finish
+     */
+    RenewableHttpClient(Supplier<HttpClient> factory, int maxExchanges, Duration maxWait) {
+        this.factory = factory;
+        this.permits = maxExchanges > 0 ? new Semaphore(maxExchanges) : null;
+        this.maxWait = maxWait;
+        this.delegate = factory.get();
+    }
+
+    /**
+     * Replace the client; the old one is closed where the JDK supports it (21+) and otherwise left to be collected
+     */
+    void renew() {
+        HttpClient previous = delegate;
+        delegate = factory.get();
+        if (previous instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                // Nothing is in flight before a checkpoint; a failure only leaves the old client to the collector
+            }
+        }
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        if (permits == null) {
+            return delegate.send(request, responseBodyHandler);
+        }
+        // Queued with the asynchronous exchanges, so neither kind can starve the other
+        CompletableFuture<HttpResponse<T>> response = sendAsync(request, responseBodyHandler);
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(request, responseBodyHandler, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        if (permits == null) {
+            return delegate.sendAsync(request, responseBodyHandler, pushPromiseHandler);
+        }
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        AtomicBoolean started = new AtomicBoolean();
+        Runnable exchange = () -> {
+            // Timed out or cancelled while waiting: only ever run from drain(), which moves on to the next
+            if (!started.compareAndSet(false, true) || result.isDone()) {
+                permits.release();
+                return;
+            }
+            CompletableFuture<HttpResponse<T>> response;
+            try {
+                response = delegate.sendAsync(request, responseBodyHandler, pushPromiseHandler);
+            } catch (RuntimeException e) {
+                release();
+                result.completeExceptionally(e);
+                return;
+            }
+            response.whenComplete((value, error) -> {
+                release();
+                if (error == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            });
+            result.whenComplete((value, error) -> response.cancel(true));
+        };
+
+        if (permits.tryAcquire()) {
+            exchange.run();
+            return result;
+        }
+        waiting.add(exchange);
+        CompletableFuture.delayedExecutor(maxWait.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            if (started.compareAndSet(false, true)) {
+                result.completeExceptionally(new HttpConnectTimeoutException(
+                        "FC Framework: No connection to " + request.uri().getHost() + " became free within " + maxWait));
+            }
+        });
+        // A permit may have been released between the failed acquire and the add
+        drain();
+        return result;
+    }
+
+    private void release() {
+        permits.release();
+        drain();
+    }
+
+    /**
+     * Start waiting exchanges while permits are free
+     */
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+                // Another thread took it; recheck so nothing added meanwhile is left behind
+                continue;
+            }
+            next.run();
+        }
+    }
+}
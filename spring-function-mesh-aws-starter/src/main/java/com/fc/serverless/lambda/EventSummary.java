@@ -0,0 +1,121 @@
+package com.fc.serverless.lambda;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The parts of a Function URL event or response the handler acts on: headers,
+ * body size and status code. Read with a streaming parser that skips the body
+ * and everything else, so the event itself is only parsed by the function.
+ *
+ * Direct invocations carry no envelope and summarize as having no headers.
+ */
+final class EventSummary {
+
+    private static final EventSummary NONE = new EventSummary(null, -1, -1);
+
+    private final Map<String, String> headers;
+    private final long bodySize;
+    private final int statusCode;
+
+    private EventSummary(Map<String, String> headers, long bodySize, int statusCode) {
+        this.headers = headers;
+        this.bodySize = bodySize;
+        this.statusCode = statusCode;
+    }
+
+    static EventSummary scan(JsonFactory jsonFactory, byte[] content, int length) throws IOException {
+        Map<String, String> headers = null;
+        long bodyChars = -1;
+        int padding = 0;
+        boolean base64Encoded = false;
+        int statusCode = -1;
+        try (JsonParser parser = jsonFactory.createParser(content, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return NONE;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "headers" -> {
+                        if (value == JsonToken.START_OBJECT) {
+                            headers = readHeaders(parser);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "body" -> {
+                        if (value == JsonToken.VALUE_STRING) {
+                            bodyChars = parser.getTextLength();
+                            padding = base64Padding(parser);
+                        }
+                    }
+                    case "isBase64Encoded" -> base64Encoded = value == JsonToken.VALUE_TRUE;
+                    case "statusCode" -> {
+                        if (value == JsonToken.VALUE_NUMBER_INT) {
+                            statusCode = parser.getIntValue();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        long bodySize = bodyChars < 0 || !base64Encoded ? bodyChars : bodyChars / 4 * 3 - padding;
+        return new EventSummary(headers, bodySize, statusCode);
+    }
+
+    private static Map<String, String> readHeaders(JsonParser parser) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                headers.put(name, parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return headers;
+    }
+
+    private static int base64Padding(JsonParser parser) throws IOException {
+        char[] text = parser.getTextCharacters();
+        int end = parser.getTextOffset() + parser.getTextLength();
+        int padding = 0;
+        for (int i = end - 1; i >= parser.getTextOffset() && padding < 2 && text[i] == '='; i--) {
+            padding++;
+        }
+        return padding;
+    }
+
+    /**
+     * Function URL event headers, lower-cased by the service; null without an envelope
+     */
+    Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    String header(String name) {
+        return headers != null ? headers.get(name) : null;
+    }
+
+    /**
+     * Size of the body as sent, -1 without a string body
+     */
+    long getBodySize() {
+        return bodySize;
+    }
+
+    /**
+     * Status of a Function URL response, 200 for a plain result
+     */
+    int getStatusCode() {
+        return statusCode >= 0 ? statusCode : 200;
+    }
+}
@@ -1,75 +1,563 @@
 package com.fc.serverless.lambda;
 
+import com.amazonaws.services.lambda.runtime.ClientContext;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fc.serverless.codec.ContentCoding;
+import com.fc.serverless.codec.WireFormat;
+import com.fc.serverless.metrics.ExportedFunctionMetrics;
+import com.fc.serverless.metrics.FunctionMeshMetrics;
+import com.fc.serverless.proxy.BatchResult;
+import com.fc.serverless.proxy.RemoteFunctionClient;
+import com.fc.serverless.tracing.FunctionSpan;
+import com.fc.serverless.tracing.SpanReporter;
+import com.fc.serverless.tracing.SpanReporters;
+import com.fc.serverless.tracing.TraceContext;
+import com.fc.serverless.tracing.TraceContextHolder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.crac.Core;
+import org.crac.Resource;
 import org.springframework.cloud.function.adapter.aws.FunctionInvoker;
+import org.springframework.http.MediaType;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Generic Lambda handler for FC Serverless Framework
  *
  * This handler works with any Spring Cloud Function and automatically
  * handles the FC framework initialization.
+ *
+ * The Lambda runtime deserializes the event into a map for this handler and
+ * serializes its result again; {@link FcLambdaStreamHandler} skips both.
+ *
+ * With SnapStart the Spring context is created eagerly during initialization,
+ * and the handler's event and response codecs are primed before the snapshot
+ * (see {@link com.fc.serverless.checkpoint.CheckpointRestoreHooks} for the rest).
  */
 public class FcLambdaHandler implements RequestHandler<Map<String, Object>, Object> {
 
+    private static final Log log = LogFactory.getLog(FcLambdaHandler.class);
+
+    private static final TypeReference<Map<String, Object>> EVENT_TYPE = new TypeReference<>() {
+    };
+
     private final FunctionInvoker invoker;
     private final ObjectMapper objectMapper;
+    private final Map<WireFormat, ObjectMapper> codecs = new EnumMap<>(WireFormat.class);
+    private final int compressionMinSize = resolveCompressionMinSize();
+    private final FunctionMeshMetrics meshMetrics = FunctionMeshMetrics.global();
+    private final boolean tracing = !"false".equalsIgnoreCase(System.getenv("FC_TRACING_ENABLED"));
+
+    // The CRaC context only holds resources weakly, so the handler keeps its own
+    private final Resource checkpointHook = new Resource() {
+        @Override
+        public void beforeCheckpoint(org.crac.Context<? extends Resource> context) throws IOException {
+            prime();
+        }
+
+        @Override
+        public void afterRestore(org.crac.Context<? extends Resource> context) {
+        }
+    };
 
     public FcLambdaHandler() {
+        // Lazy beans would move all warm-up into the first request, after the snapshot
+        boolean snapStart = "snap-start".equals(System.getenv("AWS_LAMBDA_INITIALIZATION_TYPE"));
+        System.setProperty("spring.main.lazy-initialization", String.valueOf(!snapStart));
+
         this.invoker = new FunctionInvoker();
         this.objectMapper = new ObjectMapper();
+        for (WireFormat format : WireFormat.values()) {
+            codecs.put(format, format.codec(objectMapper));
+        }
 
         // Set system properties for Lambda environment
-        System.setProperty("spring.main.lazy-initialization", "true");
         System.setProperty("spring.cloud.function.web.export.enabled", "true");
+        Core.getGlobalContext().register(checkpointHook);
 
-        System.out.println("🚀 FC Lambda Handler initialized");
+        log.info("🚀 FC Framework: Lambda handler initialized");
     }
 
     @Override
     public Object handleRequest(Map<String, Object> input, Context context) {
+        ExportedFunctionMetrics metrics = meshMetrics.exportedFunction(context.getFunctionName());
+        metrics.callStarted();
+        long start = System.nanoTime();
+        long requestBytes = bodySize(input);
+        Object response = null;
+        Exception error = null;
+        // Request-scoped: remote calls made by the function continue the caller's trace
+        TraceContext trace = tracing ? TraceContext.extract(
+                traceHeaders(input.get("headers") instanceof Map<?, ?> headers ? headers : null, context),
+                context.getFunctionName()) : null;
+        SpanReporter reporter = trace != null ? SpanReporters.global() : SpanReporter.NOOP;
+        long startMicros = reporter.isEnabled() ? FunctionSpan.nowEpochMicros() : 0;
+        try (TraceContextHolder.Scope scope = TraceContextHolder.open(trace)) {
+            logRequest(context, trace);
+            if (log.isDebugEnabled()) {
+                log.debug("📥 FC Lambda input: " + objectMapper.writeValueAsString(input));
+            }
+
+            // Mesh callers may send compressed Smile/CBOR and accept it back; the function itself always sees JSON
+            ContentCoding responseCoding = header(input, "x-fc-framework") != null
+                    ? ContentCoding.negotiate(header(input, "accept-encoding"))
+                    : null;
+            input = decodeContentEncoding(input);
+            WireFormat requestFormat = WireFormat.fromContentType(header(input, "content-type"));
+            WireFormat responseFormat = WireFormat.fromAccept(header(input, "accept"));
+            if (requestFormat.isBinary()) {
+                input = transcodeBodyToJson(input, requestFormat);
+            }
+            long decoded = System.nanoTime();
+            metrics.recordDecoding(decoded - start);
+
+            Object result;
+            if (isBatchRequest(input)) {
+                result = handleBatchRequest(input, context);
+            } else {
+                // FunctionInvoker reads and writes JSON streams
+                PooledBuffer output = PooledBuffer.acquire();
+                try {
+                    invoker.handleRequest(new ByteArrayInputStream(objectMapper.writeValueAsBytes(input)), output, context);
+                    logResponse(output);
+                    result = objectMapper.readValue(output.array(), 0, output.size(), Object.class);
+                } finally {
+                    output.release();
+                }
+            }
+            long invoked = System.nanoTime();
+            metrics.recordInvocation(invoked - decoded);
+
+            response = compressResponse(encodeResponse(result, responseFormat), responseCoding);
+            metrics.recordEncoding(System.nanoTime() - invoked);
+            return response;
+
+        } catch (Exception e) {
+            error = e;
+            log.error("❌ FC Lambda error: " + e.getMessage(), e);
+            return errorResponse(e, context);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            metrics.callFinished(elapsed, requestBytes, bodySize(response), error != null ? 500 : statusCode(response), error);
+            if (reporter.isEnabled()) {
+                reporter.report(new FunctionSpan(FunctionSpan.Kind.SERVER, context.getFunctionName(), trace,
+                        startMicros, elapsed, error));
+            }
+        }
+    }
+
+    /**
+     * Streaming counterpart of {@link #handleRequest(Map, Context)} behind {@link FcLambdaStreamHandler}.
+     *
+     * Plain JSON events go to the function as they arrived and its output goes
+     * back as written, through buffers reused across invocations; only the
+     * headers are read on the way. Compressed, Smile/CBOR and batch requests are
+     * rewritten before the call and take the map-based path, and responses are
+     * only parsed when they have to be re-encoded or compressed for the caller.
+     */
+    void handleStream(InputStream input, OutputStream output, Context context) throws IOException {
+        PooledBuffer request = PooledBuffer.acquire();
+        PooledBuffer response = PooledBuffer.acquire();
         try {
-            System.out.println("🔄 FC Lambda processing request: " + context.getFunctionName());
-            System.out.println("📥 Input: " + objectMapper.writeValueAsString(input));
+            request.readFrom(input);
+            EventSummary event = EventSummary.scan(objectMapper.getFactory(), request.array(), request.size());
+            if (needsDecoding(event)) {
+                Map<String, Object> decoded = objectMapper.readValue(request.array(), 0, request.size(), EVENT_TYPE);
+                objectMapper.writeValue(response, handleRequest(decoded, context));
+            } else {
+                streamRequest(request, event, response, context);
+            }
+            response.writeTo(output);
+        } finally {
+            request.release();
+            response.release();
+        }
+    }
 
-            // Add request context for tracing
-            System.setProperty("aws.lambda.request.id", context.getAwsRequestId());
-            System.setProperty("aws.lambda.function.name", context.getFunctionName());
+    /**
+     * Run the event and response paths once for every wire format and content
+     * coding on synthetic Function URL events, without invoking the function
+     */
+    void prime() throws IOException {
+        long start = System.nanoTime();
+        Map<String, Object> result = Map.of("primed", "x".repeat(compressionMinSize));
+        for (WireFormat format : WireFormat.values()) {
+            byte[] body = codecs.get(format).writeValueAsBytes(result);
+            for (ContentCoding coding : ContentCoding.values()) {
+                if (!coding.isAvailable()) {
+                    continue;
+                }
+                Map<String, Object> headers = Map.of(
+                        "content-type", format.getMediaType().toString(),
+                        "content-encoding", coding.getToken(),
+                        "accept", format.acceptHeader(),
+                        "accept-encoding", ContentCoding.acceptEncodingHeader(),
+                        "x-fc-framework", "true");
+                byte[] event = objectMapper.writeValueAsBytes(Map.of(
+                        "headers", headers,
+                        "body", Base64.getEncoder().encodeToString(coding.compress(body)),
+                        "isBase64Encoded", true));
 
-            // Convert input to InputStream for FunctionInvoker
-            String inputJson = objectMapper.writeValueAsString(input);
-            ByteArrayInputStream inputStream = new ByteArrayInputStream(inputJson.getBytes(StandardCharsets.UTF_8));
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                EventSummary.scan(objectMapper.getFactory(), event, event.length);
+                Map<String, Object> input = decodeContentEncoding(objectMapper.readValue(event, EVENT_TYPE));
+                if (format.isBinary()) {
+                    transcodeBodyToJson(input, format);
+                }
+                byte[] response = objectMapper.writeValueAsBytes(compressResponse(encodeResponse(result, format), coding));
+                EventSummary.scan(objectMapper.getFactory(), response, response.length);
+            }
+        }
+        log.info("📸 FC Framework: Primed Lambda handler in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
 
-            // Process the request through Spring Cloud Function
-            invoker.handleRequest(inputStream, outputStream, context);
+    private boolean needsDecoding(EventSummary event) {
+        return event.header("content-encoding") != null
+                || WireFormat.fromContentType(event.header("content-type")).isBinary()
+                || "true".equals(event.header(RemoteFunctionClient.BATCH_HEADER.toLowerCase()));
+    }
 
-            // Convert output back to Object
-            String outputJson = outputStream.toString(StandardCharsets.UTF_8);
-            Object result = objectMapper.readValue(outputJson, Object.class);
+    private void streamRequest(PooledBuffer request, EventSummary event, PooledBuffer response, Context context)
+            throws IOException {
+        ExportedFunctionMetrics metrics = meshMetrics.exportedFunction(context.getFunctionName());
+        metrics.callStarted();
+        long start = System.nanoTime();
+        long responseBytes = -1;
+        int status = 200;
+        Exception error = null;
+        TraceContext trace = tracing
+                ? TraceContext.extract(traceHeaders(event.getHeaders(), context), context.getFunctionName())
+                : null;
+        SpanReporter reporter = trace != null ? SpanReporters.global() : SpanReporter.NOOP;
+        long startMicros = reporter.isEnabled() ? FunctionSpan.nowEpochMicros() : 0;
+        try (TraceContextHolder.Scope scope = TraceContextHolder.open(trace)) {
+            logRequest(context, trace);
+            if (log.isDebugEnabled()) {
+                log.debug("📥 FC Lambda input: " + request.toString(StandardCharsets.UTF_8));
+            }
+            ContentCoding responseCoding = event.header("x-fc-framework") != null
+                    ? ContentCoding.negotiate(event.header("accept-encoding"))
+                    : null;
+            WireFormat responseFormat = WireFormat.fromAccept(event.header("accept"));
+            long decoded = System.nanoTime();
+            metrics.recordDecoding(decoded - start);
 
-            System.out.println("📤 FC Lambda response: " + outputJson);
-            System.out.println("✅ FC Lambda request completed successfully");
+            invoker.handleRequest(request.toInputStream(), response, context);
+            logResponse(response);
+            long invoked = System.nanoTime();
+            metrics.recordInvocation(invoked - decoded);
 
-            return result;
+            // The output is no larger than the body it would compress, so a small one is sent as it is
+            if (responseFormat.isBinary() || (responseCoding != null && response.size() >= compressionMinSize)) {
+                Object result = response.size() == 0 ? null
+                        : objectMapper.readValue(response.array(), 0, response.size(), Object.class);
+                Object encoded = compressResponse(encodeResponse(result, responseFormat), responseCoding);
+                response.reset();
+                objectMapper.writeValue(response, encoded);
+                responseBytes = bodySize(encoded);
+                status = statusCode(encoded);
+            } else if (metrics.isEnabled()) {
+                EventSummary summary = EventSummary.scan(objectMapper.getFactory(), response.array(), response.size());
+                responseBytes = summary.getBodySize();
+                status = summary.getStatusCode();
+            }
+            metrics.recordEncoding(System.nanoTime() - invoked);
 
         } catch (Exception e) {
-            System.err.println("❌ FC Lambda error: " + e.getMessage());
-            e.printStackTrace();
+            error = e;
+            log.error("❌ FC Lambda error: " + e.getMessage(), e);
+            response.reset();
+            objectMapper.writeValue(response, errorResponse(e, context));
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            metrics.callFinished(elapsed, event.getBodySize(), responseBytes, error != null ? 500 : status, error);
+            if (reporter.isEnabled()) {
+                reporter.report(new FunctionSpan(FunctionSpan.Kind.SERVER, context.getFunctionName(), trace,
+                        startMicros, elapsed, error));
+            }
+        }
+    }
+
+    private static void logRequest(Context context, TraceContext trace) {
+        if (log.isDebugEnabled()) {
+            log.debug("🔄 FC Lambda processing request: " + context.getFunctionName() + " (request " +
+                    context.getAwsRequestId() + (trace != null ? ", trace " + trace.getTraceId() : "") + ")");
+        }
+    }
+
+    private static void logResponse(PooledBuffer output) {
+        if (log.isDebugEnabled()) {
+            log.debug("📤 FC Lambda response: " + output.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Failures are answered rather than thrown, in a consistent format
+     */
+    private static Map<String, Object> errorResponse(Exception e, Context context) {
+        return Map.of(
+                "error", true,
+                "message", "FC Lambda processing failed: " + e.getMessage(),
+                "requestId", context.getAwsRequestId()
+        );
+    }
+
+    /**
+     * Trace headers of a Function URL request, or the client context set by the
+     * Lambda Invoke transport
+     *
+     * @param headers the event's headers, null for a direct invocation
+     */
+    private static Function<String, String> traceHeaders(Map<?, ?> headers, Context context) {
+        if (headers != null) {
+            return name -> {
+                Object value = headers.get(name.toLowerCase());
+                return value != null ? value.toString() : null;
+            };
+        }
+        ClientContext clientContext = context.getClientContext();
+        Map<String, String> custom = clientContext != null ? clientContext.getCustom() : null;
+        return name -> custom != null ? custom.get(name.toLowerCase()) : null;
+    }
+
+    /**
+     * Size of a Function URL request or response body, -1 when the runtime
+     * serializes a plain result itself
+     */
+    private static long bodySize(Object message) {
+        if (!(message instanceof Map<?, ?> map) || !(map.get("body") instanceof String body)) {
+            return -1;
+        }
+        if (!Boolean.TRUE.equals(map.get("isBase64Encoded"))) {
+            return body.length();
+        }
+        int padding = body.endsWith("==") ? 2 : body.endsWith("=") ? 1 : 0;
+        return body.length() / 4L * 3 - padding;
+    }
+
+    private static int statusCode(Object response) {
+        if (response instanceof Map<?, ?> envelope && envelope.get("statusCode") instanceof Number status) {
+            return status.intValue();
+        }
+        return 200;
+    }
+
+    /**
+     * Function URL events carry lower-cased request headers; batch calls from
+     * remote function proxies are marked with X-FC-Batch
+     */
+    private boolean isBatchRequest(Map<String, Object> input) {
+        Object headers = input.get("headers");
+        return headers instanceof Map &&
+                "true".equals(((Map<?, ?>) headers).get(RemoteFunctionClient.BATCH_HEADER.toLowerCase()));
+    }
 
-            // Return error response in consistent format
-            return Map.of(
-                    "error", true,
-                    "message", "FC Lambda processing failed: " + e.getMessage(),
-                    "requestId", context.getAwsRequestId()
-            );
+    /**
+     * Apply the function to every element of the JSON array body within this
+     * single Lambda invocation and return a BatchResult per element in the same
+     * order, so an element that fails does not fail the others
+     */
+    private Object handleBatchRequest(Map<String, Object> input, Context context) throws IOException {
+        String body = (String) input.get("body");
+        if (Boolean.TRUE.equals(input.get("isBase64Encoded"))) {
+            body = new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8);
+        }
+
+        JsonNode elements = objectMapper.readTree(body);
+        ArrayNode results = objectMapper.createArrayNode();
+
+        if (log.isDebugEnabled()) {
+            log.debug("📦 FC Lambda processing batch of " + elements.size());
+        }
+
+        PooledBuffer output = PooledBuffer.acquire();
+        try {
+            for (JsonNode element : elements) {
+                output.reset();
+                ObjectNode result = results.addObject();
+                try {
+                    invoker.handleRequest(new ByteArrayInputStream(objectMapper.writeValueAsBytes(element)), output, context);
+                    if (output.size() > 0) {
+                        result.set("value", objectMapper.readTree(output.array(), 0, output.size()));
+                    }
+                } catch (Exception e) {
+                    log.warn("⚠️ FC Lambda: batch element failed: " + e);
+                    result.put("error", BatchResult.failure(e).error());
+                }
+            }
+        } finally {
+            output.release();
+        }
+
+        return objectMapper.convertValue(results, Object.class);
+    }
+
+    private static String header(Map<String, Object> input, String name) {
+        Object headers = input.get("headers");
+        Object value = headers instanceof Map ? ((Map<?, ?>) headers).get(name) : null;
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Replace a base64 Smile/CBOR body with its JSON equivalent
+     */
+    private Map<String, Object> transcodeBodyToJson(Map<String, Object> input, WireFormat format) throws IOException {
+        Object body = input.get("body");
+        if (!(body instanceof String) || !Boolean.TRUE.equals(input.get("isBase64Encoded"))) {
+            return input;
+        }
+
+        JsonNode tree = codecs.get(format).readTree(Base64.getDecoder().decode((String) body));
+        Map<String, Object> headers = copyHeaders(input);
+        headers.put("content-type", MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> transcoded = new HashMap<>(input);
+        transcoded.put("body", tree == null ? "" : objectMapper.writeValueAsString(tree));
+        transcoded.put("isBase64Encoded", false);
+        transcoded.put("headers", headers);
+        return transcoded;
+    }
+
+    /**
+     * Encode a successful result in the format the caller accepts, as a base64
+     * Function URL response; JSON callers get the result unchanged
+     */
+    private Object encodeResponse(Object result, WireFormat format) throws IOException {
+        if (!format.isBinary()) {
+            return result;
+        }
+
+        Object payload = result;
+        Map<String, Object> headers = new HashMap<>();
+        if (result instanceof Map<?, ?> envelope && envelope.containsKey("statusCode")) {
+            // Already an HTTP response: only re-encode successful JSON bodies
+            Object status = envelope.get("statusCode");
+            if (!(envelope.get("body") instanceof String body) || Boolean.TRUE.equals(envelope.get("isBase64Encoded"))
+                    || !(status instanceof Number) || ((Number) status).intValue() / 100 != 2) {
+                return result;
+            }
+            try {
+                payload = body.isEmpty() ? null : objectMapper.readTree(body);
+            } catch (IOException e) {
+                // Not a JSON body, leave it as it is
+                return result;
+            }
+            headers.putAll(copyHeaders(envelope));
+            headers.keySet().removeIf(name -> name.equalsIgnoreCase("content-type"));
+        }
+        headers.put("content-type", format.getMediaType().toString());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("statusCode", 200);
+        response.put("headers", headers);
+        response.put("body", Base64.getEncoder().encodeToString(codecs.get(format).writeValueAsBytes(payload)));
+        response.put("isBase64Encoded", true);
+        return response;
+    }
+
+    private static Map<String, Object> copyHeaders(Map<?, ?> message) {
+        Map<String, Object> headers = new HashMap<>();
+        if (message.get("headers") instanceof Map<?, ?> original) {
+            original.forEach((name, value) -> headers.put(String.valueOf(name), value));
+        }
+        return headers;
+    }
+
+    /**
+     * Inflate a gzip/zstd request body. Compressed bodies only arrive intact when
+     * the Function URL treats them as binary, i.e. base64 encoded.
+     */
+    private Map<String, Object> decodeContentEncoding(Map<String, Object> input) throws IOException {
+        ContentCoding coding = ContentCoding.fromContentEncoding(header(input, "content-encoding"));
+        if (coding == null || !(input.get("body") instanceof String body) || !Boolean.TRUE.equals(input.get("isBase64Encoded"))) {
+            return input;
+        }
+
+        byte[] decoded;
+        try (InputStream in = coding.decompress(new ByteArrayInputStream(Base64.getDecoder().decode(body)))) {
+            decoded = in.readAllBytes();
+        }
+        Map<String, Object> headers = copyHeaders(input);
+        headers.remove("content-encoding");
+
+        Map<String, Object> decodedInput = new HashMap<>(input);
+        if (WireFormat.fromContentType(header(input, "content-type")).isBinary()) {
+            decodedInput.put("body", Base64.getEncoder().encodeToString(decoded));
+        } else {
+            decodedInput.put("body", new String(decoded, StandardCharsets.UTF_8));
+            decodedInput.put("isBase64Encoded", false);
+        }
+        decodedInput.put("headers", headers);
+        return decodedInput;
+    }
+
+    /**
+     * Compress a response for a mesh caller once it reaches the size threshold
+     */
+    private Object compressResponse(Object result, ContentCoding coding) throws IOException {
+        if (coding == null) {
+            return result;
+        }
+
+        byte[] payload;
+        Map<String, Object> response;
+        Map<String, Object> headers;
+        if (result instanceof Map<?, ?> envelope && envelope.containsKey("statusCode")) {
+            if (!(envelope.get("body") instanceof String body)) {
+                return result;
+            }
+            headers = copyHeaders(envelope);
+            if (headers.keySet().stream().anyMatch(name -> name.equalsIgnoreCase("content-encoding"))) {
+                return result;
+            }
+            payload = Boolean.TRUE.equals(envelope.get("isBase64Encoded"))
+                    ? Base64.getDecoder().decode(body)
+                    : body.getBytes(StandardCharsets.UTF_8);
+            response = new HashMap<>();
+            envelope.forEach((name, value) -> response.put(String.valueOf(name), value));
+        } else {
+            payload = objectMapper.writeValueAsBytes(result);
+            headers = new HashMap<>();
+            headers.put("content-type", MediaType.APPLICATION_JSON_VALUE);
+            response = new HashMap<>();
+            response.put("statusCode", 200);
+        }
+
+        if (payload.length < compressionMinSize) {
+            return result;
+        }
+
+        headers.put("content-encoding", coding.getToken());
+        response.put("headers", headers);
+        response.put("body", Base64.getEncoder().encodeToString(coding.compress(payload)));
+        response.put("isBase64Encoded", true);
+        return response;
+    }
+
+    /**
+     * Same setting as fc.export.compression.minSize on the servlet side
+     */
+    private static int resolveCompressionMinSize() {
+        String value = System.getenv("FC_EXPORT_COMPRESSION_MINSIZE");
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : ContentCoding.DEFAULT_MIN_SIZE;
+        } catch (NumberFormatException e) {
+            return ContentCoding.DEFAULT_MIN_SIZE;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.fc.serverless.lambda;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Streaming Lambda handler for FC Serverless Framework
+ *
+ * Same behaviour as {@link FcLambdaHandler}, but the event reaches Spring Cloud
+ * Function as the bytes the runtime received and the result goes back as the
+ * bytes the function wrote, without the runtime's own deserialization and
+ * serialization around the handler. Configure it as
+ * com.fc.serverless.lambda.FcLambdaStreamHandler::handleRequest.
+ */
+public class FcLambdaStreamHandler implements RequestStreamHandler {
+
+    private final FcLambdaHandler handler;
+
+    public FcLambdaStreamHandler() {
+        this.handler = new FcLambdaHandler();
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
+        handler.handleStream(input, output, context);
+    }
+}
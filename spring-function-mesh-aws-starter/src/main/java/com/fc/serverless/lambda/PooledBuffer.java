@@ -0,0 +1,78 @@
+package com.fc.serverless.lambda;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Growable byte buffer reused across invocations on the same thread. The Lambda
+ * runtime hands events to one thread, one at a time, so after the first few
+ * invocations requests and responses are read and written without allocating.
+ *
+ * Buffers grown past {@link #MAX_RETAINED_SIZE} by an unusually large payload
+ * are dropped on release rather than kept for the life of the instance.
+ */
+final class PooledBuffer extends ByteArrayOutputStream {
+
+    private static final int INITIAL_SIZE = 16 * 1024;
+    static final int MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<Deque<PooledBuffer>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private PooledBuffer() {
+        super(INITIAL_SIZE);
+    }
+
+    static PooledBuffer acquire() {
+        PooledBuffer buffer = POOL.get().pollFirst();
+        return buffer != null ? buffer : new PooledBuffer();
+    }
+
+    /**
+     * Return the buffer to this thread's pool; it must not be used afterwards
+     */
+    void release() {
+        reset();
+        if (buf.length <= MAX_RETAINED_SIZE) {
+            POOL.get().offerFirst(this);
+        }
+    }
+
+    /**
+     * Append everything remaining in the stream
+     */
+    PooledBuffer readFrom(InputStream in) throws IOException {
+        while (true) {
+            if (count == buf.length) {
+                ensureCapacity(buf.length * 2);
+            }
+            int n = in.read(buf, count, buf.length - count);
+            if (n < 0) {
+                return this;
+            }
+            count += n;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buf.length) {
+            byte[] grown = new byte[capacity];
+            System.arraycopy(buf, 0, grown, 0, count);
+            buf = grown;
+        }
+    }
+
+    /**
+     * The content so far, without copying it
+     */
+    InputStream toInputStream() {
+        return new ByteArrayInputStream(buf, 0, count);
+    }
+
+    byte[] array() {
+        return buf;
+    }
+}
@@ -0,0 +1,45 @@
+package com.fc.serverless.metrics;
+
+/**
+ * Server-side instrumentation of one exported function, the counterpart of
+ * {@link RemoteCallMetrics} on the receiving end of a hop.
+ *
+ * The Lambda handler records decoding, invocation and encoding separately;
+ * behind the servlet endpoint only the whole exchange is visible.
+ */
+public interface ExportedFunctionMetrics {
+
+    ExportedFunctionMetrics NOOP = new ExportedFunctionMetrics() {
+    };
+
+    default boolean isEnabled() {
+        return false;
+    }
+
+    default void callStarted() {
+    }
+
+    /**
+     * Decompressing and transcoding the request to the JSON the function reads
+     */
+    default void recordDecoding(long nanos) {
+    }
+
+    default void recordInvocation(long nanos) {
+    }
+
+    /**
+     * Encoding and compressing the result for the caller
+     */
+    default void recordEncoding(long nanos) {
+    }
+
+    /**
+     * @param requestBytes  request body as received, -1 if unknown
+     * @param responseBytes response body as sent, -1 if unknown
+     * @param status        HTTP status of the response
+     * @param error         the failure, or null
+     */
+    default void callFinished(long nanos, long requestBytes, long responseBytes, int status, Throwable error) {
+    }
+}
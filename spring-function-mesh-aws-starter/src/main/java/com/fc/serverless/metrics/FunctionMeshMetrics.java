@@ -0,0 +1,42 @@
+package com.fc.serverless.metrics;
+
+import com.fc.serverless.proxy.RemoteFunctionProxyFactory;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Entry point for remote call and exported function metrics.
+ *
+ * Everything defaults to no-ops, so proxies and exported endpoints pay nothing
+ * unless Micrometer is on the classpath and metrics are enabled.
+ */
+public interface FunctionMeshMetrics {
+
+    FunctionMeshMetrics NOOP = new FunctionMeshMetrics() {
+    };
+
+    default RemoteCallMetrics remoteFunction(String functionName) {
+        return RemoteCallMetrics.NOOP;
+    }
+
+    default ExportedFunctionMetrics exportedFunction(String functionName) {
+        return ExportedFunctionMetrics.NOOP;
+    }
+
+    /**
+     * Publish the cache, resilience, hedging, concurrency and endpoint statistics
+     * the factory keeps for a remote function
+     */
+    default void bindStats(String functionName, RemoteFunctionProxyFactory factory) {
+    }
+
+    /**
+     * Metrics on Micrometer's global registry, for code outside the application
+     * context such as the Lambda handler; Spring Boot adds its registries there
+     */
+    static FunctionMeshMetrics global() {
+        if (!ClassUtils.isPresent("io.micrometer.core.instrument.Metrics", FunctionMeshMetrics.class.getClassLoader())) {
+            return NOOP;
+        }
+        return MicrometerFunctionMeshMetrics.forGlobalRegistry();
+    }
+}
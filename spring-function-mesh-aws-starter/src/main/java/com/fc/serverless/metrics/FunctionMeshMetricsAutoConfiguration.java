@@ -0,0 +1,30 @@
+package com.fc.serverless.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics for remote calls and exported functions when Micrometer is on the
+ * classpath; turned off with fc.metrics.enabled=false
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "fc.metrics", name = "enabled", matchIfMissing = true)
+public class FunctionMeshMetricsAutoConfiguration {
+
+    /**
+     * The registry is looked up when the first proxy is created, after it has
+     * been configured, rather than while the proxy factory is set up
+     */
+    @Bean
+    @ConditionalOnMissingBean(FunctionMeshMetrics.class)
+    public FunctionMeshMetrics functionMeshMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        return registry != null ? new MicrometerFunctionMeshMetrics(registry) : FunctionMeshMetrics.NOOP;
+    }
+}
@@ -0,0 +1,94 @@
+package com.fc.serverless.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters of one exported function
+ */
+final class MicrometerExportedFunctionMetrics implements ExportedFunctionMetrics {
+
+    private final MeterRegistry registry;
+    private final Tags tags;
+    private final Timer decoding;
+    private final Timer invocation;
+    private final Timer encoding;
+    private final DistributionSummary requestSize;
+    private final DistributionSummary responseSize;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    MicrometerExportedFunctionMetrics(MeterRegistry registry, String functionName) {
+        this.registry = registry;
+        this.tags = Tags.of("function", functionName);
+        this.decoding = phaseTimer("decoding");
+        this.invocation = phaseTimer("invocation");
+        this.encoding = phaseTimer("encoding");
+        this.requestSize = DistributionSummary.builder("fc.export.request.size").baseUnit("bytes")
+                .description("Request body size as received").tags(tags).register(registry);
+        this.responseSize = DistributionSummary.builder("fc.export.response.size").baseUnit("bytes")
+                .description("Response body size as sent").tags(tags).register(registry);
+        Gauge.builder("fc.export.inflight", inFlight, AtomicInteger::get)
+                .description("Exported function calls in progress").tags(tags).register(registry);
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("fc.export.phase").description("Time spent in each phase of handling a call")
+                .tags(tags).tag("phase", phase).register(registry);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void callStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void recordDecoding(long nanos) {
+        decoding.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordInvocation(long nanos) {
+        invocation.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordEncoding(long nanos) {
+        encoding.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void callFinished(long nanos, long requestBytes, long responseBytes, int status, Throwable error) {
+        inFlight.decrementAndGet();
+        if (requestBytes >= 0) {
+            requestSize.record(requestBytes);
+        }
+        if (responseBytes >= 0) {
+            responseSize.record(responseBytes);
+        }
+        Timer.builder("fc.export.calls").description("Exported function calls")
+                .tags(tags)
+                .tag("status", String.valueOf(status))
+                .tag("outcome", outcome(status, error))
+                .tag("exception", error == null ? "none" : MicrometerFunctionMeshMetrics.errorType(error))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String outcome(int status, Throwable error) {
+        if (error != null || status >= 500) {
+            return "server_error";
+        }
+        return status >= 400 ? "client_error" : "success";
+    }
+}
@@ -0,0 +1,175 @@
+package com.fc.serverless.metrics;
+
+import com.fc.serverless.cache.CacheStats;
+import com.fc.serverless.core.annotation.Priority;
+import com.fc.serverless.proxy.RemoteFunctionProxyFactory;
+import com.fc.serverless.resilience.ConcurrencyStats;
+import com.fc.serverless.resilience.HedgeStats;
+import com.fc.serverless.resilience.ResilienceStats;
+import com.fc.serverless.transport.EndpointStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Records remote calls and exported functions as Micrometer meters, tagged with
+ * the function name:
+ *
+ * <ul>
+ *   <li>fc.remote.calls, fc.export.calls: timers tagged with outcome and exception type</li>
+ *   <li>fc.remote.phase, fc.export.phase: timers per hop phase</li>
+ *   <li>fc.remote.request.size, fc.remote.response.size and the fc.export equivalents, in bytes</li>
+ *   <li>fc.remote.inflight, fc.export.inflight: calls in progress</li>
+ * </ul>
+ *
+ * plus the per-function statistics of caching, coalescing, circuit breaking,
+ * hedging, concurrency limits and endpoints.
+ */
+public class MicrometerFunctionMeshMetrics implements FunctionMeshMetrics {
+
+    private static volatile MicrometerFunctionMeshMetrics global;
+
+    private final MeterRegistry registry;
+    private final Map<String, RemoteCallMetrics> remoteFunctions = new ConcurrentHashMap<>();
+    private final Map<String, ExportedFunctionMetrics> exportedFunctions = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> boundFunctions = new ConcurrentHashMap<>();
+
+    public MicrometerFunctionMeshMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    static MicrometerFunctionMeshMetrics forGlobalRegistry() {
+        if (global == null) {
+            synchronized (MicrometerFunctionMeshMetrics.class) {
+                if (global == null) {
+                    global = new MicrometerFunctionMeshMetrics(Metrics.globalRegistry);
+                }
+            }
+        }
+        return global;
+    }
+
+    @Override
+    public RemoteCallMetrics remoteFunction(String functionName) {
+        return remoteFunctions.computeIfAbsent(functionName, name -> new MicrometerRemoteCallMetrics(registry, name));
+    }
+
+    @Override
+    public ExportedFunctionMetrics exportedFunction(String functionName) {
+        return exportedFunctions.computeIfAbsent(functionName, name -> new MicrometerExportedFunctionMetrics(registry, name));
+    }
+
+    @Override
+    public void bindStats(String functionName, RemoteFunctionProxyFactory factory) {
+        if (boundFunctions.putIfAbsent(functionName, Boolean.TRUE) != null) {
+            return;
+        }
+        Tags tags = Tags.of("function", functionName);
+
+        // Cache stats are looked up on every read since a later proxy of the function replaces them
+        if (factory.getCacheStats().containsKey(functionName)) {
+            cacheCounter("fc.remote.cache.gets", tags.and("result", "hit"), factory, functionName, CacheStats::getHits);
+            cacheCounter("fc.remote.cache.gets", tags.and("result", "miss"), factory, functionName, CacheStats::getMisses);
+            cacheCounter("fc.remote.cache.gets", tags.and("result", "stale"), factory, functionName, CacheStats::getStaleHits);
+            cacheCounter("fc.remote.cache.refreshes", tags, factory, functionName, CacheStats::getRefreshes);
+            cacheCounter("fc.remote.cache.load.failures", tags, factory, functionName, CacheStats::getLoadFailures);
+            cacheCounter("fc.remote.cache.evictions", tags, factory, functionName, CacheStats::getEvictions);
+            Gauge.builder("fc.remote.cache.size", factory, f -> cacheValue(f, functionName, CacheStats::getSize))
+                    .tags(tags).register(registry);
+        }
+
+        if (factory.getCoalescedCalls().containsKey(functionName)) {
+            FunctionCounter.builder("fc.remote.coalesced", factory,
+                            f -> f.getCoalescedCalls().getOrDefault(functionName, 0L))
+                    .tags(tags).description("Calls that shared an identical in-flight call's response").register(registry);
+        }
+
+        ResilienceStats resilience = factory.getResilienceStats().get(functionName);
+        if (resilience != null) {
+            for (String state : List.of("CLOSED", "OPEN", "HALF_OPEN")) {
+                Gauge.builder("fc.remote.circuit.state", resilience, s -> state.equals(s.getState()) ? 1 : 0)
+                        .tags(tags.and("state", state.toLowerCase())).register(registry);
+            }
+            Gauge.builder("fc.remote.circuit.failure.rate", resilience, ResilienceStats::getFailureRate)
+                    .tags(tags).baseUnit("percent").register(registry);
+            FunctionCounter.builder("fc.remote.circuit.not.permitted", resilience, ResilienceStats::getNotPermittedCalls)
+                    .tags(tags).register(registry);
+            FunctionCounter.builder("fc.remote.retries", resilience, ResilienceStats::getRetries)
+                    .tags(tags.and("result", "attempted")).register(registry);
+            FunctionCounter.builder("fc.remote.retries", resilience, ResilienceStats::getRetriesDenied)
+                    .tags(tags.and("result", "denied")).register(registry);
+        }
+
+        HedgeStats hedge = factory.getHedgeStats().get(functionName);
+        if (hedge != null) {
+            FunctionCounter.builder("fc.remote.hedges", hedge, HedgeStats::getHedges)
+                    .tags(tags.and("result", "sent")).register(registry);
+            FunctionCounter.builder("fc.remote.hedges", hedge, HedgeStats::getWins)
+                    .tags(tags.and("result", "won")).register(registry);
+            FunctionCounter.builder("fc.remote.hedges", hedge, HedgeStats::getDenied)
+                    .tags(tags.and("result", "denied")).register(registry);
+            TimeGauge.builder("fc.remote.hedge.delay", hedge, TimeUnit.MILLISECONDS, HedgeStats::getDelayMillis)
+                    .tags(tags).register(registry);
+        }
+
+        ConcurrencyStats concurrency = factory.getConcurrencyStats().get(functionName);
+        if (concurrency != null) {
+            Gauge.builder("fc.remote.concurrency.limit", concurrency, ConcurrencyStats::getLimit)
+                    .tags(tags).register(registry);
+            FunctionCounter.builder("fc.remote.concurrency.drops", concurrency, ConcurrencyStats::getDrops)
+                    .tags(tags).register(registry);
+            for (Priority priority : Priority.values()) {
+                FunctionCounter.builder("fc.remote.concurrency.rejected", concurrency, s -> s.getRejected(priority))
+                        .tags(tags.and("priority", priority.name().toLowerCase())).register(registry);
+            }
+        }
+
+        List<EndpointStats> endpoints = factory.getEndpointStats().get(functionName);
+        if (endpoints != null) {
+            for (EndpointStats endpoint : endpoints) {
+                Tags endpointTags = tags.and("endpoint", endpoint.getUrl());
+                Gauge.builder("fc.remote.endpoint.outstanding", endpoint, EndpointStats::getOutstanding)
+                        .tags(endpointTags).register(registry);
+                TimeGauge.builder("fc.remote.endpoint.latency", endpoint, TimeUnit.MILLISECONDS, EndpointStats::getLatencyMillis)
+                        .tags(endpointTags).register(registry);
+                Gauge.builder("fc.remote.endpoint.ejected", endpoint, e -> e.isEjected() ? 1 : 0)
+                        .tags(endpointTags).register(registry);
+                FunctionCounter.builder("fc.remote.endpoint.failures", endpoint, EndpointStats::getFailures)
+                        .tags(endpointTags).register(registry);
+            }
+        }
+    }
+
+    private void cacheCounter(String name, Tags tags, RemoteFunctionProxyFactory factory, String functionName,
+                              ToDoubleFunction<CacheStats> value) {
+        FunctionCounter.builder(name, factory, f -> cacheValue(f, functionName, value)).tags(tags).register(registry);
+    }
+
+    private static double cacheValue(RemoteFunctionProxyFactory factory, String functionName, ToDoubleFunction<CacheStats> value) {
+        CacheStats stats = factory.getCacheStats().get(functionName);
+        return stats == null ? Double.NaN : value.applyAsDouble(stats);
+    }
+
+    /**
+     * Simple class name of the underlying failure, skipping the framework's plain RuntimeException wrappers
+     */
+    static String errorType(Throwable error) {
+        Throwable t = error;
+        while ((t instanceof CompletionException || t instanceof ExecutionException || t.getClass() == RuntimeException.class)
+                && t.getCause() != null && t.getCause() != t) {
+            t = t.getCause();
+        }
+        return t.getClass().getSimpleName();
+    }
+}
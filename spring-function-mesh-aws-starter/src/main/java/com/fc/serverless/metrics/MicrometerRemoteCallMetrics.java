@@ -0,0 +1,92 @@
+package com.fc.serverless.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters of one remote function, registered once so calls only record into them
+ */
+final class MicrometerRemoteCallMetrics implements RemoteCallMetrics {
+
+    private final MeterRegistry registry;
+    private final Tags tags;
+    private final Timer success;
+    private final Timer serialization;
+    private final Timer signing;
+    private final Timer network;
+    private final Timer deserialization;
+    private final DistributionSummary requestSize;
+    private final DistributionSummary responseSize;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    MicrometerRemoteCallMetrics(MeterRegistry registry, String functionName) {
+        this.registry = registry;
+        this.tags = Tags.of("function", functionName);
+        this.success = callTimer("success", "none");
+        this.serialization = phaseTimer("serialization");
+        this.signing = phaseTimer("signing");
+        this.network = phaseTimer("network");
+        this.deserialization = phaseTimer("deserialization");
+        this.requestSize = DistributionSummary.builder("fc.remote.request.size").baseUnit("bytes")
+                .description("Request body size as sent").tags(tags).register(registry);
+        this.responseSize = DistributionSummary.builder("fc.remote.response.size").baseUnit("bytes")
+                .description("Response body size as received").tags(tags).register(registry);
+        Gauge.builder("fc.remote.inflight", inFlight, AtomicInteger::get)
+                .description("Remote calls in progress").tags(tags).register(registry);
+    }
+
+    private Timer callTimer(String outcome, String exception) {
+        return Timer.builder("fc.remote.calls").description("Remote function calls, including retries")
+                .tags(tags).tag("outcome", outcome).tag("exception", exception).register(registry);
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("fc.remote.phase").description("Time spent in each phase of a remote call")
+                .tags(tags).tag("phase", phase).register(registry);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordSerialization(long nanos, int bytes) {
+        serialization.record(nanos, TimeUnit.NANOSECONDS);
+        requestSize.record(bytes);
+    }
+
+    @Override
+    public void recordSigning(long nanos) {
+        signing.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordNetwork(long nanos) {
+        network.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordDeserialization(long nanos, long bytes) {
+        deserialization.record(nanos, TimeUnit.NANOSECONDS);
+        responseSize.record(bytes);
+    }
+
+    @Override
+    public void callStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void callFinished(long nanos, Throwable error) {
+        inFlight.decrementAndGet();
+        Timer timer = error == null ? success : callTimer("error", MicrometerFunctionMeshMetrics.errorType(error));
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,55 @@
+package com.fc.serverless.metrics;
+
+/**
+ * Client-side instrumentation of one remote function, broken down by hop.
+ *
+ * A call is serialized (including compression), signed, sent over the network
+ * until the response arrives, then deserialized. Blocking calls decode straight
+ * from the connection, so their deserialization time includes reading the body.
+ */
+public interface RemoteCallMetrics {
+
+    RemoteCallMetrics NOOP = new RemoteCallMetrics() {
+    };
+
+    /**
+     * Whether anything is recorded; callers skip taking timestamps otherwise
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * @param bytes request body as sent, after compression
+     */
+    default void recordSerialization(long nanos, int bytes) {
+    }
+
+    default void recordSigning(long nanos) {
+    }
+
+    /**
+     * From the request being sent until the response status and headers arrive,
+     * for successful responses; failed exchanges show up in the call timer
+     */
+    default void recordNetwork(long nanos) {
+    }
+
+    /**
+     * @param bytes response body as received, before decompression
+     */
+    default void recordDeserialization(long nanos, long bytes) {
+    }
+
+    /**
+     * A logical call started: after caching and coalescing, before the concurrency limit and retries
+     */
+    default void callStarted() {
+    }
+
+    /**
+     * @param error the failure, or null when the call succeeded
+     */
+    default void callFinished(long nanos, Throwable error) {
+    }
+}
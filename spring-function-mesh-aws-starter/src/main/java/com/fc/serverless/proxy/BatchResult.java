@@ -0,0 +1,20 @@
+package com.fc.serverless.proxy;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One element of a batch response: the function's result for that input, or
+ * the error it failed with. Only the caller whose input failed gets the error;
+ * the rest of the batch still gets its results.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchResult<T>(T value, String error) {
+
+    public static <T> BatchResult<T> success(T value) {
+        return new BatchResult<>(value, null);
+    }
+
+    public static <T> BatchResult<T> failure(Throwable error) {
+        return new BatchResult<>(null, String.valueOf(error));
+    }
+}
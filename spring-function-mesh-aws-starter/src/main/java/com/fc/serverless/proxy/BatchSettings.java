@@ -0,0 +1,42 @@
+package com.fc.serverless.proxy;
+
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Opt-in micro-batching settings, resolved from fc.functions.{name}.batch.*
+ */
+public class BatchSettings {
+
+    public static final int DEFAULT_MAX_SIZE = 32;
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(5);
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final Duration window;
+
+    public BatchSettings(boolean enabled, int maxSize, Duration window) {
+        this.enabled = enabled;
+        this.maxSize = Math.max(1, maxSize);
+        this.window = window;
+    }
+
+    public static BatchSettings resolve(String functionName, Environment environment,
+                                        EnvironmentPropertyResolver resolver) {
+        return new BatchSettings(
+                resolver.resolveBoolean(functionName, "batch.enabled", false, environment),
+                resolver.resolveInt(functionName, "batch.maxSize", DEFAULT_MAX_SIZE, environment),
+                resolver.resolveDuration(functionName, "batch.window", DEFAULT_WINDOW, environment));
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public int getMaxSize() { return maxSize; }
+    public Duration getWindow() { return window; }
+
+    @Override
+    public String toString() {
+        return "BatchSettings{enabled=" + enabled + ", maxSize=" + maxSize + ", window=" + window + "}";
+    }
+}
@@ -0,0 +1,30 @@
+package com.fc.serverless.proxy;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Which functional interface a remote function proxy implements, resolved once
+ * per proxy so calls do not repeat the isAssignableFrom checks
+ */
+enum FunctionShape {
+
+    /** Function&lt;T, R&gt;, and any other interface: the input goes out, a result comes back */
+    FUNCTION,
+
+    /** Supplier&lt;T&gt;: no input, a result comes back */
+    SUPPLIER,
+
+    /** Consumer&lt;T&gt;: the input goes out, no result */
+    CONSUMER;
+
+    static FunctionShape of(Class<?> functionType) {
+        if (Consumer.class.isAssignableFrom(functionType)) {
+            return CONSUMER;
+        }
+        if (Supplier.class.isAssignableFrom(functionType)) {
+            return SUPPLIER;
+        }
+        return FUNCTION;
+    }
+}
@@ -0,0 +1,40 @@
+package com.fc.serverless.proxy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * How a remote function proxy hands its result back to the caller
+ */
+public enum InvocationMode {
+
+    /** Plain return value; the calling thread waits for the HTTP round-trip */
+    BLOCKING,
+
+    /** CompletableFuture / CompletionStage completed by the non-blocking client */
+    FUTURE,
+
+    /** Reactor Mono; the call is made on subscription */
+    MONO;
+
+    private static final String MONO_CLASS_NAME = "reactor.core.publisher.Mono";
+
+    /**
+     * Resolve the mode from the raw declared result type, e.g. CompletableFuture
+     * for Function&lt;OrderRequest, CompletableFuture&lt;PriceInfo&gt;&gt;
+     */
+    public static InvocationMode of(Class<?> resultType) {
+        if (resultType == CompletableFuture.class || resultType == CompletionStage.class) {
+            return FUTURE;
+        }
+        // Compare by name so Reactor stays an optional dependency
+        if (MONO_CLASS_NAME.equals(resultType.getName())) {
+            return MONO;
+        }
+        return BLOCKING;
+    }
+
+    public boolean isAsync() {
+        return this != BLOCKING;
+    }
+}
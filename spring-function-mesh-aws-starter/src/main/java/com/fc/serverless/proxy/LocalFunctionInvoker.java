@@ -0,0 +1,159 @@
+package com.fc.serverless.proxy;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.function.context.FunctionCatalog;
+import org.springframework.cloud.function.context.catalog.SimpleFunctionRegistry.FunctionInvocationWrapper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Calls a remote function's target in-process when it is deployed in the same
+ * application, skipping HTTP, signing and serialization.
+ *
+ * The catalog is consulted on the first call rather than at proxy creation,
+ * since function beans may not exist yet while fields are being injected.
+ * With copy enabled, input and result are deep-copied through JSON so neither
+ * side can observe the other's mutations, as with a real remote call.
+ */
+final class LocalFunctionInvoker {
+
+    private static final Log log = LogFactory.getLog(LocalFunctionInvoker.class);
+
+    private final String functionName;
+    private final ObjectProvider<FunctionCatalog> functionCatalog;
+    private final Class<?> functionType;
+    private final FunctionShape shape;
+    private final ObjectMapper objectMapper;
+    private final JavaType inputType;
+    private final JavaType returnType;
+    private final boolean copy;
+    private volatile Object target;
+    private volatile boolean resolved;
+
+    LocalFunctionInvoker(String functionName, ObjectProvider<FunctionCatalog> functionCatalog, Class<?> functionType,
+                         ObjectMapper objectMapper, JavaType inputType, JavaType returnType, boolean copy) {
+        this.functionName = functionName;
+        this.functionCatalog = functionCatalog;
+        this.functionType = functionType;
+        this.shape = FunctionShape.of(functionType);
+        this.objectMapper = objectMapper;
+        this.inputType = inputType;
+        this.returnType = returnType;
+        this.copy = copy;
+    }
+
+    /**
+     * Whether the function is registered in this application's catalog
+     */
+    boolean isAvailable() {
+        if (!resolved) {
+            synchronized (this) {
+                if (!resolved) {
+                    target = lookup();
+                    resolved = true;
+                }
+            }
+        }
+        return target != null;
+    }
+
+    /**
+     * @param input the call's argument, null for a supplier
+     */
+    Object invoke(Object input) {
+        if (copy) {
+            input = deepCopy(input, inputType);
+        }
+        Object result = apply(input);
+        return copy ? deepCopy(result, returnType) : result;
+    }
+
+    CompletableFuture<Object> invokeAsync(Object input) {
+        try {
+            return CompletableFuture.completedFuture(invoke(input));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object apply(Object input) {
+        switch (shape) {
+            case FUNCTION -> {
+                if (target instanceof Function<?, ?> function) {
+                    return ((Function<Object, Object>) function).apply(input);
+                }
+            }
+            case SUPPLIER -> {
+                if (target instanceof Supplier<?> supplier) {
+                    return supplier.get();
+                }
+            }
+            case CONSUMER -> {
+                if (target instanceof Consumer<?> consumer) {
+                    ((Consumer<Object>) consumer).accept(input);
+                    return null;
+                }
+            }
+        }
+        throw new IllegalStateException("FC Framework: Local function " + functionName +
+                " is not a " + functionType.getSimpleName());
+    }
+
+    /**
+     * The user's own function object where it matches the proxy type, otherwise the
+     * catalog wrapper, which adapts Kotlin lambdas and other function shapes
+     */
+    private Object lookup() {
+        FunctionCatalog catalog = functionCatalog.getIfAvailable();
+        if (catalog == null) {
+            return null;
+        }
+        Object function;
+        try {
+            function = catalog.lookup(functionName);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ FC Framework: Local lookup of " + functionName + " failed, calling remotely: " + e.getMessage());
+            return null;
+        }
+        if (function == null) {
+            return null;
+        }
+        if (function instanceof FunctionInvocationWrapper wrapper) {
+            // With spring.cloud.function.definition set, unknown names resolve to the configured function
+            if (!functionName.equals(wrapper.getFunctionDefinition())) {
+                return null;
+            }
+            if (wrapper.isInputTypePublisher() || wrapper.isOutputTypePublisher()) {
+                log.info("🌐 FC Framework: Local " + functionName + " is reactive, calling remotely");
+                return null;
+            }
+            if (functionType.isInstance(wrapper.getTarget())) {
+                function = wrapper.getTarget();
+            }
+        }
+        log.info("🏠 FC Framework: " + functionName + " is deployed in this application, calling it in-process" +
+                (copy ? " with defensive copies" : ""));
+        return function;
+    }
+
+    private Object deepCopy(Object value, JavaType declaredType) {
+        if (value == null) {
+            return null;
+        }
+        // An Object declaration would turn POJOs into maps, so fall back to the runtime class
+        JavaType type = declaredType.hasRawClass(Object.class) ? objectMapper.constructType(value.getClass()) : declaredType;
+        try {
+            return objectMapper.readValue(objectMapper.writeValueAsBytes(value), type);
+        } catch (Exception e) {
+            throw new RuntimeException("FC Framework: Failed to copy value for local call: " + functionName, e);
+        }
+    }
+}
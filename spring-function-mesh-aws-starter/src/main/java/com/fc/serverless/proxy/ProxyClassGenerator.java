@@ -0,0 +1,257 @@
+package com.fc.serverless.proxy;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.core.NativeDetector;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates remote function proxies as generated classes rather than
+ * java.lang.reflect.Proxy instances.
+ *
+ * Each proxy gets its own hidden class implementing the field's interface:
+ * every abstract method hands its argument straight to the proxy's
+ * {@link RemoteInvocation}, with no Method lookup or argument array, and
+ * toString, equals and hashCode are answered locally. With one class per
+ * proxy, each call site sees a single receiver type and a single invocation.
+ *
+ * Interfaces a class in this package cannot implement (not public, methods
+ * with several or primitive parameters, types from another class loader)
+ * get a reflective proxy with the same invocation instead, as does every
+ * interface in a native image, which cannot define classes at run time.
+ */
+final class ProxyClassGenerator {
+
+    private static final Log log = LogFactory.getLog(ProxyClassGenerator.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String PACKAGE_PREFIX = ProxyClassGenerator.class.getPackageName().replace('.', '/') + "/";
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String INVOCATION = Type.getInternalName(RemoteInvocation.class);
+    private static final String INVOKE_DESCRIPTOR = Type.getMethodDescriptor(Type.getType(Object.class), Type.getType(Object.class));
+    private static final String STRING_DESCRIPTOR = Type.getDescriptor(String.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class, RemoteInvocation.class, String.class);
+
+    private ProxyClassGenerator() {
+    }
+
+    /**
+     * @param description returned by the proxy's toString
+     */
+    static Object newProxy(Class<?> functionType, String functionName, RemoteInvocation invocation, String description) {
+        if (NativeDetector.inNativeImage()) {
+            return reflectiveProxy(functionType, invocation, description);
+        }
+        List<Method> methods = implementableMethods(functionType);
+        if (methods != null) {
+            try {
+                MethodHandles.Lookup proxyClass = LOOKUP.defineHiddenClass(
+                        generate(functionType, functionName, methods), true);
+                return proxyClass.findConstructor(proxyClass.lookupClass(), CONSTRUCTOR_TYPE)
+                        .invoke(invocation, description);
+            } catch (Throwable e) {
+                log.warn("⚠️ FC Framework: Could not generate a proxy class for " + functionName +
+                        ", using a reflective proxy: " + e);
+            }
+        } else {
+            log.debug("🔗 FC Framework: " + functionType.getName() + " cannot be implemented by a generated class, " +
+                    "using a reflective proxy for " + functionName);
+        }
+        return reflectiveProxy(functionType, invocation, description);
+    }
+
+    /**
+     * The abstract methods to implement, or null when a generated class cannot implement them all
+     */
+    private static List<Method> implementableMethods(Class<?> functionType) {
+        if (!functionType.isInterface() || !isVisible(functionType)) {
+            return null;
+        }
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Method method : functionType.getMethods()) {
+            if (!Modifier.isAbstract(method.getModifiers()) || isObjectMethod(method)) {
+                continue;
+            }
+            Class<?> returnType = method.getReturnType();
+            if (method.getParameterCount() > 1
+                    || (method.getParameterCount() == 1 && !isVisible(method.getParameterTypes()[0]))
+                    || (returnType != void.class && !isVisible(returnType))) {
+                return null;
+            }
+            // The same method may be inherited from several interfaces
+            methods.putIfAbsent(method.getName() + Type.getMethodDescriptor(method), method);
+        }
+        return new ArrayList<>(methods.values());
+    }
+
+    /**
+     * Public, not primitive, and the same class when resolved from this package
+     */
+    private static boolean isVisible(Class<?> type) {
+        Class<?> elementType = type;
+        while (elementType.isArray()) {
+            elementType = elementType.getComponentType();
+        }
+        if (elementType.isPrimitive()) {
+            return type != elementType;
+        }
+        if (!Modifier.isPublic(elementType.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(elementType.getName(), false, ProxyClassGenerator.class.getClassLoader()) == elementType;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static boolean isObjectMethod(Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static byte[] generate(Class<?> functionType, String functionName, List<Method> methods) {
+        String className = PACKAGE_PREFIX + functionType.getSimpleName() + "$" + identifier(functionName);
+        String invocationDescriptor = "L" + INVOCATION + ";";
+
+        // Frames never merge two reference types, so the common superclass is not looked up
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return OBJECT;
+            }
+        };
+        writer.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC, className, null,
+                OBJECT, new String[]{Type.getInternalName(functionType)});
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "invocation", invocationDescriptor, null, null).visitEnd();
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "description", STRING_DESCRIPTOR, null, null).visitEnd();
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>",
+                CONSTRUCTOR_TYPE.toMethodDescriptorString(), null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitVarInsn(Opcodes.ALOAD, 1);
+        constructor.visitFieldInsn(Opcodes.PUTFIELD, className, "invocation", invocationDescriptor);
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitVarInsn(Opcodes.ALOAD, 2);
+        constructor.visitFieldInsn(Opcodes.PUTFIELD, className, "description", STRING_DESCRIPTOR);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        // invocation.invoke(argument or null), cast to the declared result
+        for (Method method : methods) {
+            MethodVisitor call = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, method.getName(),
+                    Type.getMethodDescriptor(method), null, null);
+            call.visitCode();
+            call.visitVarInsn(Opcodes.ALOAD, 0);
+            call.visitFieldInsn(Opcodes.GETFIELD, className, "invocation", invocationDescriptor);
+            if (method.getParameterCount() == 1) {
+                call.visitVarInsn(Opcodes.ALOAD, 1);
+            } else {
+                call.visitInsn(Opcodes.ACONST_NULL);
+            }
+            call.visitMethodInsn(Opcodes.INVOKEINTERFACE, INVOCATION, "invoke", INVOKE_DESCRIPTOR, true);
+            Class<?> returnType = method.getReturnType();
+            if (returnType == void.class) {
+                call.visitInsn(Opcodes.POP);
+                call.visitInsn(Opcodes.RETURN);
+            } else {
+                if (returnType != Object.class) {
+                    call.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(returnType));
+                }
+                call.visitInsn(Opcodes.ARETURN);
+            }
+            call.visitMaxs(0, 0);
+            call.visitEnd();
+        }
+
+        MethodVisitor toString = writer.visitMethod(Opcodes.ACC_PUBLIC, "toString", "()" + STRING_DESCRIPTOR, null, null);
+        toString.visitCode();
+        toString.visitVarInsn(Opcodes.ALOAD, 0);
+        toString.visitFieldInsn(Opcodes.GETFIELD, className, "description", STRING_DESCRIPTOR);
+        toString.visitInsn(Opcodes.ARETURN);
+        toString.visitMaxs(0, 0);
+        toString.visitEnd();
+
+        // Identity, as for any bean: two proxies of the same function are still two proxies
+        MethodVisitor equals = writer.visitMethod(Opcodes.ACC_PUBLIC, "equals", "(L" + OBJECT + ";)Z", null, null);
+        equals.visitCode();
+        Label notSame = new Label();
+        equals.visitVarInsn(Opcodes.ALOAD, 0);
+        equals.visitVarInsn(Opcodes.ALOAD, 1);
+        equals.visitJumpInsn(Opcodes.IF_ACMPNE, notSame);
+        equals.visitInsn(Opcodes.ICONST_1);
+        equals.visitInsn(Opcodes.IRETURN);
+        equals.visitLabel(notSame);
+        equals.visitInsn(Opcodes.ICONST_0);
+        equals.visitInsn(Opcodes.IRETURN);
+        equals.visitMaxs(0, 0);
+        equals.visitEnd();
+
+        MethodVisitor hashCode = writer.visitMethod(Opcodes.ACC_PUBLIC, "hashCode", "()I", null, null);
+        hashCode.visitCode();
+        hashCode.visitVarInsn(Opcodes.ALOAD, 0);
+        hashCode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(System.class), "identityHashCode",
+                "(L" + OBJECT + ";)I", false);
+        hashCode.visitInsn(Opcodes.IRETURN);
+        hashCode.visitMaxs(0, 0);
+        hashCode.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Function names may contain characters that are not allowed in a class name
+     */
+    private static String identifier(String functionName) {
+        StringBuilder identifier = new StringBuilder(functionName.length());
+        for (int i = 0; i < functionName.length(); i++) {
+            char c = functionName.charAt(i);
+            identifier.append(Character.isJavaIdentifierPart(c) ? c : '_');
+        }
+        return identifier.toString();
+    }
+
+    /**
+     * Same behaviour through java.lang.reflect.Proxy; default methods run their own code
+     */
+    private static Object reflectiveProxy(Class<?> functionType, RemoteInvocation invocation, String description) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> description;
+                };
+            }
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            return invocation.invoke(args != null && args.length > 0 ? args[0] : null);
+        };
+        return Proxy.newProxyInstance(functionType.getClassLoader(), new Class<?>[]{functionType}, handler);
+    }
+}
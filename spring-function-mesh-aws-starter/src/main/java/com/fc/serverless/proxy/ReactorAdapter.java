@@ -0,0 +1,19 @@
+package com.fc.serverless.proxy;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Isolates Reactor types so they are only loaded when a Mono proxy is created
+ */
+final class ReactorAdapter {
+
+    private ReactorAdapter() {
+    }
+
+    static Object toMono(Supplier<CompletableFuture<Object>> call) {
+        return Mono.fromFuture(call);
+    }
+}
@@ -0,0 +1,125 @@
+package com.fc.serverless.proxy;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects concurrent calls to one remote function and sends them as a single
+ * JSON-array request once the batch is full or the batch window has elapsed.
+ * Results are fanned back out to the waiting callers in request order; an
+ * element the function failed on fails only the caller that sent it.
+ */
+class RemoteCallBatcher {
+
+    private static final Log log = LogFactory.getLog(RemoteCallBatcher.class);
+
+    private final String functionName;
+    private final BatchSettings settings;
+    private final Function<List<Object>, CompletableFuture<List<BatchResult<Object>>>> sender;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    private List<PendingCall> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    RemoteCallBatcher(String functionName, BatchSettings settings,
+                      Function<List<Object>, CompletableFuture<List<BatchResult<Object>>>> sender,
+                      ScheduledExecutorService scheduler) {
+        this.functionName = functionName;
+        this.settings = settings;
+        this.sender = sender;
+        this.scheduler = scheduler;
+    }
+
+    CompletableFuture<Object> submit(Object input) {
+        PendingCall call = new PendingCall(input);
+        List<PendingCall> ready = null;
+
+        synchronized (lock) {
+            pending.add(call);
+            if (pending.size() >= settings.getMaxSize()) {
+                ready = drain();
+            } else if (pending.size() == 1) {
+                scheduledFlush = scheduler.schedule(this::flush, settings.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (ready != null) {
+            send(ready);
+        }
+        return call.future;
+    }
+
+    private void flush() {
+        List<PendingCall> ready;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            ready = drain();
+        }
+        send(ready);
+    }
+
+    // Caller must hold the lock
+    private List<PendingCall> drain() {
+        List<PendingCall> ready = pending;
+        pending = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return ready;
+    }
+
+    private void send(List<PendingCall> batch) {
+        List<Object> inputs = new ArrayList<>(batch.size());
+        for (PendingCall call : batch) {
+            inputs.add(call.input);
+        }
+
+        log.debug("📦 FC Framework: Sending batch of " + batch.size() + " calls to " + functionName);
+
+        CompletableFuture<List<BatchResult<Object>>> results;
+        try {
+            results = sender.apply(inputs);
+        } catch (RuntimeException e) {
+            results = CompletableFuture.failedFuture(e);
+        }
+
+        results.whenComplete((values, error) -> {
+            if (error == null && (values == null || values.size() != batch.size())) {
+                error = new IllegalStateException("FC Framework: Batch response for " + functionName + " returned " +
+                        (values == null ? 0 : values.size()) + " results for " + batch.size() + " calls");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                CompletableFuture<Object> future = batch.get(i).future;
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else if (values.get(i) != null && values.get(i).error() != null) {
+                    future.completeExceptionally(new RuntimeException("FC Framework: Remote function call failed: " +
+                            functionName + ": " + values.get(i).error()));
+                } else {
+                    future.complete(values.get(i) != null ? values.get(i).value() : null);
+                }
+            }
+        });
+    }
+
+    private static final class PendingCall {
+        private final Object input;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        private PendingCall(Object input) {
+            this.input = input;
+        }
+    }
+}
@@ -0,0 +1,690 @@
+package com.fc.serverless.proxy;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fc.serverless.cache.MemoizingCache;
+import com.fc.serverless.checkpoint.SyntheticPayloads;
+import com.fc.serverless.codec.CompressionSettings;
+import com.fc.serverless.codec.ContentCoding;
+import com.fc.serverless.codec.WireFormat;
+import com.fc.serverless.cache.SupplierCache;
+import com.fc.serverless.core.annotation.Priority;
+import com.fc.serverless.metrics.RemoteCallMetrics;
+import com.fc.serverless.resilience.AdaptiveConcurrencyLimiter;
+import com.fc.serverless.resilience.RemoteCallGuard;
+import com.fc.serverless.resilience.RemoteCallPriority;
+import com.fc.serverless.resilience.RequestHedger;
+import com.fc.serverless.tracing.FunctionSpan;
+import com.fc.serverless.tracing.SpanReporter;
+import com.fc.serverless.tracing.SpanReporters;
+import com.fc.serverless.tracing.TraceContext;
+import com.fc.serverless.tracing.TraceContextHolder;
+import com.fc.serverless.transport.RemoteTransport;
+import com.fc.serverless.transport.TransportRequest;
+import com.fc.serverless.transport.TransportResponse;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Executes calls for a single remote function proxy.
+ *
+ * Holds everything resolved once at proxy creation (codecs, transport, result
+ * type) so the proxy only has to hand over the input, null for a supplier.
+ */
+public class RemoteFunctionClient {
+
+    private static final Log log = LogFactory.getLog(RemoteFunctionClient.class);
+
+    public static final String BATCH_PATH = "/batch";
+    public static final String BATCH_HEADER = "X-FC-Batch";
+
+    private final String functionName;
+    private final FunctionShape shape;
+    private final WireFormat wireFormat;
+    private final JavaType inputType;
+    private final JavaType returnType;
+    private final ObjectWriter inputWriter;
+    private final ObjectWriter batchWriter;
+    private final ObjectReader resultReader;
+    private final ObjectReader batchResultReader;
+    private final ObjectReader jsonResultReader;
+    private final ObjectReader jsonBatchResultReader;
+    private final RemoteTransport transport;
+    private RemoteCallBatcher batcher;
+    private SupplierCache supplierCache;
+    private MemoizingCache memoizingCache;
+    private SingleFlight singleFlight;
+    private RemoteCallGuard guard;
+    private RequestHedger hedger;
+    private AdaptiveConcurrencyLimiter limiter;
+    private Priority priority = Priority.NORMAL;
+    private CompressionSettings compression;
+    private RemoteCallMetrics metrics = RemoteCallMetrics.NOOP;
+    private boolean tracing;
+
+    public RemoteFunctionClient(String functionName, Class<?> functionType, JavaType inputType, JavaType returnType,
+                                ObjectMapper objectMapper, WireFormat wireFormat, RemoteTransport transport) {
+        this.functionName = functionName;
+        this.shape = FunctionShape.of(functionType);
+        this.wireFormat = wireFormat;
+        this.inputType = inputType;
+        this.returnType = returnType;
+
+        // Codecs are bound to the declared types once, so calls skip per-call type and serializer lookup
+        ObjectMapper wireMapper = wireFormat.codec(objectMapper);
+        TypeFactory typeFactory = objectMapper.getTypeFactory();
+        JavaType inputListType = typeFactory.constructCollectionType(List.class, inputType);
+        JavaType batchResultListType = typeFactory.constructCollectionType(List.class,
+                typeFactory.constructParametricType(BatchResult.class, returnType));
+        this.inputWriter = writerFor(wireMapper, inputType);
+        this.batchWriter = writerFor(wireMapper, inputListType);
+        this.resultReader = wireMapper.readerFor(returnType);
+        this.batchResultReader = wireMapper.readerFor(batchResultListType);
+        // A peer without binary support answers in JSON
+        this.jsonResultReader = objectMapper.readerFor(returnType);
+        this.jsonBatchResultReader = objectMapper.readerFor(batchResultListType);
+        this.transport = transport;
+    }
+
+    /**
+     * Only final input types can be written as the declared type: for anything else
+     * the runtime class may carry properties the declared type does not know about
+     */
+    private static ObjectWriter writerFor(ObjectMapper objectMapper, JavaType type) {
+        JavaType valueType = type.isCollectionLikeType() ? type.getContentType() : type;
+        if (valueType.isFinal() && !valueType.hasGenericTypes()) {
+            return objectMapper.writerFor(type);
+        }
+        return objectMapper.writer();
+    }
+
+    void enableBatching(RemoteCallBatcher batcher) {
+        this.batcher = batcher;
+    }
+
+    void enableSupplierCache(SupplierCache supplierCache) {
+        this.supplierCache = supplierCache;
+    }
+
+    void enableMemoizingCache(MemoizingCache memoizingCache) {
+        this.memoizingCache = memoizingCache;
+    }
+
+    void enableSingleFlight(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    void enableGuard(RemoteCallGuard guard) {
+        this.guard = guard;
+    }
+
+    void enableHedging(RequestHedger hedger) {
+        this.hedger = hedger;
+    }
+
+    /**
+     * @param priority priority of this proxy's calls unless overridden with RemoteCallPriority
+     */
+    void enableConcurrencyLimit(AdaptiveConcurrencyLimiter limiter, Priority priority) {
+        this.limiter = limiter;
+        this.priority = priority;
+    }
+
+    void enableCompression(CompressionSettings compression) {
+        this.compression = compression;
+    }
+
+    void enableMetrics(RemoteCallMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Continue the current trace in calls of this proxy and report them as client spans
+     */
+    void enableTracing() {
+        this.tracing = true;
+    }
+
+    /**
+     * Run this proxy's encoding and decoding once on synthetic values of its
+     * declared types, as a call would but without the transport: the input
+     * writers, compression, headers, and the result readers for the
+     * wire format and the JSON fallback
+     *
+     * @param objectMapper the JSON mapper the codecs were created from
+     */
+    void prime(ObjectMapper objectMapper) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        if (shape != FunctionShape.SUPPLIER) {
+            Object input = SyntheticPayloads.sample(objectMapper, inputType);
+            byte[] body = inputWriter.writeValueAsBytes(input);
+            if (batcher != null) {
+                batchWriter.writeValueAsBytes(Collections.singletonList(input));
+            }
+            if (compression != null) {
+                ContentCoding coding = compression.getCoding();
+                coding.decompress(new ByteArrayInputStream(coding.compress(body))).readAllBytes();
+            }
+        }
+        prepareHeaders(headers);
+        if (shape != FunctionShape.CONSUMER) {
+            ObjectMapper wireMapper = wireFormat.codec(objectMapper);
+            Object result = SyntheticPayloads.sample(objectMapper, returnType);
+            processResponse(new ByteArrayInputStream(wireMapper.writeValueAsBytes(result)), wireFormat.getMediaType().toString());
+            if (wireFormat.isBinary()) {
+                processResponse(new ByteArrayInputStream(objectMapper.writeValueAsBytes(result)),
+                        WireFormat.JSON.getMediaType().toString());
+            }
+            if (batcher != null) {
+                batchResultReader.readValue(wireMapper.writeValueAsBytes(
+                        Collections.singletonList(BatchResult.success(result))));
+            }
+        }
+    }
+
+    /**
+     * Blocking call: the calling thread waits for the HTTP round-trip
+     * unless the result can be served from cache
+     */
+    public Object invoke(Object input) {
+        if (supplierCache != null) {
+            try {
+                return supplierCache.get(() -> execute(input), () -> executeAsync(input));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException("FC Framework: Remote function call failed: " + functionName, e);
+            }
+        }
+        if (memoizingCache != null) {
+            EncodedInput encoded = encodeInput(input);
+            return memoizingCache.get(encoded.key(), () -> execute(encoded));
+        }
+        return execute(input);
+    }
+
+    /**
+     * Non-blocking call: no thread is held while the request is in flight,
+     * the response is decoded on the client's executor
+     */
+    public CompletableFuture<Object> invokeAsync(Object input) {
+        if (supplierCache != null) {
+            return supplierCache.getAsync(() -> executeAsync(input));
+        }
+        if (memoizingCache != null) {
+            try {
+                EncodedInput encoded = encodeInput(input);
+                return memoizingCache.getAsync(encoded.key(), () -> executeAsync(encoded));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return executeAsync(input);
+    }
+
+    /**
+     * Route through single-flight when enabled so identical concurrent calls share one request
+     *
+     * @param input the argument, or the EncodedInput already made for the cache key
+     */
+    private Object execute(Object input) {
+        if (singleFlight == null) {
+            return call(input);
+        }
+        EncodedInput encoded = input instanceof EncodedInput e ? e : encodeInput(input);
+        return singleFlight.call(returnType, encoded.key(), () -> call(encoded));
+    }
+
+    private CompletableFuture<Object> executeAsync(Object input) {
+        if (singleFlight == null) {
+            return callAsync(input);
+        }
+        try {
+            EncodedInput encoded = input instanceof EncodedInput e ? e : encodeInput(input);
+            return singleFlight.callAsync(returnType, encoded.key(), () -> callAsync(encoded));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Serialize the input for caching or coalescing; the key is taken from the
+     * request body, so equal inputs share a key and the body is not encoded again
+     */
+    private EncodedInput encodeInput(Object input) {
+        if (input == null) {
+            return new EncodedInput(null, null, "");
+        }
+        try {
+            byte[] body = inputWriter.writeValueAsBytes(input);
+            // One char per byte: a lossless key for binary wire formats too
+            return new EncodedInput(input, body, new String(body, StandardCharsets.ISO_8859_1));
+        } catch (Exception e) {
+            throw new RuntimeException("FC Framework: Failed to serialize input: " + functionName, e);
+        }
+    }
+
+    /**
+     * An input with its request body, passed down the call path in place of the
+     * input once caching or coalescing has encoded it
+     */
+    private record EncodedInput(Object input, byte[] body, String key) {
+
+        static Object unwrap(Object input) {
+            return input instanceof EncodedInput encoded ? encoded.input() : input;
+        }
+    }
+
+    /**
+     * One logical call: the concurrency limit, circuit breaker and retries apply here,
+     * below caching and coalescing. The limiter sits outside the breaker so shed
+     * calls do not count as failures of the function.
+     *
+     * Each logical call is one span; its retries and hedged requests share it.
+     */
+    private Object call(Object input) {
+        if (!tracing) {
+            return measured(input);
+        }
+        TraceContext trace = TraceContext.forCall(TraceContextHolder.current(), functionName);
+        SpanReporter reporter = SpanReporters.global();
+        if (!reporter.isEnabled()) {
+            return TraceContextHolder.call(trace, () -> measured(input));
+        }
+        long startMicros = FunctionSpan.nowEpochMicros();
+        long start = System.nanoTime();
+        try {
+            Object result = TraceContextHolder.call(trace, () -> measured(input));
+            reporter.report(new FunctionSpan(FunctionSpan.Kind.CLIENT, functionName, trace, startMicros,
+                    System.nanoTime() - start, null));
+            return result;
+        } catch (RuntimeException e) {
+            reporter.report(new FunctionSpan(FunctionSpan.Kind.CLIENT, functionName, trace, startMicros,
+                    System.nanoTime() - start, e));
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Object> callAsync(Object input) {
+        if (!tracing) {
+            return measuredAsync(input);
+        }
+        TraceContext trace = TraceContext.forCall(TraceContextHolder.current(), functionName);
+        SpanReporter reporter = SpanReporters.global();
+        if (!reporter.isEnabled()) {
+            return TraceContextHolder.call(trace, () -> measuredAsync(input));
+        }
+        long startMicros = FunctionSpan.nowEpochMicros();
+        long start = System.nanoTime();
+        CompletableFuture<Object> result = TraceContextHolder.call(trace, () -> measuredAsync(input));
+        result.whenComplete((value, error) -> reporter.report(new FunctionSpan(FunctionSpan.Kind.CLIENT, functionName,
+                trace, startMicros, System.nanoTime() - start, error)));
+        return result;
+    }
+
+    private Object measured(Object input) {
+        if (!metrics.isEnabled()) {
+            return limited(input);
+        }
+        metrics.callStarted();
+        long start = System.nanoTime();
+        try {
+            Object result = limited(input);
+            metrics.callFinished(System.nanoTime() - start, null);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.callFinished(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Object> measuredAsync(Object input) {
+        if (!metrics.isEnabled()) {
+            return limitedAsync(input);
+        }
+        metrics.callStarted();
+        long start = System.nanoTime();
+        CompletableFuture<Object> result = limitedAsync(input);
+        result.whenComplete((value, error) -> metrics.callFinished(System.nanoTime() - start, error));
+        return result;
+    }
+
+    private Object limited(Object input) {
+        if (limiter == null) {
+            return guarded(input);
+        }
+        return limiter.call(RemoteCallPriority.current(priority), () -> guarded(input));
+    }
+
+    private CompletableFuture<Object> limitedAsync(Object input) {
+        if (limiter == null) {
+            return guardedAsync(input);
+        }
+        return limiter.callAsync(RemoteCallPriority.current(priority), () -> guardedAsync(input));
+    }
+
+    private Object guarded(Object input) {
+        return guard == null ? attempt(input) : guard.call(() -> attempt(input));
+    }
+
+    /**
+     * Retries may be scheduled on another thread, so they are given the trace of the call
+     */
+    private CompletableFuture<Object> guardedAsync(Object input) {
+        if (guard == null) {
+            return attemptAsync(input);
+        }
+        TraceContext trace = TraceContextHolder.current();
+        return guard.callAsync(() -> TraceContextHolder.call(trace, () -> attemptAsync(input)));
+    }
+
+    private Object attempt(Object input) {
+        // Batched and hedged calls are asynchronous underneath
+        if (batcher != null || hedger != null) {
+            try {
+                return attemptAsync(input).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                // Checked causes, such as an IOException from the transport, stay wrapped
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            return invokeRemoteFunction(input);
+        } catch (Exception e) {
+            log.error("❌ FC Framework: Remote call failed for: " + functionName, e);
+            throw new RuntimeException("FC Framework: Remote function call failed: " + functionName, e);
+        }
+    }
+
+    private CompletableFuture<Object> attemptAsync(Object input) {
+        if (hedger == null) {
+            return sendAsync(input);
+        }
+        TraceContext trace = TraceContextHolder.current();
+        return hedger.call(() -> TraceContextHolder.call(trace, () -> sendAsync(input)));
+    }
+
+    private CompletableFuture<Object> sendAsync(Object input) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<Object> call;
+        try {
+            call = batcher != null
+                    ? batcher.submit(EncodedInput.unwrap(input))
+                    : invokeRemoteFunctionAsync(input);
+        } catch (Exception e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        call.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (result.isCancelled() || error instanceof CancellationException
+                    || error.getCause() instanceof CancellationException) {
+                // A hedged request that lost, or a caller that gave up: nothing failed
+                result.completeExceptionally(error);
+            } else {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                log.error("❌ FC Framework: Remote call failed for: " + functionName, cause);
+                result.completeExceptionally(new RuntimeException("FC Framework: Remote function call failed: " + functionName, cause));
+            }
+        });
+        return cancelling(result, call);
+    }
+
+    private Object invokeRemoteFunction(Object input) throws Exception {
+        log.info("🌐 FC Framework: Making remote call to: " + functionName + " at " + transport.getEndpoint());
+
+        // Encoded once: the same bytes are signed and sent
+        HttpHeaders headers = new HttpHeaders();
+        byte[] body = encode(input, headers);
+
+        // Decode the response straight from the transport's stream
+        injectTraceContext(headers);
+        return transport.exchange(new TransportRequest(body, prepareHeaders(headers), false), response -> {
+            long start = metrics.isEnabled() ? System.nanoTime() : 0;
+            CountingInputStream counted = metrics.isEnabled() ? new CountingInputStream(response.body()) : null;
+            Object result;
+            try (InputStream in = responseStream(response, counted)) {
+                result = processResponse(in, response.contentType());
+            }
+            if (counted != null) {
+                metrics.recordDeserialization(System.nanoTime() - start, counted.count);
+            }
+            return result;
+        });
+    }
+
+    private CompletableFuture<Object> invokeRemoteFunctionAsync(Object input) throws Exception {
+        log.info("🌐 FC Framework: Making async remote call to: " + functionName + " at " + transport.getEndpoint());
+
+        HttpHeaders headers = new HttpHeaders();
+        byte[] body = encode(input, headers);
+        injectTraceContext(headers);
+        CompletableFuture<TransportResponse> exchange = transport.exchangeAsync(new TransportRequest(body, prepareHeaders(headers), false));
+        return cancelling(exchange.thenApply(response -> {
+            try {
+                long start = metrics.isEnabled() ? System.nanoTime() : 0;
+                CountingInputStream counted = metrics.isEnabled() ? new CountingInputStream(response.body()) : null;
+                Object result = processResponse(responseStream(response, counted), response.contentType());
+                if (counted != null) {
+                    metrics.recordDeserialization(System.nanoTime() - start, counted.count);
+                }
+                return result;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }), exchange);
+    }
+
+    /**
+     * Serialize and compress the input, recording the time and the bytes that go on the wire
+     */
+    private byte[] encode(Object input, HttpHeaders headers) throws Exception {
+        if (!metrics.isEnabled()) {
+            return compress(serializeInput(input), headers);
+        }
+        long start = System.nanoTime();
+        byte[] body = compress(serializeInput(input), headers);
+        metrics.recordSerialization(System.nanoTime() - start, body == null ? 0 : body.length);
+        return body;
+    }
+
+    /**
+     * Cancelling the derived future (e.g. a hedged request that lost) also cancels the exchange
+     */
+    private static <T> CompletableFuture<T> cancelling(CompletableFuture<T> derived, CompletableFuture<?> source) {
+        derived.whenComplete((value, error) -> {
+            if (derived.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return derived;
+    }
+
+    /**
+     * Sends a batch of inputs as one JSON array to the function's batch endpoint
+     */
+    CompletableFuture<List<BatchResult<Object>>> invokeBatchAsync(List<Object> inputs) {
+        try {
+            long encodeStart = metrics.isEnabled() ? System.nanoTime() : 0;
+            byte[] encoded = batchWriter.writeValueAsBytes(inputs);
+            logRequestBody("📤 FC Batch Request: ", encoded);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(BATCH_HEADER, "true");
+            byte[] body = compress(encoded, headers);
+            if (metrics.isEnabled()) {
+                metrics.recordSerialization(System.nanoTime() - encodeStart, body.length);
+            }
+
+            return transport.exchangeAsync(new TransportRequest(body, prepareHeaders(headers), true))
+                    .thenApply(response -> {
+                        try {
+                            long start = metrics.isEnabled() ? System.nanoTime() : 0;
+                            CountingInputStream counted = metrics.isEnabled() ? new CountingInputStream(response.body()) : null;
+                            ObjectReader reader = WireFormat.fromContentType(response.contentType()) == wireFormat
+                                    ? batchResultReader : jsonBatchResultReader;
+                            List<BatchResult<Object>> results = reader.readValue(responseStream(response, counted));
+                            if (counted != null) {
+                                metrics.recordDeserialization(System.nanoTime() - start, counted.count);
+                            }
+                            return results;
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    });
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * @param counted the response body wrapped to count its bytes, or null
+     */
+    private static InputStream responseStream(TransportResponse response, InputStream counted) throws IOException {
+        return decompress(counted != null ? counted : response.body(), response.contentEncoding());
+    }
+
+    private static InputStream decompress(InputStream in, String contentEncoding) throws IOException {
+        ContentCoding coding = ContentCoding.fromContentEncoding(contentEncoding);
+        return coding == null ? in : coding.decompress(in);
+    }
+
+    /**
+     * Compress bodies over the size threshold; the compressed bytes are what gets signed
+     */
+    private byte[] compress(byte[] body, HttpHeaders headers) throws IOException {
+        if (compression == null || body == null || body.length < compression.getMinSize()) {
+            return body;
+        }
+        byte[] compressed = compression.getCoding().compress(body);
+        headers.set(HttpHeaders.CONTENT_ENCODING, compression.getCoding().getToken());
+        log.debug("🗜️ FC Request compressed with " + compression.getCoding().getToken() + ": " +
+                body.length + " -> " + compressed.length + " bytes");
+        return compressed;
+    }
+
+    private byte[] serializeInput(Object inputArg) throws Exception {
+        byte[] body;
+        if (inputArg instanceof EncodedInput encoded) {
+            body = encoded.body();
+        } else {
+            body = inputArg == null ? null : inputWriter.writeValueAsBytes(inputArg);
+        }
+        if (body == null) {
+            return null;
+        }
+        logRequestBody("📤 FC Request: ", body);
+        return body;
+    }
+
+    private void logRequestBody(String prefix, byte[] body) {
+        if (log.isDebugEnabled()) {
+            log.debug(prefix + (wireFormat.isBinary()
+                    ? body.length + " bytes of " + wireFormat
+                    : new String(body, StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * Single calls only: a batch mixes calls from different traces
+     */
+    private void injectTraceContext(HttpHeaders headers) {
+        TraceContext trace = tracing ? TraceContextHolder.current() : null;
+        if (trace != null) {
+            trace.inject(headers);
+        }
+    }
+
+    private HttpHeaders prepareHeaders(HttpHeaders headers) {
+        headers.setContentType(wireFormat.getMediaType());
+        headers.set("Accept", wireFormat.acceptHeader());
+        if (compression != null) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, ContentCoding.acceptEncodingHeader());
+        }
+        headers.set("X-FC-Framework", "true");
+        headers.set("X-FC-Function", functionName);
+        return headers;
+    }
+
+    /**
+     * Process response based on functional interface type
+     */
+    private Object processResponse(InputStream responseBody, String contentType) throws IOException {
+        if (shape == FunctionShape.CONSUMER) {
+            // Consumer<T> - no return value
+            return null;
+        }
+
+        // Supplier<T> or Function<T,R> - deserialize response, treating an empty body as null
+        ObjectReader reader = WireFormat.fromContentType(contentType) == wireFormat ? resultReader : jsonResultReader;
+        try (JsonParser parser = reader.createParser(responseBody)) {
+            if (parser.nextToken() == null) {
+                return null;
+            }
+            return reader.readValue(parser);
+        }
+    }
+
+    public String getFunctionName() {
+        return functionName;
+    }
+
+    /**
+     * Counts the response bytes as received, before decompression
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -4,37 +4,105 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fc.serverless.auth.AwsIamRequestSigner;
+import com.fc.serverless.cache.CacheSettings;
+import com.fc.serverless.cache.CacheStats;
+import com.fc.serverless.cache.MemoizingCache;
+import com.fc.serverless.cache.SupplierCache;
+import com.fc.serverless.checkpoint.CheckpointParticipant;
+import com.fc.serverless.codec.CompressionSettings;
+import com.fc.serverless.codec.WireFormat;
 import com.fc.serverless.config.EnvironmentPropertyResolver;
 import com.fc.serverless.config.EnvironmentPropertyResolver.AuthType;
 import com.fc.serverless.config.EnvironmentPropertyResolver.FunctionConfig;
 import com.fc.serverless.core.annotation.RemoteFunction;
+import com.fc.serverless.http.HttpClientSettings;
+import com.fc.serverless.http.PooledRemoteHttpClientFactory;
+import com.fc.serverless.http.RemoteHttpClientFactory;
+import com.fc.serverless.metrics.FunctionMeshMetrics;
+import com.fc.serverless.metrics.RemoteCallMetrics;
+import com.fc.serverless.resilience.AdaptiveConcurrencyLimiter;
+import com.fc.serverless.resilience.ConcurrencyLimitSettings;
+import com.fc.serverless.resilience.ConcurrencyStats;
+import com.fc.serverless.resilience.HedgeSettings;
+import com.fc.serverless.resilience.HedgeStats;
+import com.fc.serverless.resilience.RemoteCallGuard;
+import com.fc.serverless.resilience.RequestHedger;
+import com.fc.serverless.resilience.ResilienceSettings;
+import com.fc.serverless.resilience.ResilienceStats;
+import com.fc.serverless.transport.EndpointStats;
+import com.fc.serverless.transport.HttpTransport;
+import com.fc.serverless.transport.InMemoryTransport;
+import com.fc.serverless.transport.LambdaInvokeSettings;
+import com.fc.serverless.transport.LambdaInvokeTransport;
+import com.fc.serverless.transport.LoadBalancedTransport;
+import com.fc.serverless.transport.LoadBalancerSettings;
+import com.fc.serverless.transport.RemoteTransport;
+import com.fc.serverless.transport.TransportType;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.function.context.FunctionCatalog;
 import org.springframework.core.env.Environment;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.net.http.HttpClient;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
-public class RemoteFunctionProxyFactory {
+public class RemoteFunctionProxyFactory implements CheckpointParticipant, DisposableBean {
 
     private static final Log log = LogFactory.getLog(RemoteFunctionProxyFactory.class);
 
-    private final RestTemplate restTemplate;
+
+    private final RemoteHttpClientFactory httpClientFactory;
     private final ObjectMapper objectMapper;
     private final EnvironmentPropertyResolver propertyResolver;
     private final AwsIamRequestSigner iamSigner;
+    private final ObjectProvider<FunctionCatalog> functionCatalog;
+    private final ObjectProvider<FunctionMeshMetrics> metrics;
+    private final Map<String, CacheStats> cacheStats = new ConcurrentHashMap<>();
+    private final Map<String, RemoteCallGuard> guards = new ConcurrentHashMap<>();
+    private final Map<String, RequestHedger> hedgers = new ConcurrentHashMap<>();
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, LoadBalancedTransport> loadBalancers = new ConcurrentHashMap<>();
+    private final Map<String, SingleFlight> singleFlights = new ConcurrentHashMap<>();
+    private final List<RemoteFunctionClient> clients = new CopyOnWriteArrayList<>();
+    private volatile ScheduledExecutorService scheduler;
+    private volatile ExecutorService hedgeExecutor;
 
     public RemoteFunctionProxyFactory() {
-        this.restTemplate = new RestTemplate();
+        this(new PooledRemoteHttpClientFactory());
+    }
+
+    public RemoteFunctionProxyFactory(RemoteHttpClientFactory httpClientFactory) {
+        this(httpClientFactory, null);
+    }
+
+    public RemoteFunctionProxyFactory(RemoteHttpClientFactory httpClientFactory, ObjectProvider<FunctionCatalog> functionCatalog) {
+        this(httpClientFactory, functionCatalog, null);
+    }
+
+    /**
+     * @param functionCatalog local functions; a remote function found here is called in-process
+     * @param metrics         call metrics, looked up when the first proxy is created; none when null
+     */
+    public RemoteFunctionProxyFactory(RemoteHttpClientFactory httpClientFactory, ObjectProvider<FunctionCatalog> functionCatalog,
+                                      ObjectProvider<FunctionMeshMetrics> metrics) {
+        this.httpClientFactory = httpClientFactory;
+        this.functionCatalog = functionCatalog;
+        this.metrics = metrics;
         this.objectMapper = createObjectMapper();
         this.propertyResolver = new EnvironmentPropertyResolver();
         this.iamSigner = new AwsIamRequestSigner();
@@ -51,130 +119,337 @@ public class RemoteFunctionProxyFactory {
     }
 
     public Object createProxy(Class<?> functionType, RemoteFunction annotation, Environment environment, Class<?> returnType) {
+        return createProxy(functionType, annotation, environment, returnType, InvocationMode.BLOCKING);
+    }
+
+    public Object createProxy(Class<?> functionType, RemoteFunction annotation, Environment environment,
+                              Class<?> returnType, InvocationMode mode) {
+        return createProxy(functionType, annotation, environment, Object.class, returnType, mode);
+    }
+
+    /**
+     * @param inputType  declared input type, may be generic
+     * @param returnType declared result type, may be generic (e.g. List<PriceInfo>)
+     */
+    public Object createProxy(Class<?> functionType, RemoteFunction annotation, Environment environment,
+                              Type inputType, Type returnType, InvocationMode mode) {
         String functionName = annotation.name();
 
         // Use new enhanced config resolution if available, fallback to old method
         final FunctionConfig config = propertyResolver.resolveFunctionConfig(functionName, environment);
+        final TransportType transportType = TransportType.resolve(functionName, environment, propertyResolver);
+        final HttpClientSettings httpSettings = HttpClientSettings.resolve(functionName, environment, propertyResolver);
+        final WireFormat configuredFormat = WireFormat.resolve(functionName, environment, propertyResolver);
+        final CompressionSettings compression = CompressionSettings.resolve(functionName, environment, propertyResolver);
+        final BatchSettings batchSettings = BatchSettings.resolve(functionName, environment, propertyResolver);
+        final boolean idempotent = annotation.idempotent()
+                || propertyResolver.resolveBoolean(functionName, "idempotent", false, environment);
+        // Safe to repeat is not safe to serve stale: results are only cached with an explicit cache.ttl
+        final CacheSettings cacheSettings = CacheSettings.resolve(functionName, environment, propertyResolver);
+        final boolean cacheSupplier = cacheSettings.isEnabled() && Supplier.class.isAssignableFrom(functionType);
+        final boolean memoizeFunction = cacheSettings.isEnabled() && Function.class.isAssignableFrom(functionType);
+        // Only calls without side effects may share a response
+        final boolean coalesce = propertyResolver.resolveBoolean(functionName, "coalesce",
+                idempotent || Supplier.class.isAssignableFrom(functionType), environment);
+        final HedgeSettings hedgeSettings = HedgeSettings.resolve(functionName, idempotent, environment, propertyResolver);
+        // The in-memory transport is chosen to exercise serialization, so it is not short-circuited
+        final boolean localEnabled = functionCatalog != null && propertyResolver.resolveBoolean(functionName,
+                "local.enabled", transportType != TransportType.IN_MEMORY, environment);
 
+        final FunctionMeshMetrics meshMetrics = metrics == null ? FunctionMeshMetrics.NOOP
+                : metrics.getIfAvailable(() -> FunctionMeshMetrics.NOOP);
+        final RemoteCallMetrics callMetrics = meshMetrics.remoteFunction(functionName);
 
-        log.info("🔗 FC Framework: Creating proxy for " + functionName + " at " + config.getUrl() +
-                " with auth: " + config.getAuthType());
+        final RemoteTransport transport = createTransport(transportType, functionName, functionType, config, httpSettings,
+                mode.isAsync() || batchSettings.isEnabled() || cacheSupplier || hedgeSettings.isEnabled(), callMetrics,
+                environment);
 
-        InvocationHandler handler = (proxy, method, args) -> {
-            try {
-                return invokeRemoteFunction(functionName, config, functionType, args, returnType);
-            } catch (Exception e) {
-                log.error("❌ FC Framework: Remote call failed for: " + functionName, e);
-                throw new RuntimeException("FC Framework: Remote function call failed: " + functionName, e);
-            }
-        };
+        // Batching, binary formats and compression are negotiated through headers
+        final boolean negotiated = transport.supportsContentNegotiation();
+        if (!negotiated && (configuredFormat.isBinary() || compression.isEnabled() || batchSettings.isEnabled())) {
+            log.warn("⚠️ FC Framework: The " + transportType + " transport for " + functionName +
+                    " carries plain JSON only; wireFormat, compression and batching settings are ignored");
+        }
+        final WireFormat wireFormat = negotiated ? configuredFormat : WireFormat.JSON;
 
-        return Proxy.newProxyInstance(
-                functionType.getClassLoader(),
-                new Class<?>[]{functionType},
-                handler
-        );
-    }
+        log.info("🔗 FC Framework: Creating " + (mode.isAsync() ? mode + " " : "") + "proxy for " + functionName +
+                " at " + transport.getEndpoint() + " with auth: " + config.getAuthType() +
+                (transportType != TransportType.HTTP ? ", transport: " + transportType : "") +
+                (wireFormat.isBinary() ? ", format: " + wireFormat : ""));
+
+        final RemoteFunctionClient client = new RemoteFunctionClient(functionName, functionType,
+                objectMapper.constructType(inputType), objectMapper.constructType(returnType), objectMapper, wireFormat, transport);
 
-    private Object invokeRemoteFunction(String functionName, FunctionConfig config, Class<?> functionType,
-                                        Object[] args, Class<?> returnType) throws Exception {
+        clients.add(client);
 
-        String url = config.getUrl();
-        AuthType authType = config.getAuthType();
+        if (callMetrics.isEnabled()) {
+            client.enableMetrics(callMetrics);
+        }
 
-        log.info("🌐 FC Framework: Making remote call to: " + functionName + " at " + url);
+        if (environment.getProperty("fc.tracing.enabled", Boolean.class, true)) {
+            client.enableTracing();
+        }
 
-        // Handle different function interface types
-        Object inputArg = extractInputArgument(functionType, args);
-        String jsonInput = null;
+        if (compression.isEnabled() && negotiated) {
+            log.info("🗜️ FC Framework: Compression enabled for " + functionName + ": " + compression);
+            client.enableCompression(compression);
+        }
 
-        if (inputArg != null) {
-            jsonInput = objectMapper.writeValueAsString(inputArg);
-            log.debug("📤 FC Request: " + jsonInput);
+        if (batchSettings.isEnabled() && negotiated) {
+            log.info("📦 FC Framework: Batching enabled for " + functionName + ": " + batchSettings);
+            client.enableBatching(new RemoteCallBatcher(functionName, batchSettings, client::invokeBatchAsync, getScheduler()));
         }
 
-        // Prepare headers
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("Accept", MediaType.APPLICATION_JSON_VALUE);
-        headers.set("X-FC-Framework", "true");
-        headers.set("X-FC-Function", functionName);
+        if (coalesce) {
+            // Proxies of the same function share the requests in flight
+            client.enableSingleFlight(singleFlights.computeIfAbsent(functionName, name -> new SingleFlight()));
+        }
 
-        // Apply authentication if required
-        if (authType == AuthType.AWS_IAM) {
-            log.debug("🔐 Applying AWS IAM authentication");
-            headers = iamSigner.signRequest(url, HttpMethod.POST, headers, jsonInput);
+        // Proxies of the same function share one latency history and hedge budget
+        if (hedgeSettings.isEnabled()) {
+            client.enableHedging(hedgers.computeIfAbsent(functionName, name -> {
+                log.info("🏁 FC Framework: Hedging enabled for " + name + ": " + hedgeSettings);
+                return new RequestHedger(hedgeSettings, getScheduler(), getHedgeExecutor());
+            }));
         }
 
-        // Make the HTTP request
-        HttpEntity<String> request = new HttpEntity<>(jsonInput, headers);
-        ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
+        // Proxies of the same function share one breaker, so they see the same health
+        final ResilienceSettings resilienceSettings = ResilienceSettings.resolve(functionName, idempotent, environment, propertyResolver);
+        if (resilienceSettings.isEnabled()) {
+            client.enableGuard(guards.computeIfAbsent(functionName, name -> {
+                log.info("🛡️ FC Framework: Resilience for " + name + ": " + resilienceSettings);
+                return new RemoteCallGuard(name, resilienceSettings, getScheduler());
+            }));
+        }
 
-        log.debug("📥 FC Response status: " + response.getStatusCode());
-        log.debug("📥 FC Response body: " + response.getBody());
+        // One limit per function, shared by all its proxies whatever their priority
+        final ConcurrencyLimitSettings concurrencySettings = ConcurrencyLimitSettings.resolve(functionName, environment, propertyResolver);
+        if (concurrencySettings.isEnabled()) {
+            client.enableConcurrencyLimit(limiters.computeIfAbsent(functionName, name -> {
+                log.info("🚦 FC Framework: Adaptive concurrency limit for " + name + ": " + concurrencySettings);
+                return new AdaptiveConcurrencyLimiter(name, concurrencySettings);
+            }), annotation.priority());
+        }
 
-        // Handle different return types based on functional interface
-        return processResponse(functionType, response.getBody(), returnType);
-    }
+        if (cacheSupplier) {
+            log.info("🗄️ FC Framework: Caching enabled for " + functionName + ": " + cacheSettings);
+            SupplierCache supplierCache = new SupplierCache(functionName, cacheSettings);
+            cacheStats.put(functionName, supplierCache.getStats());
+            client.enableSupplierCache(supplierCache);
+        }
 
-    /**
-     * Extract input argument based on functional interface type
-     */
-    private Object extractInputArgument(Class<?> functionType, Object[] args) {
-        if (isConsumerType(functionType)) {
-            // Consumer<T> - has input argument, no return value
-            return (args != null && args.length > 0) ? args[0] : null;
-        } else if (isSupplierType(functionType)) {
-            // Supplier<T> - no input argument, has return value
-            return null;
-        } else if (isFunctionType(functionType)) {
-            // Function<T,R> - has input argument and return value
-            return (args != null && args.length > 0) ? args[0] : null;
+        if (memoizeFunction) {
+            log.info("🗄️ FC Framework: Memoizing results for " + functionName + ": " + cacheSettings);
+            MemoizingCache memoizingCache = new MemoizingCache(cacheSettings);
+            cacheStats.put(functionName, memoizingCache.getStats());
+            client.enableMemoizingCache(memoizingCache);
+        }
+
+        final LocalFunctionInvoker local = localEnabled
+                ? new LocalFunctionInvoker(functionName, functionCatalog, functionType, objectMapper,
+                        objectMapper.constructType(inputType), objectMapper.constructType(returnType),
+                        propertyResolver.resolveBoolean(functionName, "local.copy", false, environment))
+                : null;
+
+        meshMetrics.bindStats(functionName, this);
+
+        // Local availability is only known on the first call, remote-only proxies skip the check
+        RemoteInvocation invocation;
+        if (mode == InvocationMode.MONO) {
+            invocation = local == null
+                    ? input -> ReactorAdapter.toMono(() -> client.invokeAsync(input))
+                    : input -> ReactorAdapter.toMono(() -> local.isAvailable() ? local.invokeAsync(input) : client.invokeAsync(input));
+        } else if (mode == InvocationMode.FUTURE) {
+            invocation = local == null
+                    ? client::invokeAsync
+                    : input -> local.isAvailable() ? local.invokeAsync(input) : client.invokeAsync(input);
         } else {
-            // Default: assume first argument is input
-            return (args != null && args.length > 0) ? args[0] : null;
+            invocation = local == null
+                    ? client::invoke
+                    : input -> local.isAvailable() ? local.invoke(input) : client.invoke(input);
         }
+
+        return ProxyClassGenerator.newProxy(functionType, functionName, invocation,
+                functionType.getSimpleName() + " proxy for " + functionName + " at " + transport.getEndpoint() +
+                        (mode.isAsync() ? " [" + mode + "]" : ""));
     }
 
     /**
-     * Process response based on functional interface type
+     * Transport selected with fc.functions.{name}.transport; HTTP unless configured otherwise
+     *
+     * @param async whether a non-blocking HTTP client is needed
      */
-    private Object processResponse(Class<?> functionType, String responseBody, Class<?> returnType) throws Exception {
-        if (isConsumerType(functionType)) {
-            // Consumer<T> - no return value
-            return null;
-        } else if (isSupplierType(functionType) || isFunctionType(functionType)) {
-            // Supplier<T> or Function<T,R> - deserialize response
-            if (responseBody == null || responseBody.trim().isEmpty()) {
-                return null;
+    private RemoteTransport createTransport(TransportType transportType, String functionName, Class<?> functionType,
+                                            FunctionConfig config, HttpClientSettings httpSettings, boolean async,
+                                            RemoteCallMetrics callMetrics, Environment environment) {
+        return switch (transportType) {
+            case LAMBDA -> {
+                LambdaInvokeSettings settings = LambdaInvokeSettings.resolve(functionName,
+                        Consumer.class.isAssignableFrom(functionType), environment, propertyResolver);
+                // The Invoke API always requires SigV4; a local stand-in only gets signed requests when asked to
+                boolean signed = !settings.isCustomEndpoint() || config.getAuthType() == AuthType.AWS_IAM;
+                log.info("λ FC Framework: Using Lambda Invoke for " + functionName + ": " + settings);
+                yield new LambdaInvokeTransport(settings, httpClientFactory.getAsyncClient(functionName, httpSettings),
+                        httpSettings.getReadTimeout(), signed ? iamSigner : null, callMetrics);
             }
-            return objectMapper.readValue(responseBody, returnType);
-        } else {
-            // Default: deserialize response
-            if (responseBody == null || responseBody.trim().isEmpty()) {
-                return null;
+            case IN_MEMORY -> new InMemoryTransport(functionName, functionCatalog, objectMapper);
+            case HTTP -> config.getUrls().size() > 1
+                    ? loadBalancers.computeIfAbsent(functionName,
+                            name -> createLoadBalancer(name, config, httpSettings, callMetrics, environment))
+                    : createHttpTransport(functionName, config.getUrl(), config, httpSettings, async, callMetrics);
+        };
+    }
+
+    private HttpTransport createHttpTransport(String functionName, String url, FunctionConfig config,
+                                              HttpClientSettings httpSettings, boolean async, RemoteCallMetrics callMetrics) {
+        RestTemplate restTemplate = new RestTemplate(httpClientFactory.getRequestFactory(functionName, httpSettings));
+        HttpClient asyncClient = async ? httpClientFactory.getAsyncClient(functionName, httpSettings) : null;
+        return new HttpTransport(url, url + RemoteFunctionClient.BATCH_PATH, restTemplate,
+                asyncClient, httpSettings.getReadTimeout(),
+                config.getAuthType() == AuthType.AWS_IAM ? iamSigner : null, callMetrics);
+    }
+
+    /**
+     * One balancer per function, so all its proxies share endpoint health; it is
+     * created with the non-blocking client since any of those proxies may be async
+     */
+    private LoadBalancedTransport createLoadBalancer(String functionName, FunctionConfig config, HttpClientSettings httpSettings,
+                                                     RemoteCallMetrics callMetrics, Environment environment) {
+        LoadBalancerSettings settings = LoadBalancerSettings.resolve(functionName, environment, propertyResolver);
+        log.info("⚖️ FC Framework: Balancing " + functionName + " across " + config.getUrls().size() +
+                " endpoints: " + settings);
+        return new LoadBalancedTransport(functionName, config.getUrls().stream()
+                .map(url -> createHttpTransport(functionName, url, config, httpSettings, true, callMetrics))
+                .toList(), settings);
+    }
+
+    /**
+     * Cache statistics per remote function, for functions with caching enabled
+     */
+    public Map<String, CacheStats> getCacheStats() {
+        return Collections.unmodifiableMap(cacheStats);
+    }
+
+    /**
+     * Calls answered by an identical in-flight call per remote function, for functions with coalescing enabled
+     */
+    public Map<String, Long> getCoalescedCalls() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        singleFlights.forEach((name, singleFlight) -> counts.put(name, singleFlight.getCoalescedCalls()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Circuit breaker state and retry counters per remote function
+     */
+    public Map<String, ResilienceStats> getResilienceStats() {
+        Map<String, ResilienceStats> stats = new LinkedHashMap<>();
+        guards.forEach((name, guard) -> stats.put(name, guard.getStats()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Hedged request counters per remote function, for functions with hedging enabled
+     */
+    public Map<String, HedgeStats> getHedgeStats() {
+        Map<String, HedgeStats> stats = new LinkedHashMap<>();
+        hedgers.forEach((name, hedger) -> stats.put(name, hedger.getStats()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Concurrency limit and shedding counters per remote function, for functions with a limit enabled
+     */
+    public Map<String, ConcurrencyStats> getConcurrencyStats() {
+        Map<String, ConcurrencyStats> stats = new LinkedHashMap<>();
+        limiters.forEach((name, limiter) -> stats.put(name, limiter.getStats()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Load and health per endpoint, for functions balanced across several urls
+     */
+    public Map<String, List<EndpointStats>> getEndpointStats() {
+        Map<String, List<EndpointStats>> stats = new LinkedHashMap<>();
+        loadBalancers.forEach((name, balancer) -> stats.put(name, balancer.getStats()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Prime every proxy's codecs and the request signer on synthetic payloads;
+     * nothing is sent and no credentials are resolved
+     */
+    @Override
+    public void beforeCheckpoint() {
+        int primed = 0;
+        for (RemoteFunctionClient client : clients) {
+            try {
+                client.prime(objectMapper);
+                primed++;
+            } catch (Exception e) {
+                log.warn("⚠️ FC Framework: Could not prime " + client.getFunctionName() + " before checkpoint: " + e);
             }
-            return objectMapper.readValue(responseBody, returnType);
         }
+        iamSigner.prime();
+        log.info("📸 FC Framework: Primed " + primed + " of " + clients.size() + " remote function proxies");
     }
 
     /**
-     * Type checking helper methods
+     * Credentials cached before the snapshot may have expired since
      */
-    private boolean isConsumerType(Class<?> type) {
-        return Consumer.class.isAssignableFrom(type);
+    @Override
+    public void afterRestore() {
+        iamSigner.refreshCredentials();
     }
 
-    private boolean isSupplierType(Class<?> type) {
-        return Supplier.class.isAssignableFrom(type);
+    /**
+     * Shared timer for batch windows, retry backoff and hedge delays, created on first use
+     */
+    private ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            synchronized (this) {
+                if (scheduler == null) {
+                    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "fc-remote-function-scheduler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * Threads that build and send hedged requests, created on first use; idle ones exit
+     */
+    private ExecutorService getHedgeExecutor() {
+        if (hedgeExecutor == null) {
+            synchronized (this) {
+                if (hedgeExecutor == null) {
+                    hedgeExecutor = Executors.newCachedThreadPool(runnable -> {
+                        Thread thread = new Thread(runnable, "fc-remote-function-hedge");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return hedgeExecutor;
     }
 
-    private boolean isFunctionType(Class<?> type) {
-        return Function.class.isAssignableFrom(type);
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdownNow();
+        }
     }
 
     // Backward compatibility method
     public Object createProxy(Class<?> functionType, RemoteFunction annotation, Environment environment) {
         return createProxy(functionType, annotation, environment, Object.class);
     }
-}
\ No newline at end of file
+}
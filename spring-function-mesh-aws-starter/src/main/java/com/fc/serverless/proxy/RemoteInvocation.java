@@ -0,0 +1,14 @@
+package com.fc.serverless.proxy;
+
+/**
+ * A proxy's call path, chosen once when the proxy is created: in-process or
+ * remote, and blocking, future or Mono
+ */
+@FunctionalInterface
+interface RemoteInvocation {
+
+    /**
+     * @param input the call's argument, null for a supplier
+     */
+    Object invoke(Object input);
+}
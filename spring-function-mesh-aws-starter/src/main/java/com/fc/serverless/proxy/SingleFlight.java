@@ -0,0 +1,94 @@
+package com.fc.serverless.proxy;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls of one remote function, across all of
+ * its proxies.
+ *
+ * The first caller for a payload performs the request; callers arriving while it
+ * is in flight wait for and share its result (or failure) instead of sending
+ * their own. Nothing is kept once the request completes. Waiters get the
+ * leader's decoded result, so only proxies declaring the same result type share
+ * a request.
+ */
+final class SingleFlight {
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    private record Key(Type resultType, String payload) {
+    }
+
+    /**
+     * Blocking variant: the leading caller runs the call on its own thread
+     */
+    Object call(Type resultType, String payload, Supplier<Object> call) {
+        Key key = new Key(resultType, payload);
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        // Errors too: waiters must never be left on a future nobody completes
+        try {
+            Object value = call.get();
+            pending.complete(value);
+            return value;
+        } catch (Throwable e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    CompletableFuture<Object> callAsync(Type resultType, String payload, Supplier<CompletableFuture<Object>> call) {
+        Key key = new Key(resultType, payload);
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            coalesced.increment();
+            // Callers get their own copy so one caller's cancel cannot affect the others
+            return existing.copy();
+        }
+
+        CompletableFuture<Object> result;
+        try {
+            result = call.get();
+        } catch (Throwable e) {
+            // Fail the flight rather than leave the entry in place for later callers to wait on
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, error) -> {
+            inFlight.remove(key, pending);
+            if (error == null) {
+                pending.complete(value);
+            } else {
+                pending.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            }
+        });
+        return pending.copy();
+    }
+
+    /**
+     * Number of calls that were served by another caller's in-flight request
+     */
+    long getCoalescedCalls() {
+        return coalesced.sum();
+    }
+}
@@ -0,0 +1,159 @@
+package com.fc.serverless.resilience;
+
+import com.fc.serverless.core.annotation.Priority;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Client-side bulkhead for one remote function whose limit follows the
+ * downstream's latency, in the manner of TCP Vegas.
+ *
+ * The lowest latency seen approximates the function's no-load latency; when
+ * calls take longer, the excess is read as requests queueing downstream and
+ * the limit shrinks, otherwise it grows. Throttling, timeouts and 5xx shrink it
+ * multiplicatively. Calls over their priority's share of the limit are rejected
+ * immediately rather than queued, so background work is shed first.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Log log = LogFactory.getLog(AdaptiveConcurrencyLimiter.class);
+
+    // Successful calls between re-measurements of the no-load latency, so it follows the downstream when it slows for good
+    private static final int PROBE_INTERVAL = 1000;
+
+    private final String functionName;
+    private final ConcurrencyLimitSettings settings;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrencyStats stats;
+    private volatile double limit;
+    private long noLoadRttNanos;
+    private int samplesSinceProbe;
+
+    public AdaptiveConcurrencyLimiter(String functionName, ConcurrencyLimitSettings settings) {
+        this.functionName = functionName;
+        this.settings = settings;
+        this.limit = settings.getInitialLimit();
+        this.stats = new ConcurrencyStats(this::getLimit, inFlight::get);
+    }
+
+    /**
+     * Blocking call, rejected with an exception when over the limit
+     */
+    public <T> T call(Priority priority, Supplier<T> call) {
+        int inFlightAtStart = acquire(priority);
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            release(start, inFlightAtStart, e);
+            throw e;
+        }
+        release(start, inFlightAtStart, null);
+        return result;
+    }
+
+    public <T> CompletableFuture<T> callAsync(Priority priority, Supplier<CompletableFuture<T>> call) {
+        int inFlightAtStart;
+        try {
+            inFlightAtStart = acquire(priority);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            release(start, inFlightAtStart, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, error) -> release(start, inFlightAtStart, error));
+        return future;
+    }
+
+    /**
+     * @return calls in flight including this one
+     */
+    private int acquire(Priority priority) {
+        int cap = Math.max(1, (int) (limit * settings.getShare(priority)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                stats.recordRejected(priority);
+                throw new RuntimeException("FC Framework: Concurrency limit reached for " + functionName +
+                        " (" + current + " in flight, limit " + getLimit() + ", priority " + priority + ")");
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                stats.recordAccepted();
+                return current + 1;
+            }
+        }
+    }
+
+    private void release(long start, int inFlightAtStart, Throwable error) {
+        inFlight.decrementAndGet();
+        if (error == null) {
+            onSample(System.nanoTime() - start, inFlightAtStart);
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            return;
+        }
+        // Anything else, e.g. a bad request or an open circuit, says nothing about downstream capacity
+        if (RemoteFailures.isTransient(cause)) {
+            onDrop();
+        }
+    }
+
+    private synchronized void onDrop() {
+        stats.recordDrop();
+        double previous = limit;
+        limit = Math.max(settings.getMinLimit(), previous * settings.getBackoffRatio());
+        if ((int) limit != (int) previous) {
+            log.debug("FC Framework: Concurrency limit for " + functionName + " lowered to " + getLimit() + " after a drop");
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos || ++samplesSinceProbe >= PROBE_INTERVAL) {
+            noLoadRttNanos = Math.max(1, rttNanos);
+            samplesSinceProbe = 0;
+            return;
+        }
+        double current = limit;
+        // Traffic well below the limit says nothing about whether it could be higher
+        if (inFlightAtStart * 2 < current) {
+            return;
+        }
+
+        double queued = Math.ceil(current * (1 - (double) noLoadRttNanos / rttNanos));
+        double step = Math.max(1, Math.log10(current));
+        double next;
+        if (queued <= step) {
+            next = current + 6 * step;
+        } else if (queued < 3 * step) {
+            next = current + step;
+        } else if (queued > 6 * step) {
+            next = current - step;
+        } else {
+            return;
+        }
+        limit = Math.min(settings.getMaxLimit(), Math.max(settings.getMinLimit(), next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public ConcurrencyStats getStats() {
+        return stats;
+    }
+}
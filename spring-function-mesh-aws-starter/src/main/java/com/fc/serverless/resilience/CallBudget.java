@@ -0,0 +1,43 @@
+package com.fc.serverless.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps extra requests (retries, hedges) at a fraction of call volume so a
+ * struggling function is not hit by a storm of them: every call deposits ratio
+ * tokens, up to burst, and every extra request spends one. Tokens are kept in
+ * thousandths to stay lock-free.
+ */
+final class CallBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    CallBudget(double ratio, int burst) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = Math.max(1, burst) * SCALE;
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    void recordCall() {
+        tokens.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    boolean tryAcquire() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    double getTokens() {
+        return (double) tokens.get() / SCALE;
+    }
+}
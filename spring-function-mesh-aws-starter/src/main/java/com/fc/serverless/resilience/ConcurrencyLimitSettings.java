@@ -0,0 +1,100 @@
+package com.fc.serverless.resilience;
+
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import com.fc.serverless.core.annotation.Priority;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.env.Environment;
+
+/**
+ * Adaptive concurrency limit settings, resolved from fc.functions.{name}.concurrency.*
+ *
+ * Off by default. The limit starts at concurrency.initialLimit and moves between
+ * concurrency.minLimit and concurrency.maxLimit; set maxLimit to the downstream's
+ * reserved concurrency. Normal and background calls may only use a share of
+ * the current limit, leaving the rest to critical calls.
+ */
+public class ConcurrencyLimitSettings {
+
+    private static final Log log = LogFactory.getLog(ConcurrencyLimitSettings.class);
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double normalShare;
+    private final double backgroundShare;
+    private final double backoffRatio;
+
+    public ConcurrencyLimitSettings(boolean enabled, int initialLimit, int minLimit, int maxLimit,
+                                    double normalShare, double backgroundShare, double backoffRatio) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.normalShare = normalShare;
+        this.backgroundShare = backgroundShare;
+        this.backoffRatio = backoffRatio;
+    }
+
+    public static ConcurrencyLimitSettings resolve(String functionName, Environment environment,
+                                                   EnvironmentPropertyResolver resolver) {
+        int minLimit = Math.max(1, resolver.resolveInt(functionName, "concurrency.minLimit", 2, environment));
+        int maxLimit = resolver.resolveInt(functionName, "concurrency.maxLimit", 200, environment);
+        if (maxLimit < minLimit) {
+            log.warn("⚠️ FC Framework: concurrency.maxLimit for " + functionName + " is below minLimit, using " + minLimit);
+            maxLimit = minLimit;
+        }
+        int initialLimit = resolver.resolveInt(functionName, "concurrency.initialLimit", 20, environment);
+        double backoffRatio = resolver.resolveDouble(functionName, "concurrency.backoffRatio", 0.9, environment);
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            log.warn("⚠️ FC Framework: concurrency.backoffRatio for " + functionName + " must be between 0 and 1, using 0.9");
+            backoffRatio = 0.9;
+        }
+
+        return new ConcurrencyLimitSettings(
+                resolver.resolveBoolean(functionName, "concurrency.enabled", false, environment),
+                Math.min(Math.max(initialLimit, minLimit), maxLimit),
+                minLimit,
+                maxLimit,
+                share(functionName, "concurrency.normalShare", 0.9, environment, resolver),
+                share(functionName, "concurrency.backgroundShare", 0.5, environment, resolver),
+                backoffRatio);
+    }
+
+    private static double share(String functionName, String key, double defaultValue, Environment environment,
+                                EnvironmentPropertyResolver resolver) {
+        double share = resolver.resolveDouble(functionName, key, defaultValue, environment);
+        if (share <= 0 || share > 1) {
+            log.warn("⚠️ FC Framework: " + key + " for " + functionName + " must be in (0, 1], using " + defaultValue);
+            return defaultValue;
+        }
+        return share;
+    }
+
+    /**
+     * Fraction of the current limit that calls of this priority may occupy
+     */
+    public double getShare(Priority priority) {
+        return switch (priority) {
+            case CRITICAL -> 1.0;
+            case NORMAL -> normalShare;
+            case BACKGROUND -> backgroundShare;
+        };
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public int getInitialLimit() { return initialLimit; }
+    public int getMinLimit() { return minLimit; }
+    public int getMaxLimit() { return maxLimit; }
+    public double getNormalShare() { return normalShare; }
+    public double getBackgroundShare() { return backgroundShare; }
+    public double getBackoffRatio() { return backoffRatio; }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimitSettings{initialLimit=" + initialLimit + ", minLimit=" + minLimit +
+                ", maxLimit=" + maxLimit + ", normalShare=" + normalShare + ", backgroundShare=" + backgroundShare +
+                ", backoffRatio=" + backoffRatio + "}";
+    }
+}
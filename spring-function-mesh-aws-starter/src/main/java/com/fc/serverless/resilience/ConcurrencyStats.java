@@ -0,0 +1,71 @@
+package com.fc.serverless.resilience;
+
+import com.fc.serverless.core.annotation.Priority;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Concurrency limit and shedding counters for a remote function
+ */
+public class ConcurrencyStats {
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+    private final Map<Priority, LongAdder> rejected = new EnumMap<>(Priority.class);
+    private final IntSupplier limit;
+    private final IntSupplier inFlight;
+
+    ConcurrencyStats(IntSupplier limit, IntSupplier inFlight) {
+        this.limit = limit;
+        this.inFlight = inFlight;
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, new LongAdder());
+        }
+    }
+
+    void recordAccepted() { accepted.increment(); }
+    void recordRejected(Priority priority) { rejected.get(priority).increment(); }
+    void recordDrop() { drops.increment(); }
+
+    /**
+     * Current concurrency limit
+     */
+    public int getLimit() { return limit.getAsInt(); }
+
+    public int getInFlight() { return inFlight.getAsInt(); }
+
+    public long getAccepted() { return accepted.sum(); }
+
+    /**
+     * Calls shed because their priority's share of the limit was in use
+     */
+    public long getRejected() {
+        long total = 0;
+        for (LongAdder count : rejected.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    public long getRejected(Priority priority) { return rejected.get(priority).sum(); }
+
+    /**
+     * Calls that were throttled, timed out or failed with 5xx, each lowering the limit
+     */
+    public long getDrops() { return drops.sum(); }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("ConcurrencyStats{limit=").append(getLimit())
+                .append(", inFlight=").append(getInFlight())
+                .append(", accepted=").append(getAccepted())
+                .append(", drops=").append(getDrops());
+        for (Priority priority : Priority.values()) {
+            text.append(", rejected").append(priority).append('=').append(getRejected(priority));
+        }
+        return text.append('}').toString();
+    }
+}
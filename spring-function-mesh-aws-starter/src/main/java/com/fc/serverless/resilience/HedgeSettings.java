@@ -0,0 +1,74 @@
+package com.fc.serverless.resilience;
+
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Request hedging settings, resolved from fc.functions.{name}.hedge.*
+ *
+ * Off by default and only allowed for idempotent functions. A hedge is sent
+ * once a call has been outstanding for the hedge.percentile latency of recent
+ * calls (hedge.initialDelay until enough calls were seen), at most for
+ * hedge.maxRate of calls.
+ */
+public class HedgeSettings {
+
+    private static final Log log = LogFactory.getLog(HedgeSettings.class);
+
+    private final boolean enabled;
+    private final double percentile;
+    private final Duration initialDelay;
+    private final Duration minDelay;
+    private final double maxRate;
+    private final int burst;
+
+    public HedgeSettings(boolean enabled, double percentile, Duration initialDelay, Duration minDelay,
+                         double maxRate, int burst) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.initialDelay = initialDelay;
+        this.minDelay = minDelay;
+        this.maxRate = maxRate;
+        this.burst = burst;
+    }
+
+    public static HedgeSettings resolve(String functionName, boolean idempotent, Environment environment,
+                                        EnvironmentPropertyResolver resolver) {
+        boolean enabled = resolver.resolveBoolean(functionName, "hedge.enabled", false, environment);
+        if (enabled && !idempotent) {
+            log.warn("⚠️ FC Framework: hedge.enabled ignored for " + functionName +
+                    ": only idempotent functions may be called twice");
+            enabled = false;
+        }
+        double percentile = resolver.resolveDouble(functionName, "hedge.percentile", 95, environment);
+        if (percentile <= 0 || percentile >= 100) {
+            log.warn("⚠️ FC Framework: hedge.percentile for " + functionName + " must be between 0 and 100, using 95");
+            percentile = 95;
+        }
+
+        return new HedgeSettings(
+                enabled,
+                percentile,
+                resolver.resolveDuration(functionName, "hedge.initialDelay", Duration.ofMillis(100), environment),
+                resolver.resolveDuration(functionName, "hedge.minDelay", Duration.ofMillis(5), environment),
+                resolver.resolveDouble(functionName, "hedge.maxRate", 0.1, environment),
+                resolver.resolveInt(functionName, "hedge.burst", 5, environment));
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public double getPercentile() { return percentile; }
+    public Duration getInitialDelay() { return initialDelay; }
+    public Duration getMinDelay() { return minDelay; }
+    public double getMaxRate() { return maxRate; }
+    public int getBurst() { return burst; }
+
+    @Override
+    public String toString() {
+        return "HedgeSettings{percentile=p" + percentile + ", initialDelay=" + initialDelay + ", minDelay=" + minDelay +
+                ", maxRate=" + maxRate + ", burst=" + burst + "}";
+    }
+}
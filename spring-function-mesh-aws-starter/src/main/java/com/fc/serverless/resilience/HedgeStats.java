@@ -0,0 +1,59 @@
+package com.fc.serverless.resilience;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Hedging counters for a remote function
+ */
+public class HedgeStats {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+    private final LongSupplier delayMillis;
+
+    HedgeStats(LongSupplier delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    void recordCall() { calls.increment(); }
+    void recordHedge() { hedges.increment(); }
+    void recordWin() { wins.increment(); }
+    void recordDenied() { denied.increment(); }
+
+    public long getCalls() { return calls.sum(); }
+
+    /**
+     * Second requests sent because the first was slower than the hedge delay
+     */
+    public long getHedges() { return hedges.sum(); }
+
+    /**
+     * Calls answered by the hedge rather than the original request
+     */
+    public long getWins() { return wins.sum(); }
+
+    /**
+     * Hedges not sent because hedge.maxRate was reached
+     */
+    public long getDenied() { return denied.sum(); }
+
+    /**
+     * Current hedge delay
+     */
+    public long getDelayMillis() { return delayMillis.getAsLong(); }
+
+    public double getHedgeRate() {
+        long total = getCalls();
+        return total == 0 ? 0.0 : (double) getHedges() / total;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgeStats{calls=" + getCalls() + ", hedges=" + getHedges() + ", wins=" + getWins() +
+                ", denied=" + getDenied() + ", delayMillis=" + getDelayMillis() +
+                ", hedgeRate=" + String.format("%.3f", getHedgeRate()) + "}";
+    }
+}
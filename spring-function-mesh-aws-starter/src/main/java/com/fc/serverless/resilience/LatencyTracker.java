@@ -0,0 +1,54 @@
+package com.fc.serverless.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Percentile of recent call latencies, kept in a fixed ring of samples.
+ *
+ * Recording is lock-free; the percentile is recomputed from a sorted copy of
+ * the ring every REFRESH_INTERVAL samples rather than on every read.
+ */
+final class LatencyTracker {
+
+    private static final int CAPACITY = 1024;
+    private static final int REFRESH_INTERVAL = 64;
+
+    private final AtomicLongArray samples = new AtomicLongArray(CAPACITY);
+    private final AtomicLong count = new AtomicLong();
+    private final double percentile;
+    private final int minSamples;
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(double percentile, int minSamples) {
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+    }
+
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % CAPACITY), nanos);
+        long recorded = n + 1;
+        if (recorded == minSamples || (recorded > minSamples && recorded % REFRESH_INTERVAL == 0)) {
+            refresh(Math.min(recorded, CAPACITY));
+        }
+    }
+
+    /**
+     * @return the latency percentile in nanoseconds, or -1 until minSamples calls were recorded
+     */
+    long getPercentileNanos() {
+        return percentileNanos;
+    }
+
+    private void refresh(long size) {
+        long[] sorted = new long[(int) size];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        percentileNanos = sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,166 @@
+package com.fc.serverless.resilience;
+
+import com.fc.serverless.checkpoint.InstanceRandom;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Guards the calls of one remote function with a circuit breaker and budgeted retries.
+ *
+ * While the breaker is open calls fail immediately instead of waiting on a
+ * degraded function. Transient failures of idempotent functions are retried
+ * after a full-jitter exponential backoff, as long as the retry budget allows.
+ */
+public class RemoteCallGuard {
+
+    private static final Log log = LogFactory.getLog(RemoteCallGuard.class);
+
+    private final String functionName;
+    private final ResilienceSettings settings;
+    private final CircuitBreaker circuitBreaker;
+    private final CallBudget retryBudget;
+    private final ScheduledExecutorService scheduler;
+    private final ResilienceStats stats;
+
+    /**
+     * @param scheduler runs delayed retries of async calls
+     */
+    public RemoteCallGuard(String functionName, ResilienceSettings settings, ScheduledExecutorService scheduler) {
+        this.functionName = functionName;
+        this.settings = settings;
+        this.scheduler = scheduler;
+        this.retryBudget = settings.isRetryEnabled()
+                ? new CallBudget(settings.getBudgetRatio(), settings.getBudgetBurst())
+                : null;
+        if (settings.isCircuitBreakerEnabled()) {
+            this.circuitBreaker = CircuitBreaker.of(functionName, settings.toCircuitBreakerConfig());
+            this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+                    log.warn("⚡ FC Framework: Circuit breaker for " + functionName + ": " +
+                            event.getStateTransition().getFromState() + " -> " + event.getStateTransition().getToState()));
+        } else {
+            this.circuitBreaker = null;
+        }
+        this.stats = new ResilienceStats(circuitBreaker, retryBudget);
+    }
+
+    /**
+     * Blocking call: backoff delays are spent on the calling thread
+     */
+    public <T> T call(Supplier<T> call) {
+        if (retryBudget != null) {
+            retryBudget.recordCall();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(call);
+            } catch (RuntimeException e) {
+                if (!shouldRetry(e, attempt)) {
+                    throw e;
+                }
+                Duration delay = backoff(attempt);
+                logRetry(attempt, delay, e);
+                try {
+                    Thread.sleep(delay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> call) {
+        if (retryBudget != null) {
+            retryBudget.recordCall();
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(call, 1, result);
+        return result;
+    }
+
+    private <T> T attempt(Supplier<T> call) {
+        if (circuitBreaker == null) {
+            return call.get();
+        }
+        try {
+            return circuitBreaker.executeSupplier(call);
+        } catch (CallNotPermittedException e) {
+            throw openCircuit(e);
+        }
+    }
+
+    private <T> void attemptAsync(Supplier<CompletableFuture<T>> call, int attempt, CompletableFuture<T> result) {
+        CompletionStage<T> stage;
+        try {
+            stage = circuitBreaker == null ? call.get() : circuitBreaker.executeCompletionStage(call::get);
+        } catch (RuntimeException e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+
+        stage.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof CallNotPermittedException notPermitted) {
+                result.completeExceptionally(openCircuit(notPermitted));
+                return;
+            }
+            // A caller that cancelled or timed out no longer wants the result
+            if (result.isDone() || !shouldRetry(cause, attempt)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            Duration delay = backoff(attempt);
+            logRetry(attempt, delay, cause);
+            scheduler.schedule(() -> attemptAsync(call, attempt + 1, result), delay.toMillis(), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private boolean shouldRetry(Throwable error, int attempt) {
+        if (retryBudget == null || attempt >= settings.getMaxAttempts() || !RemoteFailures.isTransient(error)) {
+            return false;
+        }
+        if (!retryBudget.tryAcquire()) {
+            stats.recordRetryDenied();
+            log.debug("FC Framework: Retry budget exhausted for " + functionName);
+            return false;
+        }
+        stats.recordRetry();
+        return true;
+    }
+
+    /**
+     * Full jitter: uniformly random up to the exponential backoff for this attempt
+     */
+    private Duration backoff(int attempt) {
+        long initial = settings.getInitialBackoff().toMillis();
+        long cap = Math.min(settings.getMaxBackoff().toMillis(), initial << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(cap <= 0 ? 0 : InstanceRandom.current().nextLong(cap + 1));
+    }
+
+    private void logRetry(int attempt, Duration delay, Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        log.info("🔁 FC Framework: Retrying " + functionName + " (attempt " + (attempt + 1) + "/" +
+                settings.getMaxAttempts() + ") in " + delay.toMillis() + "ms after: " + cause.getMessage());
+    }
+
+    private RuntimeException openCircuit(CallNotPermittedException e) {
+        return new RuntimeException("FC Framework: Circuit breaker open for " + functionName + ", failing fast", e);
+    }
+
+    public ResilienceStats getStats() {
+        return stats;
+    }
+}
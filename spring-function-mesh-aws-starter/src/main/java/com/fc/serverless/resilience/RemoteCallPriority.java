@@ -0,0 +1,53 @@
+package com.fc.serverless.resilience;
+
+import com.fc.serverless.core.annotation.Priority;
+
+import java.util.function.Supplier;
+
+/**
+ * Overrides the priority of remote calls made by the current thread, e.g. to
+ * mark a scheduled job's calls as background work:
+ *
+ * <pre>
+ * RemoteCallPriority.run(Priority.BACKGROUND, () -> reindex.accept(batch));
+ * </pre>
+ *
+ * The priority is read when the call is made, so asynchronous calls keep it
+ * after the thread moves on.
+ */
+public final class RemoteCallPriority {
+
+    private static final ThreadLocal<Priority> CURRENT = new ThreadLocal<>();
+
+    private RemoteCallPriority() {
+    }
+
+    public static <T> T call(Priority priority, Supplier<T> action) {
+        Priority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void run(Priority priority, Runnable action) {
+        call(priority, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * The priority set for this thread, otherwise the given default
+     */
+    public static Priority current(Priority defaultPriority) {
+        Priority priority = CURRENT.get();
+        return priority != null ? priority : defaultPriority;
+    }
+}
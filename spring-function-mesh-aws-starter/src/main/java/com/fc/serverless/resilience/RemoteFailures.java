@@ -0,0 +1,80 @@
+package com.fc.serverless.resilience;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Classifies remote call failures by walking the cause chain
+ */
+public final class RemoteFailures {
+
+    private RemoteFailures() {
+    }
+
+    /**
+     * Worth retrying: the connection failed or timed out, or the function was
+     * unavailable or throttled (5xx, 408, 429)
+     */
+    public static boolean isTransient(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof JsonProcessingException) {
+                return false;
+            }
+            if (t instanceof InterruptedIOException && !(t instanceof SocketTimeoutException)) {
+                // Interrupted by the caller, not by the network
+                return false;
+            }
+            if (t instanceof HttpClientErrorException clientError) {
+                return isThrottledOrTimedOut(clientError);
+            }
+            if (t instanceof HttpServerErrorException || t instanceof ResourceAccessException
+                    || t instanceof IOException || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts against the circuit breaker: anything but the caller's own mistakes,
+     * i.e. payloads that cannot be encoded or decoded and 4xx other than 408/429,
+     * and calls the caller cancelled
+     */
+    public static boolean isFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof JsonProcessingException || t instanceof CancellationException) {
+                return false;
+            }
+            if (t instanceof HttpClientErrorException clientError) {
+                return isThrottledOrTimedOut(clientError);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cancelled by the caller, for example the losing request of a hedge: says
+     * nothing about the function's health, so it is neither failure nor success
+     */
+    public static boolean isCancellation(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isThrottledOrTimedOut(HttpClientErrorException error) {
+        int status = error.getStatusCode().value();
+        return status == 408 || status == 429;
+    }
+}
@@ -0,0 +1,142 @@
+package com.fc.serverless.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second request for a call that is slower than usual and takes
+ * whichever response arrives first, cancelling the other.
+ *
+ * The hedge delay tracks a latency percentile of recent successful calls, so
+ * only the slow tail (e.g. a cold start) is hedged, and a budget caps hedges to
+ * a fraction of calls. A failure is only reported once no request is left in flight.
+ */
+public class RequestHedger {
+
+    // Calls to observe before the percentile replaces hedge.initialDelay
+    private static final int MIN_SAMPLES = 20;
+
+    private final HedgeSettings settings;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final LatencyTracker latencies;
+    private final CallBudget budget;
+    private final HedgeStats stats;
+
+    /**
+     * @param scheduler fires the hedge timers
+     * @param executor builds and sends the hedged requests, so serialization and
+     *                 signing never hold up the shared timer thread
+     */
+    public RequestHedger(HedgeSettings settings, ScheduledExecutorService scheduler, Executor executor) {
+        this.settings = settings;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.latencies = new LatencyTracker(settings.getPercentile(), MIN_SAMPLES);
+        this.budget = new CallBudget(settings.getMaxRate(), settings.getBurst());
+        this.stats = new HedgeStats(() -> TimeUnit.NANOSECONDS.toMillis(delayNanos()));
+    }
+
+    public <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> call) {
+        stats.recordCall();
+        budget.recordCall();
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger inFlight = new AtomicInteger(1);
+        CompletableFuture<T> primary = send(call);
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (!budget.tryAcquire()) {
+                stats.recordDenied();
+                return;
+            }
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> hedge(call, result, inFlight, primary));
+            } catch (RejectedExecutionException e) {
+                // Shutting down: send it from the timer rather than leave the call waiting on it
+                hedge(call, result, inFlight, primary);
+            }
+        }, delayNanos(), TimeUnit.NANOSECONDS);
+
+        primary.whenComplete((value, error) -> complete(result, inFlight, value, error, null, false));
+        result.whenComplete((value, error) -> {
+            timer.cancel(false);
+            primary.cancel(true);
+        });
+        return result;
+    }
+
+    private <T> void hedge(Supplier<CompletableFuture<T>> call, CompletableFuture<T> result,
+                           AtomicInteger inFlight, CompletableFuture<T> primary) {
+        if (result.isDone()) {
+            return;
+        }
+        stats.recordHedge();
+        CompletableFuture<T> hedge = send(call);
+        hedge.whenComplete((value, error) -> complete(result, inFlight, value, error, primary, true));
+        // The caller gave up, or the primary won in the meantime
+        result.whenComplete((value, error) -> hedge.cancel(true));
+    }
+
+    /**
+     * First success wins; a failure only ends the call when no other request is pending
+     */
+    private <T> void complete(CompletableFuture<T> result, AtomicInteger inFlight, T value, Throwable error,
+                              CompletableFuture<T> loser, boolean hedge) {
+        if (error == null) {
+            if (result.complete(value)) {
+                if (hedge) {
+                    stats.recordWin();
+                }
+                if (loser != null) {
+                    loser.cancel(true);
+                }
+            }
+        } else if (inFlight.decrementAndGet() == 0) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Send one request, recording its latency when it succeeds
+     */
+    private <T> CompletableFuture<T> send(Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                latencies.record(System.nanoTime() - start);
+            }
+        });
+        return future;
+    }
+
+    private long delayNanos() {
+        long percentile = latencies.getPercentileNanos();
+        long delay = percentile < 0 ? settings.getInitialDelay().toNanos() : percentile;
+        return Math.max(delay, settings.getMinDelay().toNanos());
+    }
+
+    public Duration getDelay() {
+        return Duration.ofNanos(delayNanos());
+    }
+
+    public HedgeStats getStats() {
+        return stats;
+    }
+}
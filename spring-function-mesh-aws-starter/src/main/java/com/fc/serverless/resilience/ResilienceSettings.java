@@ -0,0 +1,121 @@
+package com.fc.serverless.resilience;
+
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker and retry settings, resolved from fc.functions.{name}.circuitBreaker.*
+ * and fc.functions.{name}.retry.*
+ *
+ * The breaker is off by default. When enabled it opens when, over the last windowSize calls
+ * (and at least minimumCalls), the failure rate or the rate of calls slower than
+ * slowCallDuration reaches its threshold. Retries only apply to idempotent
+ * functions, where they default to 3 attempts.
+ */
+public class ResilienceSettings {
+
+    private static final Log log = LogFactory.getLog(ResilienceSettings.class);
+
+    public static final int DEFAULT_IDEMPOTENT_MAX_ATTEMPTS = 3;
+
+    private final boolean circuitBreakerEnabled;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final Duration slowCallDuration;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double budgetRatio;
+    private final int budgetBurst;
+
+    public ResilienceSettings(boolean circuitBreakerEnabled, int failureRateThreshold, int slowCallRateThreshold,
+                              Duration slowCallDuration, int windowSize, int minimumCalls, Duration openDuration,
+                              int halfOpenCalls, int maxAttempts, Duration initialBackoff, Duration maxBackoff,
+                              double budgetRatio, int budgetBurst) {
+        this.circuitBreakerEnabled = circuitBreakerEnabled;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDuration = slowCallDuration;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.budgetRatio = budgetRatio;
+        this.budgetBurst = budgetBurst;
+    }
+
+    public static ResilienceSettings resolve(String functionName, boolean idempotent, Environment environment,
+                                             EnvironmentPropertyResolver resolver) {
+        int maxAttempts = resolver.resolveInt(functionName, "retry.maxAttempts",
+                idempotent ? DEFAULT_IDEMPOTENT_MAX_ATTEMPTS : 1, environment);
+        if (maxAttempts > 1 && !idempotent) {
+            log.warn("⚠️ FC Framework: retry.maxAttempts ignored for " + functionName +
+                    ": only idempotent functions are retried");
+            maxAttempts = 1;
+        }
+
+        return new ResilienceSettings(
+                resolver.resolveBoolean(functionName, "circuitBreaker.enabled", false, environment),
+                resolver.resolveInt(functionName, "circuitBreaker.failureRateThreshold", 50, environment),
+                resolver.resolveInt(functionName, "circuitBreaker.slowCallRateThreshold", 80, environment),
+                resolver.resolveDuration(functionName, "circuitBreaker.slowCallDuration", Duration.ofSeconds(10), environment),
+                resolver.resolveInt(functionName, "circuitBreaker.windowSize", 50, environment),
+                resolver.resolveInt(functionName, "circuitBreaker.minimumCalls", 20, environment),
+                resolver.resolveDuration(functionName, "circuitBreaker.openDuration", Duration.ofSeconds(10), environment),
+                resolver.resolveInt(functionName, "circuitBreaker.halfOpenCalls", 5, environment),
+                Math.max(1, maxAttempts),
+                resolver.resolveDuration(functionName, "retry.initialBackoff", Duration.ofMillis(50), environment),
+                resolver.resolveDuration(functionName, "retry.maxBackoff", Duration.ofSeconds(1), environment),
+                resolver.resolveDouble(functionName, "retry.budgetRatio", 0.2, environment),
+                resolver.resolveInt(functionName, "retry.budgetBurst", 10, environment));
+    }
+
+    CircuitBreakerConfig toCircuitBreakerConfig() {
+        return CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(windowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(openDuration)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .recordException(RemoteFailures::isFailure)
+                .ignoreException(RemoteFailures::isCancellation)
+                .build();
+    }
+
+    public boolean isCircuitBreakerEnabled() { return circuitBreakerEnabled; }
+    public boolean isRetryEnabled() { return maxAttempts > 1; }
+    public boolean isEnabled() { return circuitBreakerEnabled || isRetryEnabled(); }
+    public int getMaxAttempts() { return maxAttempts; }
+    public Duration getInitialBackoff() { return initialBackoff; }
+    public Duration getMaxBackoff() { return maxBackoff; }
+    public double getBudgetRatio() { return budgetRatio; }
+    public int getBudgetBurst() { return budgetBurst; }
+
+    @Override
+    public String toString() {
+        return "ResilienceSettings{circuitBreaker=" + (circuitBreakerEnabled
+                ? "{failureRate=" + failureRateThreshold + "%, slowCallRate=" + slowCallRateThreshold + "% over " +
+                slowCallDuration + ", window=" + windowSize + ", minimumCalls=" + minimumCalls +
+                ", openDuration=" + openDuration + "}"
+                : "off") +
+                ", retry=" + (isRetryEnabled()
+                ? "{maxAttempts=" + maxAttempts + ", backoff=" + initialBackoff + ".." + maxBackoff +
+                ", budgetRatio=" + budgetRatio + ", budgetBurst=" + budgetBurst + "}"
+                : "off") + "}";
+    }
+}
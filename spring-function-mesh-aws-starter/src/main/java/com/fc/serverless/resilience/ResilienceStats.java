@@ -0,0 +1,82 @@
+package com.fc.serverless.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker state and retry counters for a remote function
+ */
+public class ResilienceStats {
+
+    private final CircuitBreaker circuitBreaker;
+    private final CallBudget retryBudget;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder retriesDenied = new LongAdder();
+
+    ResilienceStats(CircuitBreaker circuitBreaker, CallBudget retryBudget) {
+        this.circuitBreaker = circuitBreaker;
+        this.retryBudget = retryBudget;
+    }
+
+    void recordRetry() { retries.increment(); }
+    void recordRetryDenied() { retriesDenied.increment(); }
+
+    /**
+     * CLOSED, OPEN, HALF_OPEN (or another Resilience4j state), DISABLED without a breaker
+     */
+    public String getState() {
+        return circuitBreaker == null ? "DISABLED" : circuitBreaker.getState().name();
+    }
+
+    /**
+     * Failure rate over the sliding window in percent, -1 until minimumCalls calls were made
+     */
+    public float getFailureRate() {
+        return circuitBreaker == null ? -1 : circuitBreaker.getMetrics().getFailureRate();
+    }
+
+    /**
+     * Slow call rate over the sliding window in percent, -1 until minimumCalls calls were made
+     */
+    public float getSlowCallRate() {
+        return circuitBreaker == null ? -1 : circuitBreaker.getMetrics().getSlowCallRate();
+    }
+
+    public long getBufferedCalls() {
+        return circuitBreaker == null ? 0 : circuitBreaker.getMetrics().getNumberOfBufferedCalls();
+    }
+
+    public long getFailedCalls() {
+        return circuitBreaker == null ? 0 : circuitBreaker.getMetrics().getNumberOfFailedCalls();
+    }
+
+    public long getSlowCalls() {
+        return circuitBreaker == null ? 0 : circuitBreaker.getMetrics().getNumberOfSlowCalls();
+    }
+
+    /**
+     * Calls rejected without being sent because the breaker was open
+     */
+    public long getNotPermittedCalls() {
+        return circuitBreaker == null ? 0 : circuitBreaker.getMetrics().getNumberOfNotPermittedCalls();
+    }
+
+    public long getRetries() { return retries.sum(); }
+
+    /**
+     * Retries skipped because the retry budget was exhausted
+     */
+    public long getRetriesDenied() { return retriesDenied.sum(); }
+
+    public double getRetryBudgetTokens() {
+        return retryBudget == null ? 0 : retryBudget.getTokens();
+    }
+
+    @Override
+    public String toString() {
+        return "ResilienceStats{state=" + getState() + ", failureRate=" + getFailureRate() +
+                ", slowCallRate=" + getSlowCallRate() + ", notPermittedCalls=" + getNotPermittedCalls() +
+                ", retries=" + getRetries() + ", retriesDenied=" + getRetriesDenied() + "}";
+    }
+}
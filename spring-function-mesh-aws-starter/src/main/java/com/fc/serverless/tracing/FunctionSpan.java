@@ -0,0 +1,36 @@
+package com.fc.serverless.tracing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One finished hop: a remote call made by a proxy (CLIENT) or a request handled
+ * by an exported function (SERVER)
+ *
+ * @param context          trace context of the span, holding its span and parent span ids
+ * @param startEpochMicros wall-clock start
+ * @param durationNanos    elapsed time, measured with the monotonic clock
+ * @param error            the failure, or null
+ */
+public record FunctionSpan(Kind kind, String functionName, TraceContext context, long startEpochMicros,
+                           long durationNanos, Throwable error) {
+
+    public enum Kind {
+        CLIENT,
+        SERVER
+    }
+
+    public static long nowEpochMicros() {
+        return TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    }
+
+    @Override
+    public String toString() {
+        return kind.name().toLowerCase() + " " + functionName
+                + " " + String.format("%.3fms", durationNanos / 1_000_000.0)
+                + " trace=" + context.getTraceId()
+                + " span=" + context.getSpanId()
+                + " parent=" + (context.getParentSpanId() != null ? context.getParentSpanId() : "-")
+                + " chain=" + context.getCallChain()
+                + (error != null ? " error=" + error.getClass().getSimpleName() : "");
+    }
+}
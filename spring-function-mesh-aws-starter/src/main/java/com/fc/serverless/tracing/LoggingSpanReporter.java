@@ -0,0 +1,22 @@
+package com.fc.serverless.tracing;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Logs one line per span, enabled with logging.level.com.fc.serverless.tracing=DEBUG
+ */
+public class LoggingSpanReporter implements SpanReporter {
+
+    private static final Log log = LogFactory.getLog(LoggingSpanReporter.class);
+
+    @Override
+    public boolean isEnabled() {
+        return log.isDebugEnabled();
+    }
+
+    @Override
+    public void report(FunctionSpan span) {
+        log.debug("🧵 FC Framework: span " + span);
+    }
+}
@@ -0,0 +1,20 @@
+package com.fc.serverless.tracing;
+
+/**
+ * Receives the spans recorded at each hop. Define a bean of this type to send
+ * them to a tracing backend; by default they are logged at debug level.
+ */
+public interface SpanReporter {
+
+    SpanReporter NOOP = span -> {
+    };
+
+    /**
+     * Whether spans are wanted at all; hops skip timing and building spans otherwise
+     */
+    default boolean isEnabled() {
+        return this != NOOP;
+    }
+
+    void report(FunctionSpan span);
+}
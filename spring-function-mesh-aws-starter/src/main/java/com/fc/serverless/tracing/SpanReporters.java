@@ -0,0 +1,24 @@
+package com.fc.serverless.tracing;
+
+/**
+ * The span reporter used by proxies, exported endpoints and the Lambda handler.
+ *
+ * A single reporter per JVM, since the Lambda handler runs outside the
+ * application context; the starter installs the context's SpanReporter bean
+ * once the context has started.
+ */
+public final class SpanReporters {
+
+    private static volatile SpanReporter global = new LoggingSpanReporter();
+
+    private SpanReporters() {
+    }
+
+    public static SpanReporter global() {
+        return global;
+    }
+
+    public static void setGlobal(SpanReporter reporter) {
+        global = reporter != null ? reporter : SpanReporter.NOOP;
+    }
+}
@@ -0,0 +1,185 @@
+package com.fc.serverless.tracing;
+
+import com.fc.serverless.checkpoint.InstanceRandom;
+import org.springframework.http.HttpHeaders;
+
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Trace context of one hop: a W3C trace context (traceparent/tracestate) plus
+ * the FC call chain, the functions the request has passed through so far, e.g.
+ * {@code orderProcessor>priceCalculator>configSupplier}.
+ *
+ * Immutable; each remote call and each handled request gets its own span id.
+ */
+public final class TraceContext {
+
+    public static final String TRACEPARENT_HEADER = "traceparent";
+    public static final String TRACESTATE_HEADER = "tracestate";
+    public static final String CALL_CHAIN_HEADER = "X-FC-Call-Chain";
+
+    static final String CHAIN_SEPARATOR = ">";
+
+    /**
+     * Longer chains keep their tail, so a call loop cannot grow the header without bound
+     */
+    static final int MAX_CHAIN_LENGTH = 512;
+
+    private static final String VERSION = "00";
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final boolean sampled;
+    private final String traceState;
+    private final String callChain;
+
+    private TraceContext(String traceId, String spanId, String parentSpanId, boolean sampled,
+                         String traceState, String callChain) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.sampled = sampled;
+        this.traceState = traceState;
+        this.callChain = callChain;
+    }
+
+    /**
+     * Context for a call to the given function: a child of the parent, or the
+     * start of a new trace when there is no parent
+     */
+    public static TraceContext forCall(TraceContext parent, String functionName) {
+        if (parent == null) {
+            return new TraceContext(newTraceId(), newSpanId(), null, true, null, functionName);
+        }
+        return new TraceContext(parent.traceId, newSpanId(), parent.spanId, parent.sampled, parent.traceState,
+                appendToChain(parent.callChain, functionName));
+    }
+
+    /**
+     * Context for handling a request to the given function, continuing the
+     * caller's trace when the request carries a valid traceparent
+     *
+     * @param headers looks up a request header by name
+     */
+    public static TraceContext extract(Function<String, String> headers, String functionName) {
+        String chain = headers.apply(CALL_CHAIN_HEADER);
+        if (chain == null || chain.isBlank()) {
+            chain = functionName;
+        } else if (chain.length() > MAX_CHAIN_LENGTH) {
+            chain = trimChain(chain);
+        }
+
+        String traceparent = headers.apply(TRACEPARENT_HEADER);
+        if (!isValid(traceparent)) {
+            return new TraceContext(newTraceId(), newSpanId(), null, true, null, chain);
+        }
+        // 00-{trace-id}-{parent-id}-{flags}
+        String traceId = traceparent.substring(3, 35);
+        String parentSpanId = traceparent.substring(36, 52);
+        boolean sampled = (Character.digit(traceparent.charAt(54), 16) & 1) == 1;
+        return new TraceContext(traceId, newSpanId(), parentSpanId, sampled, headers.apply(TRACESTATE_HEADER), chain);
+    }
+
+    /**
+     * Add this context to an outgoing request
+     */
+    public void inject(HttpHeaders headers) {
+        headers.set(TRACEPARENT_HEADER, getTraceparent());
+        if (traceState != null) {
+            headers.set(TRACESTATE_HEADER, traceState);
+        }
+        headers.set(CALL_CHAIN_HEADER, callChain);
+    }
+
+    public String getTraceparent() {
+        return VERSION + "-" + traceId + "-" + spanId + "-" + (sampled ? "01" : "00");
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Span id of the caller, or null at the start of a trace
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public String getTraceState() {
+        return traceState;
+    }
+
+    public String getCallChain() {
+        return callChain;
+    }
+
+    private static boolean isValid(String traceparent) {
+        if (traceparent == null || traceparent.length() < 55 || !traceparent.startsWith(VERSION + "-")
+                || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-'
+                || (traceparent.length() > 55 && traceparent.charAt(55) != '-')) {
+            return false;
+        }
+        return isHex(traceparent, 3, 35) && isHex(traceparent, 36, 52) && isHex(traceparent, 53, 55)
+                && !isZero(traceparent, 3, 35) && !isZero(traceparent, 36, 52);
+    }
+
+    private static boolean isHex(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String appendToChain(String chain, String functionName) {
+        String appended = chain == null || chain.isEmpty() ? functionName : chain + CHAIN_SEPARATOR + functionName;
+        return appended.length() > MAX_CHAIN_LENGTH ? trimChain(appended) : appended;
+    }
+
+    private static String trimChain(String chain) {
+        String tail = chain.substring(chain.length() - MAX_CHAIN_LENGTH);
+        int separator = tail.indexOf(CHAIN_SEPARATOR);
+        return "..." + (separator >= 0 ? tail.substring(separator) : CHAIN_SEPARATOR + tail);
+    }
+
+    private static String newTraceId() {
+        SplittableRandom random = InstanceRandom.current();
+        return hex(random.nextLong() | 1L) + hex(random.nextLong());
+    }
+
+    private static String newSpanId() {
+        return hex(InstanceRandom.current().nextLong() | 1L);
+    }
+
+    private static String hex(long value) {
+        String hex = Long.toHexString(value);
+        return hex.length() == 16 ? hex : "0".repeat(16 - hex.length()) + hex;
+    }
+
+    @Override
+    public String toString() {
+        return "TraceContext{traceparent=" + getTraceparent() + ", callChain=" + callChain + "}";
+    }
+}
@@ -0,0 +1,67 @@
+package com.fc.serverless.tracing;
+
+import java.util.function.Supplier;
+
+/**
+ * The trace context of the request the current thread is handling.
+ *
+ * Exported endpoints and the Lambda handler set it for the duration of the
+ * function call, and remote function proxies read it to continue the trace.
+ * Work handed to other threads does not see it unless it is passed along:
+ *
+ * <pre>
+ * TraceContext trace = TraceContextHolder.current();
+ * executor.submit(() -> TraceContextHolder.run(trace, () -> auditLog.accept(event)));
+ * </pre>
+ */
+public final class TraceContextHolder {
+
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    private TraceContextHolder() {
+    }
+
+    public static <T> T call(TraceContext context, Supplier<T> action) {
+        try (Scope scope = open(context)) {
+            return action.get();
+        }
+    }
+
+    public static void run(TraceContext context, Runnable action) {
+        call(context, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Make the context current until the returned scope is closed, for code that
+     * cannot be wrapped in a lambda
+     */
+    public static Scope open(TraceContext context) {
+        TraceContext previous = CURRENT.get();
+        set(context);
+        return () -> set(previous);
+    }
+
+    private static void set(TraceContext context) {
+        if (context == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+    }
+
+    /**
+     * The context of the current request, or null outside of one
+     */
+    public static TraceContext current() {
+        return CURRENT.get();
+    }
+
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,26 @@
+package com.fc.serverless.tracing;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Trace context propagation and span reporting; turned off with fc.tracing.enabled=false
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "fc.tracing", name = "enabled", matchIfMissing = true)
+public class TracingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(SpanReporter.class)
+    public SpanReporter spanReporter() {
+        return new LoggingSpanReporter();
+    }
+
+    @Bean
+    public SmartInitializingSingleton globalSpanReporter(SpanReporter spanReporter) {
+        return () -> SpanReporters.setGlobal(spanReporter);
+    }
+}
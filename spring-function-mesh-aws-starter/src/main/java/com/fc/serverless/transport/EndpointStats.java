@@ -0,0 +1,123 @@
+package com.fc.serverless.transport;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load and health of one endpoint of a load-balanced function.
+ *
+ * Latency is a peak-sensitive moving average: a slower response is taken at
+ * once, faster ones pull the average down gradually, so a slow region loses
+ * traffic quickly and wins it back only once it stays fast.
+ */
+public class EndpointStats {
+
+    private final String url;
+    private final long decayNanos;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder ejections = new LongAdder();
+
+    // Guarded by this
+    private double latencyNanos;
+    private long lastUpdateNanos;
+    private int consecutiveFailures;
+    private int timesEjected;
+    private volatile long ejectedUntilNanos;
+
+    EndpointStats(String url, long decayNanos) {
+        this.url = url;
+        this.decayNanos = Math.max(1, decayNanos);
+    }
+
+    void start() {
+        outstanding.incrementAndGet();
+        requests.increment();
+    }
+
+    synchronized void recordSuccess(long elapsedNanos) {
+        outstanding.decrementAndGet();
+        consecutiveFailures = 0;
+        timesEjected = 0;
+        observe(elapsedNanos);
+    }
+
+    /**
+     * @return whether the endpoint reached the consecutive failure threshold
+     */
+    synchronized boolean recordFailure(long elapsedNanos, int ejectAfter) {
+        outstanding.decrementAndGet();
+        failures.increment();
+        // A fast failure such as a refused connection must not make the endpoint look attractive
+        observe(Math.max(elapsedNanos, (long) (latencyNanos * 2)));
+        return ++consecutiveFailures >= ejectAfter;
+    }
+
+    /**
+     * A call that ended without a verdict on the endpoint, e.g. cancelled or rejected as a bad request
+     */
+    void recordNeutral() {
+        outstanding.decrementAndGet();
+    }
+
+    synchronized void eject(long baseDurationNanos, long now) {
+        timesEjected++;
+        consecutiveFailures = 0;
+        ejections.increment();
+        ejectedUntilNanos = now + baseDurationNanos * Math.min(timesEjected, 10);
+    }
+
+    boolean isEjected(long now) {
+        return ejectedUntilNanos - now > 0;
+    }
+
+    /**
+     * Expected wait for a new request: latency scaled by the requests already queued
+     *
+     * @param fallbackNanos latency assumed for an endpoint that has not answered yet
+     */
+    synchronized double cost(double fallbackNanos, long now) {
+        double latency = latencyNanos > 0 ? decayed(now) : fallbackNanos;
+        return latency * (outstanding.get() + 1);
+    }
+
+    synchronized double getLatencyNanos(long now) {
+        return latencyNanos > 0 ? decayed(now) : 0;
+    }
+
+    private void observe(long sampleNanos) {
+        long now = System.nanoTime();
+        if (latencyNanos <= 0 || sampleNanos > latencyNanos) {
+            latencyNanos = sampleNanos;
+        } else {
+            double weight = Math.exp(-(double) (now - lastUpdateNanos) / decayNanos);
+            latencyNanos = latencyNanos * weight + sampleNanos * (1 - weight);
+        }
+        lastUpdateNanos = now;
+    }
+
+    // An endpoint that stopped getting traffic after a slow response is tried again once the peak fades
+    private double decayed(long now) {
+        return latencyNanos * Math.exp(-(double) Math.max(0, now - lastUpdateNanos) / decayNanos);
+    }
+
+    public String getUrl() { return url; }
+    public int getOutstanding() { return outstanding.get(); }
+    public long getRequests() { return requests.sum(); }
+    public long getFailures() { return failures.sum(); }
+    public long getEjections() { return ejections.sum(); }
+    public boolean isEjected() { return isEjected(System.nanoTime()); }
+
+    public double getLatencyMillis() {
+        return getLatencyNanos(System.nanoTime()) / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointStats{url=" + url + ", outstanding=" + getOutstanding() + ", requests=" + getRequests() +
+                ", failures=" + getFailures() + ", ejections=" + getEjections() + ", ejected=" + isEjected() +
+                ", latencyMillis=" + String.format("%.1f", getLatencyMillis()) + "}";
+    }
+}
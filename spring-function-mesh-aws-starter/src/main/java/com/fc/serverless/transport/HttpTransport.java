@@ -0,0 +1,150 @@
+package com.fc.serverless.transport;
+
+import com.fc.serverless.auth.AwsIamRequestSigner;
+import com.fc.serverless.auth.SigningTarget;
+import com.fc.serverless.metrics.RemoteCallMetrics;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * POSTs calls to the function's URL: a Lambda Function URL, or the endpoint a
+ * Spring Cloud Function application exports. Batches go to the URL's /batch path.
+ *
+ * Blocking calls use the pooled RestTemplate and decode straight from the
+ * connection; async calls use the non-blocking client.
+ */
+public class HttpTransport implements RemoteTransport {
+
+    private static final Log log = LogFactory.getLog(HttpTransport.class);
+
+    private final String url;
+    private final String batchUrl;
+    private final RestTemplate restTemplate;
+    private final HttpClient asyncClient;
+    private final Duration timeout;
+    private final AwsIamRequestSigner iamSigner;
+    private final SigningTarget signingTarget;
+    private final SigningTarget batchSigningTarget;
+    private final RemoteCallMetrics metrics;
+
+    public HttpTransport(String url, String batchUrl, RestTemplate restTemplate, HttpClient asyncClient,
+                         Duration timeout, AwsIamRequestSigner iamSigner) {
+        this(url, batchUrl, restTemplate, asyncClient, timeout, iamSigner, RemoteCallMetrics.NOOP);
+    }
+
+    /**
+     * @param asyncClient non-blocking client, may be null when only blocking calls are made
+     * @param iamSigner   signs every request with SigV4, or null for unauthenticated URLs
+     * @param metrics     records signing and network time
+     */
+    public HttpTransport(String url, String batchUrl, RestTemplate restTemplate, HttpClient asyncClient,
+                         Duration timeout, AwsIamRequestSigner iamSigner, RemoteCallMetrics metrics) {
+        this.url = url;
+        this.batchUrl = batchUrl;
+        this.restTemplate = restTemplate;
+        this.asyncClient = asyncClient;
+        this.timeout = timeout;
+        this.iamSigner = iamSigner;
+        // Region, host and canonical path are resolved once rather than on every signature
+        this.signingTarget = iamSigner != null ? iamSigner.target(url) : null;
+        this.batchSigningTarget = iamSigner != null ? iamSigner.target(batchUrl) : null;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> T exchange(TransportRequest request, ResponseHandler<T> handler) {
+        byte[] body = request.body();
+        HttpHeaders requestHeaders = sign(request);
+        long sent = metrics.isEnabled() ? System.nanoTime() : 0;
+
+        // The same bytes that were signed are written to the connection
+        return restTemplate.execute(request.batch() ? batchUrl : url, HttpMethod.POST,
+                httpRequest -> {
+                    httpRequest.getHeaders().putAll(requestHeaders);
+                    if (body != null) {
+                        httpRequest.getHeaders().setContentLength(body.length);
+                        if (httpRequest instanceof StreamingHttpOutputMessage streaming) {
+                            // Write straight to the connection instead of an intermediate buffer
+                            streaming.setBody(new StreamingHttpOutputMessage.Body() {
+                                @Override
+                                public void writeTo(OutputStream out) throws IOException {
+                                    out.write(body);
+                                }
+
+                                @Override
+                                public boolean repeatable() {
+                                    return true;
+                                }
+                            });
+                        } else {
+                            httpRequest.getBody().write(body);
+                        }
+                    }
+                },
+                response -> {
+                    if (metrics.isEnabled()) {
+                        metrics.recordNetwork(System.nanoTime() - sent);
+                    }
+                    log.debug("📥 FC Response status: " + response.getStatusCode());
+                    MediaType contentType = response.getHeaders().getContentType();
+                    return handler.handle(new TransportResponse(response.getBody(),
+                            contentType == null ? null : contentType.toString(),
+                            response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)));
+                });
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> exchangeAsync(TransportRequest request) {
+        if (asyncClient == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("FC Framework: No async HTTP client for " + url));
+        }
+        try {
+            HttpHeaders headers = sign(request);
+            long sent = metrics.isEnabled() ? System.nanoTime() : 0;
+            CompletableFuture<HttpResponse<byte[]>> exchange = asyncClient.sendAsync(
+                    JdkHttpExchange.post(request.batch() ? batchUrl : url, request.body(), headers, timeout),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            return JdkHttpExchange.cancelling(exchange.thenApply(response -> {
+                if (metrics.isEnabled()) {
+                    metrics.recordNetwork(System.nanoTime() - sent);
+                }
+                log.debug("📥 FC Response status: " + response.statusCode());
+                JdkHttpExchange.checkStatus(response);
+                return JdkHttpExchange.toResponse(response);
+            }), exchange);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private HttpHeaders sign(TransportRequest request) {
+        if (iamSigner == null) {
+            return request.headers();
+        }
+        log.debug("🔐 Applying AWS IAM authentication");
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        HttpHeaders signed = iamSigner.sign(request.batch() ? batchSigningTarget : signingTarget, HttpMethod.POST,
+                request.headers(), request.body());
+        if (metrics.isEnabled()) {
+            metrics.recordSigning(System.nanoTime() - start);
+        }
+        return signed;
+    }
+
+    @Override
+    public String getEndpoint() {
+        return url;
+    }
+}
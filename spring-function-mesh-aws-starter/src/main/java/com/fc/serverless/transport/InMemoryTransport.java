@@ -0,0 +1,98 @@
+package com.fc.serverless.transport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.function.context.FunctionCatalog;
+import org.springframework.cloud.function.context.catalog.SimpleFunctionRegistry.FunctionInvocationWrapper;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Hands the encoded call to a function registered in this application's
+ * FunctionCatalog, the way an exported endpoint would, without a network hop.
+ *
+ * Unlike the in-process short-circuit, input and result still go through JSON
+ * and Spring Cloud Function's message conversion, so tests and local runs see the
+ * same serialization behaviour as a deployed mesh.
+ */
+public class InMemoryTransport implements RemoteTransport {
+
+    private final String functionName;
+    private final ObjectProvider<FunctionCatalog> functionCatalog;
+    private final ObjectMapper objectMapper;
+
+    public InMemoryTransport(String functionName, ObjectProvider<FunctionCatalog> functionCatalog, ObjectMapper objectMapper) {
+        this.functionName = functionName;
+        this.functionCatalog = functionCatalog;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public <T> T exchange(TransportRequest request, ResponseHandler<T> handler) throws IOException {
+        return handler.handle(dispatch(request));
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> exchangeAsync(TransportRequest request) {
+        try {
+            return CompletableFuture.completedFuture(dispatch(request));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private TransportResponse dispatch(TransportRequest request) throws IOException {
+        if (request.batch()) {
+            throw new UnsupportedOperationException("FC Framework: Batching is not supported by the in-memory transport");
+        }
+        FunctionCatalog catalog = functionCatalog == null ? null : functionCatalog.getIfAvailable();
+        FunctionInvocationWrapper function = catalog == null ? null
+                : catalog.lookup(functionName, MimeTypeUtils.APPLICATION_JSON_VALUE);
+        if (function == null) {
+            throw new IllegalStateException("FC Framework: No function named " + functionName +
+                    " in this application for the in-memory transport");
+        }
+
+        Object result;
+        if (function.isSupplier()) {
+            result = function.get();
+        } else {
+            byte[] body = request.body() != null ? request.body() : new byte[0];
+            result = function.apply(MessageBuilder.withPayload(body)
+                    .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON_VALUE)
+                    .build());
+        }
+        return new TransportResponse(new ByteArrayInputStream(toBytes(result)), MimeTypeUtils.APPLICATION_JSON_VALUE, null);
+    }
+
+    private byte[] toBytes(Object result) throws IOException {
+        Object payload = result instanceof Message<?> message ? message.getPayload() : result;
+        if (payload == null) {
+            return new byte[0];
+        }
+        if (payload instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (payload instanceof String text) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+        return objectMapper.writeValueAsBytes(payload);
+    }
+
+    @Override
+    public boolean supportsContentNegotiation() {
+        return false;
+    }
+
+    @Override
+    public String getEndpoint() {
+        return "in-memory:" + functionName;
+    }
+}
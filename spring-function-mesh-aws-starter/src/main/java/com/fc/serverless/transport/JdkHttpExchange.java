@@ -0,0 +1,75 @@
+package com.fc.serverless.transport;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Request building and status handling shared by transports on the JDK HttpClient
+ */
+final class JdkHttpExchange {
+
+    // Headers the JDK HttpClient sets itself and refuses to accept from callers
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private JdkHttpExchange() {
+    }
+
+    static HttpRequest post(String url, byte[] body, HttpHeaders headers, Duration timeout) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .POST(body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        headers.forEach((name, values) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> request.header(name, value));
+            }
+        });
+        return request.build();
+    }
+
+    /**
+     * Mirror RestTemplate's default error handling
+     */
+    static void checkStatus(HttpResponse<byte[]> response) {
+        HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+        if (status.is4xxClientError()) {
+            throw HttpClientErrorException.create(status, status.toString(), HttpHeaders.EMPTY,
+                    response.body(), StandardCharsets.UTF_8);
+        }
+        if (status.is5xxServerError()) {
+            throw HttpServerErrorException.create(status, status.toString(), HttpHeaders.EMPTY,
+                    response.body(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Cancelling the derived future aborts the exchange it was derived from,
+     * so a hedged request that lost does not keep its connection busy
+     */
+    static <T> CompletableFuture<T> cancelling(CompletableFuture<T> derived, CompletableFuture<?> exchange) {
+        derived.whenComplete((value, error) -> {
+            if (derived.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return derived;
+    }
+
+    static TransportResponse toResponse(HttpResponse<byte[]> response) {
+        return new TransportResponse(new ByteArrayInputStream(response.body()),
+                response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null),
+                response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+    }
+}
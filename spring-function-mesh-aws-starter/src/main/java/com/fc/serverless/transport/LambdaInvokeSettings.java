@@ -0,0 +1,123 @@
+package com.fc.serverless.transport;
+
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.env.Environment;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lambda Invoke transport settings, resolved from fc.functions.{name}.lambda.*
+ *
+ * lambda.functionName defaults to the remote function's name and may be an ARN;
+ * lambda.endpoint overrides the regional Lambda API endpoint, e.g. to point at a
+ * local stand-in such as SAM local or the Lambda Runtime Interface Emulator.
+ */
+public class LambdaInvokeSettings {
+
+    private static final Log log = LogFactory.getLog(LambdaInvokeSettings.class);
+
+    private static final String DEFAULT_REGION = "us-east-1";
+
+    public enum InvocationType {
+        REQUEST_RESPONSE("RequestResponse"),
+        EVENT("Event");
+
+        private final String headerValue;
+
+        InvocationType(String headerValue) {
+            this.headerValue = headerValue;
+        }
+
+        public String getHeaderValue() {
+            return headerValue;
+        }
+    }
+
+    private final String functionName;
+    private final String qualifier;
+    private final String region;
+    private final String endpoint;
+    private final boolean customEndpoint;
+    private final InvocationType invocationType;
+
+    public LambdaInvokeSettings(String functionName, String qualifier, String region, String endpoint,
+                                InvocationType invocationType) {
+        this.functionName = functionName;
+        this.qualifier = qualifier;
+        this.region = region;
+        this.customEndpoint = endpoint != null;
+        this.endpoint = endpoint != null ? stripTrailingSlash(endpoint) : "https://lambda." + region + ".amazonaws.com";
+        this.invocationType = invocationType;
+    }
+
+    /**
+     * @param oneWay whether the proxy has no result to wait for (a Consumer); only those may use Event
+     */
+    public static LambdaInvokeSettings resolve(String functionName, boolean oneWay, Environment environment,
+                                               EnvironmentPropertyResolver resolver) {
+        String target = resolver.resolveProperty(functionName, "lambda.functionName", environment);
+        target = target != null ? target.trim() : null;
+        String region = resolver.resolveProperty(functionName, "lambda.region", environment);
+        if (region == null && target != null && target.startsWith("arn:")) {
+            // arn:aws:lambda:{region}:{account}:function:{name}
+            String[] arn = target.split(":");
+            region = arn.length > 3 && !arn[3].isEmpty() ? arn[3] : null;
+        }
+        if (region == null) {
+            region = System.getenv("AWS_REGION") != null ? System.getenv("AWS_REGION") : DEFAULT_REGION;
+        }
+
+        InvocationType invocationType = InvocationType.REQUEST_RESPONSE;
+        String type = resolver.resolveProperty(functionName, "lambda.invocationType", environment);
+        if (type != null) {
+            String normalized = type.trim().replace("-", "").replace("_", "");
+            if (normalized.equalsIgnoreCase("Event")) {
+                invocationType = InvocationType.EVENT;
+            } else if (!normalized.equalsIgnoreCase("RequestResponse")) {
+                log.warn("⚠️ FC Framework: Unknown lambda.invocationType '" + type + "' for " + functionName +
+                        ", using RequestResponse");
+            }
+        }
+        if (invocationType == InvocationType.EVENT && !oneWay) {
+            log.warn("⚠️ FC Framework: Event invocation discards the result, " + functionName +
+                    " is not a Consumer so RequestResponse is used");
+            invocationType = InvocationType.REQUEST_RESPONSE;
+        }
+
+        return new LambdaInvokeSettings(
+                target != null ? target : functionName,
+                resolver.resolveProperty(functionName, "lambda.qualifier", environment),
+                region.trim(),
+                resolver.resolveProperty(functionName, "lambda.endpoint", environment),
+                invocationType);
+    }
+
+    /**
+     * Invoke API URL; the function name or ARN is a single path segment
+     */
+    public String getInvokeUrl() {
+        return endpoint + "/2015-03-31/functions/" + URLEncoder.encode(functionName, StandardCharsets.UTF_8) +
+                "/invocations" + (qualifier != null ? "?Qualifier=" + URLEncoder.encode(qualifier, StandardCharsets.UTF_8) : "");
+    }
+
+    private static String stripTrailingSlash(String value) {
+        String trimmed = value.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    public String getFunctionName() { return functionName; }
+    public String getQualifier() { return qualifier; }
+    public String getRegion() { return region; }
+    public String getEndpoint() { return endpoint; }
+    public boolean isCustomEndpoint() { return customEndpoint; }
+    public InvocationType getInvocationType() { return invocationType; }
+
+    @Override
+    public String toString() {
+        return "LambdaInvokeSettings{functionName=" + functionName + (qualifier != null ? ", qualifier=" + qualifier : "") +
+                ", region=" + region + ", endpoint=" + endpoint + ", invocationType=" + invocationType.getHeaderValue() + "}";
+    }
+}
@@ -0,0 +1,182 @@
+package com.fc.serverless.transport;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fc.serverless.auth.AwsIamRequestSigner;
+import com.fc.serverless.auth.SigningTarget;
+import com.fc.serverless.metrics.RemoteCallMetrics;
+import com.fc.serverless.tracing.TraceContext;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Calls the function through the Lambda Invoke API instead of its Function URL.
+ *
+ * The payload is the function's JSON input as-is and the response is its JSON
+ * result; Consumers may use the Event invocation type, which returns as soon as
+ * Lambda has queued the event. Invoke carries no custom headers, so batching,
+ * binary wire formats and compression are not available on this transport.
+ * Trace context travels in the client context of synchronous invocations.
+ */
+public class LambdaInvokeTransport implements RemoteTransport {
+
+    private static final Log log = LogFactory.getLog(LambdaInvokeTransport.class);
+
+    static final String INVOCATION_TYPE_HEADER = "X-Amz-Invocation-Type";
+    static final String FUNCTION_ERROR_HEADER = "X-Amz-Function-Error";
+    static final String CLIENT_CONTEXT_HEADER = "X-Amz-Client-Context";
+
+    /**
+     * Largest base64 client context Lambda accepts
+     */
+    private static final int MAX_CLIENT_CONTEXT = 3583;
+
+    private final LambdaInvokeSettings settings;
+    private final String invokeUrl;
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final AwsIamRequestSigner iamSigner;
+    private final SigningTarget signingTarget;
+    private final RemoteCallMetrics metrics;
+
+    public LambdaInvokeTransport(LambdaInvokeSettings settings, HttpClient httpClient, Duration timeout,
+                                 AwsIamRequestSigner iamSigner) {
+        this(settings, httpClient, timeout, iamSigner, RemoteCallMetrics.NOOP);
+    }
+
+    /**
+     * @param iamSigner signs requests with SigV4; may be null only for local stand-in endpoints
+     * @param metrics   records signing and network time
+     */
+    public LambdaInvokeTransport(LambdaInvokeSettings settings, HttpClient httpClient, Duration timeout,
+                                 AwsIamRequestSigner iamSigner, RemoteCallMetrics metrics) {
+        this.settings = settings;
+        this.invokeUrl = settings.getInvokeUrl();
+        this.httpClient = httpClient;
+        this.timeout = timeout;
+        this.iamSigner = iamSigner;
+        this.signingTarget = iamSigner != null ? iamSigner.target(invokeUrl, settings.getRegion()) : null;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> T exchange(TransportRequest request, ResponseHandler<T> handler) throws IOException {
+        HttpRequest httpRequest = buildRequest(request);
+        long sent = metrics.isEnabled() ? System.nanoTime() : 0;
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("FC Framework: Interrupted while invoking " + settings.getFunctionName());
+        }
+        if (metrics.isEnabled()) {
+            metrics.recordNetwork(System.nanoTime() - sent);
+        }
+        return handler.handle(toResponse(response));
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> exchangeAsync(TransportRequest request) {
+        try {
+            HttpRequest httpRequest = buildRequest(request);
+            long sent = metrics.isEnabled() ? System.nanoTime() : 0;
+            CompletableFuture<HttpResponse<byte[]>> exchange =
+                    httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+            return JdkHttpExchange.cancelling(exchange.thenApply(response -> {
+                if (metrics.isEnabled()) {
+                    metrics.recordNetwork(System.nanoTime() - sent);
+                }
+                return toResponse(response);
+            }), exchange);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private HttpRequest buildRequest(TransportRequest request) {
+        if (request.batch()) {
+            throw new UnsupportedOperationException("FC Framework: Batching is not supported by the Lambda Invoke transport");
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(INVOCATION_TYPE_HEADER, settings.getInvocationType().getHeaderValue());
+        String clientContext = clientContext(request.headers());
+        if (clientContext != null) {
+            headers.set(CLIENT_CONTEXT_HEADER, clientContext);
+        }
+        if (iamSigner != null) {
+            long start = metrics.isEnabled() ? System.nanoTime() : 0;
+            iamSigner.sign(signingTarget, HttpMethod.POST, headers, request.body());
+            if (metrics.isEnabled()) {
+                metrics.recordSigning(System.nanoTime() - start);
+            }
+        }
+        return JdkHttpExchange.post(invokeUrl, request.body(), headers, timeout);
+    }
+
+    /**
+     * Trace headers of the call as the "custom" client context, which Lambda only
+     * passes on for synchronous invocations
+     */
+    private String clientContext(HttpHeaders requestHeaders) {
+        if (requestHeaders == null || settings.getInvocationType() != LambdaInvokeSettings.InvocationType.REQUEST_RESPONSE) {
+            return null;
+        }
+        StringBuilder custom = new StringBuilder();
+        for (String name : List.of(TraceContext.TRACEPARENT_HEADER, TraceContext.TRACESTATE_HEADER, TraceContext.CALL_CHAIN_HEADER)) {
+            String value = requestHeaders.getFirst(name);
+            if (value != null) {
+                custom.append(custom.isEmpty() ? "" : ",").append('"').append(name.toLowerCase()).append("\":\"")
+                        .append(JsonStringEncoder.getInstance().quoteAsString(value)).append('"');
+            }
+        }
+        if (custom.isEmpty()) {
+            return null;
+        }
+        String encoded = Base64.getEncoder().encodeToString(
+                ("{\"custom\":{" + custom + "}}").getBytes(StandardCharsets.UTF_8));
+        return encoded.length() <= MAX_CLIENT_CONTEXT ? encoded : null;
+    }
+
+    /**
+     * An error raised by the function itself comes back as 200 with X-Amz-Function-Error set
+     */
+    private TransportResponse toResponse(HttpResponse<byte[]> response) {
+        log.debug("📥 FC Invoke status: " + response.statusCode());
+        JdkHttpExchange.checkStatus(response);
+        String functionError = response.headers().firstValue(FUNCTION_ERROR_HEADER).orElse(null);
+        if (functionError != null) {
+            throw new RuntimeException("FC Framework: Lambda function " + settings.getFunctionName() + " failed (" +
+                    functionError + "): " + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return JdkHttpExchange.toResponse(response);
+    }
+
+    @Override
+    public boolean supportsContentNegotiation() {
+        return false;
+    }
+
+    @Override
+    public String getEndpoint() {
+        return invokeUrl;
+    }
+
+    public LambdaInvokeSettings getSettings() {
+        return settings;
+    }
+}
@@ -0,0 +1,160 @@
+package com.fc.serverless.transport;
+
+import com.fc.serverless.checkpoint.InstanceRandom;
+import com.fc.serverless.resilience.RemoteFailures;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads a function's calls over several endpoints, e.g. Function URLs of
+ * replicas in different regions or of different aliases.
+ *
+ * Each call goes to the better of two randomly chosen endpoints, where better
+ * means a lower latency average scaled by outstanding requests. Endpoints are
+ * checked passively: one that keeps failing with connection errors, timeouts,
+ * throttling or 5xx is ejected for a while, and retries of a failed call
+ * naturally land elsewhere.
+ */
+public class LoadBalancedTransport implements RemoteTransport {
+
+    private static final Log log = LogFactory.getLog(LoadBalancedTransport.class);
+
+    private final String functionName;
+    private final List<RemoteTransport> endpoints;
+    private final List<EndpointStats> stats;
+    private final LoadBalancerSettings settings;
+    private final int maxEjected;
+
+    /**
+     * @param endpoints one transport per endpoint, each signing for its own URL
+     */
+    public LoadBalancedTransport(String functionName, List<? extends RemoteTransport> endpoints, LoadBalancerSettings settings) {
+        this.functionName = functionName;
+        this.endpoints = List.copyOf(endpoints);
+        this.settings = settings;
+        List<EndpointStats> endpointStats = new ArrayList<>();
+        for (RemoteTransport endpoint : endpoints) {
+            endpointStats.add(new EndpointStats(endpoint.getEndpoint(), settings.getDecay().toNanos()));
+        }
+        this.stats = Collections.unmodifiableList(endpointStats);
+        this.maxEjected = endpoints.size() * settings.getMaxEjectedPercent() / 100;
+    }
+
+    @Override
+    public <T> T exchange(TransportRequest request, ResponseHandler<T> handler) throws IOException {
+        int index = choose();
+        EndpointStats endpoint = stats.get(index);
+        endpoint.start();
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = endpoints.get(index).exchange(request, handler);
+        } catch (IOException | RuntimeException e) {
+            complete(endpoint, start, e);
+            throw e;
+        }
+        complete(endpoint, start, null);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> exchangeAsync(TransportRequest request) {
+        int index = choose();
+        EndpointStats endpoint = stats.get(index);
+        endpoint.start();
+        long start = System.nanoTime();
+        CompletableFuture<TransportResponse> exchange = endpoints.get(index).exchangeAsync(request);
+        exchange.whenComplete((response, error) -> complete(endpoint, start, error));
+        return exchange;
+    }
+
+    /**
+     * Power of two choices among endpoints in rotation
+     */
+    private int choose() {
+        long now = System.nanoTime();
+        List<Integer> candidates = new ArrayList<>(endpoints.size());
+        for (int i = 0; i < stats.size(); i++) {
+            if (!stats.get(i).isEjected(now)) {
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // Ejections are capped, but if every endpoint is failing pick among all of them
+            for (int i = 0; i < stats.size(); i++) {
+                candidates.add(i);
+            }
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        SplittableRandom random = InstanceRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        EndpointStats a = stats.get(candidates.get(first));
+        EndpointStats b = stats.get(candidates.get(second));
+        // An endpoint that has not answered yet is assumed as fast as the other, so load decides
+        double latencyA = a.getLatencyNanos(now);
+        double latencyB = b.getLatencyNanos(now);
+        double fallback = Math.max(1, Math.max(latencyA, latencyB));
+        return a.cost(fallback, now) <= b.cost(fallback, now) ? candidates.get(first) : candidates.get(second);
+    }
+
+    private void complete(EndpointStats endpoint, long start, Throwable error) {
+        long elapsed = System.nanoTime() - start;
+        if (error == null) {
+            endpoint.recordSuccess(elapsed);
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException || !RemoteFailures.isTransient(cause)) {
+            // A cancelled hedge or a bad request says nothing about the endpoint's health
+            endpoint.recordNeutral();
+            return;
+        }
+        if (endpoint.recordFailure(elapsed, settings.getEjectAfter())) {
+            eject(endpoint);
+        }
+    }
+
+    private synchronized void eject(EndpointStats endpoint) {
+        long now = System.nanoTime();
+        long ejected = stats.stream().filter(candidate -> candidate.isEjected(now)).count();
+        if (endpoint.isEjected(now) || ejected >= maxEjected) {
+            log.debug("FC Framework: Not ejecting " + endpoint.getUrl() + " for " + functionName +
+                    ", " + ejected + " of " + stats.size() + " endpoints already ejected");
+            return;
+        }
+        endpoint.eject(settings.getEjectDuration().toNanos(), now);
+        log.warn("🚫 FC Framework: Ejected " + endpoint.getUrl() + " from " + functionName + " after " +
+                settings.getEjectAfter() + " consecutive failures");
+    }
+
+    @Override
+    public boolean supportsContentNegotiation() {
+        return endpoints.stream().allMatch(RemoteTransport::supportsContentNegotiation);
+    }
+
+    @Override
+    public String getEndpoint() {
+        return endpoints.stream().map(RemoteTransport::getEndpoint).collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    public List<EndpointStats> getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,54 @@
+package com.fc.serverless.transport;
+
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Settings for balancing across fc.functions.{name}.urls, resolved from
+ * fc.functions.{name}.loadBalancer.*
+ *
+ * An endpoint failing loadBalancer.ejectAfter calls in a row is taken out of
+ * rotation for loadBalancer.ejectDuration, longer each time it is ejected again
+ * without recovering. At most loadBalancer.maxEjectedPercent of endpoints are
+ * ejected at once.
+ */
+public class LoadBalancerSettings {
+
+    private final int ejectAfter;
+    private final Duration ejectDuration;
+    private final int maxEjectedPercent;
+    private final Duration decay;
+
+    public LoadBalancerSettings(int ejectAfter, Duration ejectDuration, int maxEjectedPercent, Duration decay) {
+        this.ejectAfter = ejectAfter;
+        this.ejectDuration = ejectDuration;
+        this.maxEjectedPercent = maxEjectedPercent;
+        this.decay = decay;
+    }
+
+    public static LoadBalancerSettings resolve(String functionName, Environment environment,
+                                               EnvironmentPropertyResolver resolver) {
+        return new LoadBalancerSettings(
+                Math.max(1, resolver.resolveInt(functionName, "loadBalancer.ejectAfter", 5, environment)),
+                resolver.resolveDuration(functionName, "loadBalancer.ejectDuration", Duration.ofSeconds(30), environment),
+                Math.min(100, Math.max(0, resolver.resolveInt(functionName, "loadBalancer.maxEjectedPercent", 50, environment))),
+                resolver.resolveDuration(functionName, "loadBalancer.decay", Duration.ofSeconds(10), environment));
+    }
+
+    public int getEjectAfter() { return ejectAfter; }
+    public Duration getEjectDuration() { return ejectDuration; }
+    public int getMaxEjectedPercent() { return maxEjectedPercent; }
+
+    /**
+     * How quickly old latencies fade from an endpoint's moving average
+     */
+    public Duration getDecay() { return decay; }
+
+    @Override
+    public String toString() {
+        return "LoadBalancerSettings{ejectAfter=" + ejectAfter + ", ejectDuration=" + ejectDuration +
+                ", maxEjectedPercent=" + maxEjectedPercent + ", decay=" + decay + "}";
+    }
+}
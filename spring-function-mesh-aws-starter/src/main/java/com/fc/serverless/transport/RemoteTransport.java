@@ -0,0 +1,42 @@
+package com.fc.serverless.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivers an encoded call to a remote function and hands back its response.
+ *
+ * The proxy owns serialization, content headers and compression; a transport only
+ * moves bytes. Built-in transports are chosen per function with
+ * fc.functions.{name}.transport (see {@link TransportType}).
+ */
+public interface RemoteTransport {
+
+    /**
+     * Blocking exchange: the handler reads the response before the transport releases it
+     */
+    <T> T exchange(TransportRequest request, ResponseHandler<T> handler) throws IOException;
+
+    /**
+     * Non-blocking exchange: no thread is held while the request is in flight
+     */
+    CompletableFuture<TransportResponse> exchangeAsync(TransportRequest request);
+
+    /**
+     * Whether request headers reach the function and response headers come back,
+     * which batching, binary wire formats and compression rely on
+     */
+    default boolean supportsContentNegotiation() {
+        return true;
+    }
+
+    /**
+     * Where calls are sent, for logging
+     */
+    String getEndpoint();
+
+    @FunctionalInterface
+    interface ResponseHandler<T> {
+        T handle(TransportResponse response) throws IOException;
+    }
+}
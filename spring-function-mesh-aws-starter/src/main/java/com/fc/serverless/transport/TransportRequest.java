@@ -0,0 +1,10 @@
+package com.fc.serverless.transport;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * An encoded call: body exactly as it is to be sent (null when there is no input),
+ * content headers set by the proxy, and whether it is a batch of inputs
+ */
+public record TransportRequest(byte[] body, HttpHeaders headers, boolean batch) {
+}
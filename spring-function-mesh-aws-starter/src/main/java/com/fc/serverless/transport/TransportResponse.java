@@ -0,0 +1,9 @@
+package com.fc.serverless.transport;
+
+import java.io.InputStream;
+
+/**
+ * A response body as received, with the headers needed to decode it (either may be null)
+ */
+public record TransportResponse(InputStream body, String contentType, String contentEncoding) {
+}
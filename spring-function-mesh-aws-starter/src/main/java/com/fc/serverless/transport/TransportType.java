@@ -0,0 +1,34 @@
+package com.fc.serverless.transport;
+
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.env.Environment;
+
+/**
+ * Built-in transports, selected with fc.functions.{name}.transport
+ */
+public enum TransportType {
+
+    /** POST to the function's URL (Lambda Function URL or exported endpoint), the default */
+    HTTP,
+    /** Lambda Invoke API, synchronous or as an asynchronous Event for Consumers */
+    LAMBDA,
+    /** Dispatch to a function in this application through the full serialization path */
+    IN_MEMORY;
+
+    private static final Log log = LogFactory.getLog(TransportType.class);
+
+    public static TransportType resolve(String functionName, Environment environment, EnvironmentPropertyResolver resolver) {
+        String value = resolver.resolveProperty(functionName, "transport", environment);
+        if (value == null) {
+            return HTTP;
+        }
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ FC Framework: Unknown transport '" + value + "' for " + functionName + ", using HTTP");
+            return HTTP;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.fc.serverless.auth;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.ContentStreamProvider;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.http.SdkHttpRequest;
+import software.amazon.awssdk.http.auth.aws.signer.AwsV4HttpSigner;
+import software.amazon.awssdk.http.auth.spi.signer.HttpSigner;
+import software.amazon.awssdk.http.auth.spi.signer.SignedRequest;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The fast path signer must produce the same signature as the SDK's SigV4 signer
+ */
+class AwsIamRequestSignerTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-05-01T12:34:56Z"), ZoneOffset.UTC);
+    private static final String REGION = "eu-west-1";
+    private static final byte[] BODY = "{\"sku\":\"A-1\",\"quantity\":3}".getBytes(StandardCharsets.UTF_8);
+
+    private static final AwsCredentials BASIC = AwsBasicCredentials.create("AKIDEXAMPLE",
+            "wJalrXUtnFEMI/K7MDENG/bPxRfiCYEXAMPLEKEY");
+    private static final AwsCredentials SESSION = AwsSessionCredentials.create("ASIAEXAMPLE",
+            "wJalrXUtnFEMI/K7MDENG/bPxRfiCYEXAMPLEKEY", "IQoJb3JpZ2luX2VjEXAMPLE/session+token==");
+
+    /**
+     * Headers the signer sets itself; every other header of the SDK's request is signed by both
+     */
+    private static final Set<String> SIGNATURE_HEADERS = Set.of("authorization", "x-amz-date", "x-amz-security-token", "host");
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "https://abcdefghij.lambda-url.eu-west-1.on.aws/",
+            "https://abcdefghij.lambda-url.eu-west-1.on.aws",
+            "https://abcdefghij.lambda-url.eu-west-1.on.aws/priceCalculator",
+            "https://lambda.eu-west-1.amazonaws.com/2015-03-31/functions/arn%3Aaws%3Alambda%3Aeu-west-1%3A123456789012%3Afunction%3Aprice-calculator/invocations",
+            "https://lambda.eu-west-1.amazonaws.com/2015-03-31/functions/price-calculator/invocations?Qualifier=live",
+            "https://lambda.eu-west-1.amazonaws.com/2015-03-31/functions/price-calculator/invocations?Qualifier=%24LATEST",
+            "https://abcdefghij.lambda-url.eu-west-1.on.aws/prices/caf%C3%A9%20au%20lait/~v1",
+            "https://abcdefghij.lambda-url.eu-west-1.on.aws/search?sort=desc&q=caf%C3%A9&a=2&a=1&empty=&tilde=~x",
+            "https://abcdefghij.lambda-url.eu-west-1.on.aws/search?path=%2Fa%2Fb&star=*&reserved=%21%27%28%29",
+            "http://localhost:9001/2015-03-31/functions/price-calculator/invocations"
+    })
+    void signsLikeTheSdk(String url) {
+        assertSameSignature(url, BASIC, BODY);
+        assertSameSignature(url, SESSION, BODY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "https://abcdefghij.lambda-url.eu-west-1.on.aws/configSupplier",
+            "https://lambda.eu-west-1.amazonaws.com/2015-03-31/functions/price-calculator/invocations?Qualifier=live"
+    })
+    void signsRequestsWithoutBodyLikeTheSdk(String url) {
+        assertSameSignature(url, SESSION, null);
+    }
+
+    private static void assertSameSignature(String url, AwsCredentials credentials, byte[] body) {
+        SdkHttpRequest.Builder request = SdkHttpRequest.builder()
+                .uri(URI.create(url))
+                .method(SdkHttpMethod.POST)
+                .putHeader("Content-Type", "application/json")
+                .putHeader("Accept", "application/json, application/x-jackson-smile")
+                .putHeader("X-FC-Function", "  priceCalculator   v2 ");
+        SignedRequest expected = AwsV4HttpSigner.create().sign(signing -> signing
+                .identity(credentials)
+                .request(request.build())
+                .payload(body == null ? null : ContentStreamProvider.fromByteArray(body))
+                .putProperty(AwsV4HttpSigner.SERVICE_SIGNING_NAME, "lambda")
+                .putProperty(AwsV4HttpSigner.REGION_NAME, REGION)
+                .putProperty(HttpSigner.SIGNING_CLOCK, CLOCK));
+
+        HttpHeaders headers = new HttpHeaders();
+        expected.request().forEachHeader((name, values) -> {
+            if (!SIGNATURE_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        AwsIamRequestSigner signer = new AwsIamRequestSigner(StaticCredentialsProvider.create(credentials), CLOCK);
+        // Function URL and Lambda API hosts name the region; a local stand-in does not
+        SigningTarget target = url.contains(".amazonaws.com") || url.contains(".on.aws")
+                ? signer.target(url)
+                : signer.target(url, REGION);
+        signer.sign(target, HttpMethod.POST, headers, body);
+
+        assertThat(headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .isEqualTo(expected.request().firstMatchingHeader("Authorization").orElseThrow());
+        assertThat(headers.getFirst("X-Amz-Date"))
+                .isEqualTo(expected.request().firstMatchingHeader("X-Amz-Date").orElseThrow());
+        assertThat(headers.getFirst("X-Amz-Security-Token"))
+                .isEqualTo(expected.request().firstMatchingHeader("X-Amz-Security-Token").orElse(null));
+    }
+}
@@ -0,0 +1,107 @@
+package com.fc.serverless.auth;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedCredentialsTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+    private static final Clock CLOCK = Clock.fixed(NOW, ZoneOffset.UTC);
+    private static final Duration REFRESH_AFTER = Duration.ofMinutes(5);
+    private static final Duration MAX_AGE = Duration.ofMinutes(15);
+
+    @Test
+    void reusesCredentialsWithoutExpiration() {
+        CountingProvider provider = new CountingProvider(n -> AwsBasicCredentials.create("AKID" + n, "secret"));
+        CachedCredentials cached = new CachedCredentials(provider, CLOCK, REFRESH_AFTER, MAX_AGE);
+
+        assertThat(cached.get().accessKeyId()).isEqualTo("AKID1");
+        assertThat(cached.get().accessKeyId()).isEqualTo("AKID1");
+        assertThat(provider.calls).hasValue(1);
+    }
+
+    @Test
+    void reusesCredentialsThatExpireLongAfterMaxAge() {
+        CountingProvider provider = new CountingProvider(n -> session(n, NOW.plus(Duration.ofHours(12))));
+        CachedCredentials cached = new CachedCredentials(provider, CLOCK, REFRESH_AFTER, MAX_AGE);
+
+        cached.get();
+        cached.get();
+
+        assertThat(provider.calls).hasValue(1);
+    }
+
+    @Test
+    void waitsForFreshCredentialsWithinAMinuteOfExpiry() {
+        CountingProvider provider = new CountingProvider(n -> session(n, NOW.plus(Duration.ofSeconds(50))));
+        CachedCredentials cached = new CachedCredentials(provider, CLOCK, REFRESH_AFTER, MAX_AGE);
+
+        assertThat(cached.get().accessKeyId()).isEqualTo("ASIA1");
+        assertThat(cached.get().accessKeyId()).isEqualTo("ASIA2");
+        assertThat(provider.calls).hasValue(2);
+    }
+
+    @Test
+    void refreshesInTheBackgroundWithinFiveMinutesOfExpiry() throws InterruptedException {
+        CountingProvider provider = new CountingProvider(n -> session(n, NOW.plus(Duration.ofMinutes(3))));
+        CachedCredentials cached = new CachedCredentials(provider, CLOCK, REFRESH_AFTER, MAX_AGE);
+
+        assertThat(cached.get().accessKeyId()).isEqualTo("ASIA1");
+        // Still valid for minutes: signed with at once while the refresh runs
+        assertThat(cached.get().accessKeyId()).isEqualTo("ASIA1");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (provider.calls.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(provider.calls).hasValue(2);
+    }
+
+    @Test
+    void invalidateLoadsFreshCredentials() {
+        CountingProvider provider = new CountingProvider(n -> session(n, NOW.plus(Duration.ofHours(1))));
+        CachedCredentials cached = new CachedCredentials(provider, CLOCK, REFRESH_AFTER, MAX_AGE);
+
+        cached.get();
+        cached.invalidate();
+
+        assertThat(cached.get().accessKeyId()).isEqualTo("ASIA2");
+    }
+
+    private static AwsCredentials session(int n, Instant expiration) {
+        return AwsSessionCredentials.builder()
+                .accessKeyId("ASIA" + n)
+                .secretAccessKey("secret")
+                .sessionToken("token")
+                .expirationTime(expiration)
+                .build();
+    }
+
+    private static final class CountingProvider implements AwsCredentialsProvider {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final IntFunction<AwsCredentials> credentials;
+
+        private CountingProvider(IntFunction<AwsCredentials> credentials) {
+            this.credentials = credentials;
+        }
+
+        @Override
+        public AwsCredentials resolveCredentials() {
+            return credentials.apply(calls.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.fc.serverless.checkpoint;
+
+import com.fc.serverless.http.HttpClientSettings;
+import com.fc.serverless.http.PooledRemoteHttpClientFactory;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckpointRestoreHooksTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(CheckpointAutoConfiguration.class, ParticipantsConfiguration.class);
+
+    private HttpServer server;
+    private URI uri;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/priceCalculator");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void simulatedCheckpointPrimesAndRestoresParticipantsOnStartup() {
+        contextRunner.withPropertyValues("fc.checkpoint.simulate=true").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context.getBean(RecordingParticipant.class).events)
+                    .containsExactly("beforeCheckpoint", "afterRestore");
+        });
+    }
+
+    @Test
+    void hooksOnlyRunOnStartupWhenSimulated() {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(CheckpointRestoreHooks.class);
+            assertThat(context.getBean(RecordingParticipant.class).events).isEmpty();
+        });
+    }
+
+    @Test
+    void failingParticipantDoesNotStopTheOthers() {
+        contextRunner.withPropertyValues("fc.checkpoint.simulate=true")
+                .withBean("failingParticipant", CheckpointParticipant.class, () -> new CheckpointParticipant() {
+                    @Override
+                    public void beforeCheckpoint() {
+                        throw new IllegalStateException("cannot prime");
+                    }
+
+                    @Override
+                    public void afterRestore() {
+                        throw new IllegalStateException("cannot restore");
+                    }
+                })
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context.getBean(RecordingParticipant.class).events)
+                            .containsExactly("beforeCheckpoint", "afterRestore");
+                });
+    }
+
+    @Test
+    void checkpointDropsPooledConnections() {
+        contextRunner.run(context -> {
+            ClientHttpRequestFactory requestFactory = context.getBean(PooledRemoteHttpClientFactory.class)
+                    .getRequestFactory("priceCalculator", HttpClientSettings.defaults());
+
+            call(requestFactory);
+            call(requestFactory);
+            assertThat(clientPorts).as("connection reused while pooled").hasSize(1);
+
+            context.getBean(CheckpointRestoreHooks.class).simulateCheckpoint();
+            call(requestFactory);
+            assertThat(clientPorts).as("connection opened after restore").hasSize(2);
+        });
+    }
+
+    @Test
+    void checkpointDropsConnectionsOfAsyncClients() {
+        contextRunner.run(context -> {
+            HttpClient client = context.getBean(PooledRemoteHttpClientFactory.class)
+                    .getAsyncClient("priceCalculator", HttpClientSettings.defaults());
+
+            call(client);
+            call(client);
+            assertThat(clientPorts).as("connection reused while pooled").hasSize(1);
+
+            context.getBean(CheckpointRestoreHooks.class).simulateCheckpoint();
+            call(client);
+            assertThat(clientPorts).as("connection opened after restore").hasSize(2);
+        });
+    }
+
+    @Test
+    void restoreReseedsInstanceRandom() {
+        contextRunner.run(context -> {
+            SplittableRandom before = InstanceRandom.current();
+            assertThat(InstanceRandom.current()).isSameAs(before);
+
+            context.getBean(CheckpointRestoreHooks.class).simulateCheckpoint();
+
+            assertThat(InstanceRandom.current()).isNotSameAs(before);
+        });
+    }
+
+    private void call(ClientHttpRequestFactory requestFactory) throws IOException {
+        try (ClientHttpResponse response = requestFactory.createRequest(uri, HttpMethod.POST).execute()) {
+            assertThat(response.getStatusCode().value()).isEqualTo(200);
+            response.getBody().readAllBytes();
+        }
+    }
+
+    private void call(HttpClient client) throws Exception {
+        HttpResponse<String> response = client.sendAsync(
+                HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString("{}")).build(),
+                HttpResponse.BodyHandlers.ofString()).get();
+        assertThat(response.statusCode()).isEqualTo(200);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ParticipantsConfiguration {
+
+        @Bean
+        RecordingParticipant recordingParticipant() {
+            return new RecordingParticipant();
+        }
+
+        @Bean
+        PooledRemoteHttpClientFactory remoteHttpClientFactory() {
+            return new PooledRemoteHttpClientFactory();
+        }
+    }
+
+    static class RecordingParticipant implements CheckpointParticipant {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void beforeCheckpoint() {
+            events.add("beforeCheckpoint");
+        }
+
+        @Override
+        public void afterRestore() {
+            events.add("afterRestore");
+        }
+    }
+}
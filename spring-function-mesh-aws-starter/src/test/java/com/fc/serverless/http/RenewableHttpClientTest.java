@@ -0,0 +1,158 @@
+package com.fc.serverless.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RenewableHttpClientTest {
+
+    private HttpServer server;
+    private URI uri;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/priceCalculator");
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void holdsExchangesBeyondTheLimitUntilOneFinishes() throws Exception {
+        RenewableHttpClient client = client(2, Duration.ofSeconds(5));
+
+        CompletableFuture<?> first = send(client);
+        CompletableFuture<?> second = send(client);
+        CompletableFuture<?> third = send(client);
+        awaitInFlight(2);
+        Thread.sleep(100);
+        assertThat(third).isNotDone();
+
+        release.countDown();
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+        assertThat(maxInFlight).hasValue(2);
+    }
+
+    @Test
+    void failsAnExchangeThatWaitsLongerThanTheConnectTimeout() throws Exception {
+        RenewableHttpClient client = client(1, Duration.ofMillis(100));
+
+        CompletableFuture<?> first = send(client);
+        awaitInFlight(1);
+
+        assertThatThrownBy(() -> send(client).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause().isInstanceOf(HttpConnectTimeoutException.class);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        // The permit of the timed out exchange was not lost
+        send(client).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void blockingSendWaitsForAPermitToo() throws Exception {
+        RenewableHttpClient client = client(1, Duration.ofMillis(100));
+
+        CompletableFuture<?> first = send(client);
+        awaitInFlight(1);
+
+        assertThatThrownBy(() -> client.send(request(), HttpResponse.BodyHandlers.ofString()))
+                .isInstanceOf(HttpConnectTimeoutException.class);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertThat(client.send(request(), HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void cancellingAWaitingExchangeFreesItsPlace() throws Exception {
+        RenewableHttpClient client = client(1, Duration.ofSeconds(5));
+
+        CompletableFuture<?> first = send(client);
+        awaitInFlight(1);
+        send(client).cancel(true);
+        CompletableFuture<?> third = send(client);
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        third.get(5, TimeUnit.SECONDS);
+        assertThat(maxInFlight).hasValue(1);
+    }
+
+    @Test
+    void unlimitedWithoutMaxExchanges() throws Exception {
+        RenewableHttpClient client = client(0, Duration.ofMillis(100));
+
+        CompletableFuture<?> first = send(client);
+        CompletableFuture<?> second = send(client);
+        awaitInFlight(2);
+
+        release.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+    }
+
+    private static RenewableHttpClient client(int maxExchanges, Duration maxWait) {
+        return new RenewableHttpClient(() -> HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(),
+                maxExchanges, maxWait);
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpClient client) {
+        return client.sendAsync(request(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request() {
+        return HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString("{}")).build();
+    }
+
+    private void awaitInFlight(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlight.get() < expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+}
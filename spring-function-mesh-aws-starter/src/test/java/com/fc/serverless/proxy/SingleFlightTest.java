@@ -0,0 +1,228 @@
+package com.fc.serverless.proxy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void waitersShareTheLeadersResult() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<Object> leader = executor.submit(() -> singleFlight.call(String.class, "{}", () -> {
+            calls.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "result";
+        }));
+        assertThat(leaderStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        Future<Object> waiter = executor.submit(() -> singleFlight.call(String.class, "{}", () -> {
+            calls.incrementAndGet();
+            return "own";
+        }));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThat(leader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(waiter.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void waitersGetTheLeadersFailure() throws Exception {
+        RuntimeException failure = new IllegalStateException("down");
+
+        Future<Object> waiter = startWaiterBehindFailingLeader(() -> {
+            throw failure;
+        });
+
+        assertThatThrownBy(() -> waiter.get(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause().isSameAs(failure);
+    }
+
+    @Test
+    void waitersGetAnErrorThrownByTheLeader() throws Exception {
+        Error failure = new StackOverflowError();
+
+        Future<Object> waiter = startWaiterBehindFailingLeader(() -> {
+            throw failure;
+        });
+
+        assertThatThrownBy(() -> waiter.get(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause().isSameAs(failure);
+    }
+
+    @Test
+    void entryIsRemovedAfterCompletion() {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.call(String.class, "{}", () -> "first-" + calls.incrementAndGet());
+        assertThatThrownBy(() -> singleFlight.call(String.class, "{}", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.call(String.class, "{}", () -> "third-" + calls.incrementAndGet())).isEqualTo("third-3");
+        assertThat(singleFlight.getCoalescedCalls()).isZero();
+    }
+
+    @Test
+    void onlyEqualPayloadsAndResultTypesShareACall() throws Exception {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        singleFlight.callAsync(String.class, "{}", () -> flight);
+
+        CompletableFuture<Object> otherPayload = singleFlight.callAsync(String.class, "{\"a\":1}",
+                () -> CompletableFuture.completedFuture("other payload"));
+        CompletableFuture<Object> otherType = singleFlight.callAsync(Integer.class, "{}",
+                () -> CompletableFuture.completedFuture(1));
+
+        assertThat(otherPayload.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("other payload");
+        assertThat(otherType.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(singleFlight.getCoalescedCalls()).isZero();
+        flight.complete("done");
+    }
+
+    @Test
+    void asyncCallersShareTheLeadersResult() throws Exception {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<Object> leader = singleFlight.callAsync(String.class, "{}", () -> {
+            calls.incrementAndGet();
+            return flight;
+        });
+        CompletableFuture<Object> waiter = singleFlight.callAsync(String.class, "{}", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("own");
+        });
+        flight.complete("result");
+
+        assertThat(leader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(waiter.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(calls).hasValue(1);
+        assertThat(singleFlight.getCoalescedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncCallersGetTheUnwrappedFailure() {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        RuntimeException failure = new IllegalStateException("down");
+
+        CompletableFuture<Object> leader = singleFlight.callAsync(String.class, "{}", () -> flight);
+        CompletableFuture<Object> waiter = singleFlight.callAsync(String.class, "{}", CompletableFuture::new);
+        flight.completeExceptionally(failure);
+
+        assertThatThrownBy(() -> leader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).cause().isSameAs(failure);
+        assertThatThrownBy(() -> waiter.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).cause().isSameAs(failure);
+    }
+
+    @Test
+    void asyncCallFailsWhenTheSupplierThrows() {
+        Error failure = new StackOverflowError();
+
+        CompletableFuture<Object> leader = singleFlight.callAsync(String.class, "{}", () -> {
+            throw failure;
+        });
+
+        assertThatThrownBy(() -> leader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).cause().isSameAs(failure);
+        CompletableFuture<Object> next = singleFlight.callAsync(String.class, "{}",
+                () -> CompletableFuture.completedFuture("next"));
+        assertThat(next).isCompletedWithValue("next");
+    }
+
+    @Test
+    void cancellingOneAsyncCallerLeavesTheOthersWaiting() throws Exception {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+
+        CompletableFuture<Object> leader = singleFlight.callAsync(String.class, "{}", () -> flight);
+        CompletableFuture<Object> waiter = singleFlight.callAsync(String.class, "{}", CompletableFuture::new);
+        CompletableFuture<Object> cancelled = singleFlight.callAsync(String.class, "{}", CompletableFuture::new);
+
+        cancelled.cancel(true);
+        leader.cancel(true);
+
+        assertThat(flight).isNotDone();
+        assertThat(waiter).isNotDone();
+        flight.complete("result");
+        assertThat(waiter.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThatThrownBy(cancelled::join).isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    void asyncEntryIsRemovedAfterCompletion() {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        singleFlight.callAsync(String.class, "{}", () -> flight);
+        flight.complete("first");
+
+        CompletableFuture<Object> next = singleFlight.callAsync(String.class, "{}",
+                () -> CompletableFuture.completedFuture("second"));
+
+        assertThat(next).isCompletedWithValue("second");
+        assertThat(singleFlight.getCoalescedCalls()).isZero();
+    }
+
+    private Future<Object> startWaiterBehindFailingLeader(Supplier<Object> failingCall) throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.submit(() -> singleFlight.call(String.class, "{}", () -> {
+            leaderStarted.countDown();
+            await(release);
+            return failingCall.get();
+        }));
+        assertThat(leaderStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        Future<Object> waiter = executor.submit(() -> singleFlight.call(String.class, "{}", () -> "own"));
+        awaitCoalesced(1);
+        release.countDown();
+        return waiter;
+    }
+
+    /**
+     * A waiter counts as coalesced just before it blocks on the leader's flight
+     */
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (singleFlight.getCoalescedCalls() < expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.fc.serverless.resilience;
+
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResilienceSettingsTest {
+
+    private final EnvironmentPropertyResolver resolver = new EnvironmentPropertyResolver();
+
+    @Test
+    void circuitBreakerIsOffByDefault() {
+        ResilienceSettings settings = ResilienceSettings.resolve("priceCalculator", true, new MockEnvironment(), resolver);
+
+        assertThat(settings.isCircuitBreakerEnabled()).isFalse();
+        assertThat(settings.isRetryEnabled()).isTrue();
+    }
+
+    @Test
+    void circuitBreakerIsEnabledPerFunction() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("fc.functions.priceCalculator.circuitBreaker.enabled", "true");
+
+        assertThat(ResilienceSettings.resolve("priceCalculator", false, environment, resolver).isCircuitBreakerEnabled())
+                .isTrue();
+        assertThat(ResilienceSettings.resolve("configSupplier", false, environment, resolver).isCircuitBreakerEnabled())
+                .isFalse();
+    }
+
+    @Test
+    void cancelledCallsAreNeitherFailuresNorSuccesses() {
+        CircuitBreaker breaker = CircuitBreaker.of("priceCalculator", enabledSettings().toCircuitBreakerConfig());
+
+        record(breaker, new CancellationException());
+        record(breaker, new CompletionException(new CancellationException()));
+
+        assertThat(breaker.getMetrics().getNumberOfBufferedCalls()).isZero();
+        assertThat(breaker.getMetrics().getNumberOfNotPermittedCalls()).isZero();
+    }
+
+    @Test
+    void callerErrorsCountAsSuccessesAndServerErrorsAsFailures() {
+        CircuitBreaker breaker = CircuitBreaker.of("priceCalculator", enabledSettings().toCircuitBreakerConfig());
+
+        record(breaker, HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null));
+        record(breaker, HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null));
+        record(breaker, HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null));
+
+        assertThat(breaker.getMetrics().getNumberOfSuccessfulCalls()).isEqualTo(1);
+        assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void classifiesCancellationThroughTheCauseChain() {
+        assertThat(RemoteFailures.isCancellation(new RuntimeException(new CancellationException()))).isTrue();
+        assertThat(RemoteFailures.isFailure(new RuntimeException(new CancellationException()))).isFalse();
+        assertThat(RemoteFailures.isTransient(new CancellationException())).isFalse();
+        assertThat(RemoteFailures.isCancellation(new IllegalStateException())).isFalse();
+    }
+
+    private static void record(CircuitBreaker breaker, Throwable error) {
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onError(1, TimeUnit.MILLISECONDS, error);
+    }
+
+    private static ResilienceSettings enabledSettings() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("fc.functions.priceCalculator.circuitBreaker.enabled", "true");
+        return ResilienceSettings.resolve("priceCalculator", true, environment, new EnvironmentPropertyResolver());
+    }
+}
@@ -0,0 +1,248 @@
+package com.fc.serverless.transport;
+
+import com.fc.serverless.auth.AwsIamRequestSigner;
+import com.fc.serverless.config.EnvironmentPropertyResolver;
+import com.fc.serverless.tracing.TraceContext;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LambdaInvokeTransportTest {
+
+    private static final String ARN = "arn:aws:lambda:eu-west-1:123456789012:function:price-calculator";
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    private HttpServer server;
+    private String endpoint;
+    private volatile URI requestUri;
+    private volatile Headers requestHeaders;
+    private volatile String requestBody;
+    private volatile int responseStatus = 200;
+    private volatile Map<String, String> responseHeaders = Map.of();
+    private volatile String responseBody = "{\"price\":42}";
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            requestUri = exchange.getRequestURI();
+            requestHeaders = exchange.getRequestHeaders();
+            requestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            responseHeaders.forEach(exchange.getResponseHeaders()::set);
+            exchange.sendResponseHeaders(responseStatus, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        endpoint = "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void invokesTheFunctionNamedByAnArnAsOnePathSegment() throws IOException {
+        LambdaInvokeTransport transport = transport(settings(ARN, null, LambdaInvokeSettings.InvocationType.REQUEST_RESPONSE));
+
+        String result = exchange(transport, "{\"sku\":\"A-1\"}", null);
+
+        assertThat(result).isEqualTo("{\"price\":42}");
+        assertThat(requestUri.getRawPath())
+                .isEqualTo("/2015-03-31/functions/arn%3Aaws%3Alambda%3Aeu-west-1%3A123456789012%3Afunction%3Aprice-calculator/invocations");
+        assertThat(requestUri.getRawQuery()).isNull();
+        assertThat(requestBody).isEqualTo("{\"sku\":\"A-1\"}");
+    }
+
+    @Test
+    void passesTheQualifier() throws IOException {
+        LambdaInvokeTransport transport = transport(settings("price-calculator", "live",
+                LambdaInvokeSettings.InvocationType.REQUEST_RESPONSE));
+
+        exchange(transport, "{}", null);
+
+        assertThat(requestUri.getRawPath()).isEqualTo("/2015-03-31/functions/price-calculator/invocations");
+        assertThat(requestUri.getRawQuery()).isEqualTo("Qualifier=live");
+    }
+
+    @Test
+    void resolvesTheRegionFromAnArnAndSignsForIt() throws IOException {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("fc.functions.priceCalculator.lambda.functionName", ARN)
+                .withProperty("fc.functions.priceCalculator.lambda.qualifier", "3")
+                .withProperty("fc.functions.priceCalculator.lambda.endpoint", endpoint);
+        LambdaInvokeSettings settings = LambdaInvokeSettings.resolve("priceCalculator", false, environment,
+                new EnvironmentPropertyResolver());
+        AwsIamRequestSigner signer = new AwsIamRequestSigner(
+                StaticCredentialsProvider.create(AwsBasicCredentials.create("AKIDEXAMPLE", "secret")), Clock.systemUTC());
+        LambdaInvokeTransport transport = new LambdaInvokeTransport(settings, HttpClient.newHttpClient(),
+                Duration.ofSeconds(5), signer);
+
+        exchange(transport, "{}", null);
+
+        assertThat(settings.getRegion()).isEqualTo("eu-west-1");
+        assertThat(settings.getFunctionName()).isEqualTo(ARN);
+        assertThat(requestUri.getRawQuery()).isEqualTo("Qualifier=3");
+        assertThat(requestHeaders.getFirst("Authorization"))
+                .startsWith("AWS4-HMAC-SHA256 Credential=AKIDEXAMPLE/")
+                .contains("/eu-west-1/lambda/aws4_request");
+    }
+
+    @Test
+    void requestResponseInvocationWaitsForTheResult() throws IOException {
+        LambdaInvokeTransport transport = transport(settings("price-calculator", null,
+                LambdaInvokeSettings.InvocationType.REQUEST_RESPONSE));
+
+        exchange(transport, "{}", null);
+
+        assertThat(requestHeaders.getFirst(LambdaInvokeTransport.INVOCATION_TYPE_HEADER)).isEqualTo("RequestResponse");
+    }
+
+    @Test
+    void eventInvocationIsQueued() throws Exception {
+        responseStatus = 202;
+        responseBody = "";
+        LambdaInvokeTransport transport = transport(settings("audit-log", null, LambdaInvokeSettings.InvocationType.EVENT));
+
+        TransportResponse response = transport.exchangeAsync(new TransportRequest(
+                "{}".getBytes(StandardCharsets.UTF_8), traceHeaders("vendor=value"), false)).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.body().readAllBytes()).isEmpty();
+        assertThat(requestHeaders.getFirst(LambdaInvokeTransport.INVOCATION_TYPE_HEADER)).isEqualTo("Event");
+        // Lambda drops the client context of asynchronous invocations
+        assertThat(requestHeaders.getFirst(LambdaInvokeTransport.CLIENT_CONTEXT_HEADER)).isNull();
+    }
+
+    @Test
+    void eventInvocationIsOnlyUsedForConsumers() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("fc.functions.priceCalculator.lambda.invocationType", "Event");
+        EnvironmentPropertyResolver resolver = new EnvironmentPropertyResolver();
+
+        assertThat(LambdaInvokeSettings.resolve("priceCalculator", false, environment, resolver).getInvocationType())
+                .isEqualTo(LambdaInvokeSettings.InvocationType.REQUEST_RESPONSE);
+        assertThat(LambdaInvokeSettings.resolve("priceCalculator", true, environment, resolver).getInvocationType())
+                .isEqualTo(LambdaInvokeSettings.InvocationType.EVENT);
+    }
+
+    @Test
+    void functionErrorFailsTheCall() {
+        responseHeaders = Map.of(LambdaInvokeTransport.FUNCTION_ERROR_HEADER, "Unhandled");
+        responseBody = "{\"errorMessage\":\"boom\",\"errorType\":\"IllegalStateException\"}";
+        LambdaInvokeTransport transport = transport(settings("price-calculator", null,
+                LambdaInvokeSettings.InvocationType.REQUEST_RESPONSE));
+
+        assertThatThrownBy(() -> exchange(transport, "{}", null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("price-calculator failed (Unhandled)")
+                .hasMessageContaining("\"errorMessage\":\"boom\"");
+    }
+
+    @Test
+    void functionErrorFailsTheAsyncCall() {
+        responseHeaders = Map.of(LambdaInvokeTransport.FUNCTION_ERROR_HEADER, "Handled");
+        responseBody = "{\"errorMessage\":\"boom\"}";
+        LambdaInvokeTransport transport = transport(settings("price-calculator", null,
+                LambdaInvokeSettings.InvocationType.REQUEST_RESPONSE));
+
+        assertThatThrownBy(() -> transport.exchangeAsync(new TransportRequest(
+                "{}".getBytes(StandardCharsets.UTF_8), null, false)).get(5, TimeUnit.SECONDS))
+                .cause()
+                .hasMessageContaining("price-calculator failed (Handled)");
+    }
+
+    @Test
+    void passesTraceContextAsClientContext() throws IOException {
+        LambdaInvokeTransport transport = transport(settings("price-calculator", null,
+                LambdaInvokeSettings.InvocationType.REQUEST_RESPONSE));
+
+        exchange(transport, "{}", traceHeaders("vendor=\"quoted\""));
+
+        String clientContext = new String(Base64.getDecoder().decode(
+                requestHeaders.getFirst(LambdaInvokeTransport.CLIENT_CONTEXT_HEADER)), StandardCharsets.UTF_8);
+        assertThat(clientContext).isEqualTo("{\"custom\":{\"traceparent\":\"" + TRACEPARENT +
+                "\",\"tracestate\":\"vendor=\\\"quoted\\\"\"}}");
+    }
+
+    @Test
+    void leavesOutClientContextOverTheLambdaLimit() throws IOException {
+        LambdaInvokeTransport transport = transport(settings("price-calculator", null,
+                LambdaInvokeSettings.InvocationType.REQUEST_RESPONSE));
+
+        exchange(transport, "{}", traceHeaders("vendor=" + "x".repeat(2700)));
+
+        assertThat(requestHeaders.getFirst(LambdaInvokeTransport.CLIENT_CONTEXT_HEADER)).isNull();
+        assertThat(requestBody).isEqualTo("{}");
+    }
+
+    @Test
+    void keepsClientContextAtTheLambdaLimit() throws IOException {
+        LambdaInvokeTransport transport = transport(settings("price-calculator", null,
+                LambdaInvokeSettings.InvocationType.REQUEST_RESPONSE));
+        // 2687 bytes of JSON encode to 3584 base64 characters, one over the limit
+        int wrapping = "{\"custom\":{\"traceparent\":\"\",\"tracestate\":\"vendor=\"}}".length() + TRACEPARENT.length();
+
+        exchange(transport, "{}", traceHeaders("vendor=" + "x".repeat(2685 - wrapping)));
+        assertThat(requestHeaders.getFirst(LambdaInvokeTransport.CLIENT_CONTEXT_HEADER)).hasSize(3580);
+
+        exchange(transport, "{}", traceHeaders("vendor=" + "x".repeat(2687 - wrapping)));
+        assertThat(requestHeaders.getFirst(LambdaInvokeTransport.CLIENT_CONTEXT_HEADER)).isNull();
+    }
+
+    @Test
+    void rejectsBatches() {
+        LambdaInvokeTransport transport = transport(settings("price-calculator", null,
+                LambdaInvokeSettings.InvocationType.REQUEST_RESPONSE));
+
+        assertThatThrownBy(() -> transport.exchange(new TransportRequest(
+                "[{}]".getBytes(StandardCharsets.UTF_8), null, true), response -> null))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private LambdaInvokeSettings settings(String functionName, String qualifier,
+                                          LambdaInvokeSettings.InvocationType invocationType) {
+        return new LambdaInvokeSettings(functionName, qualifier, "us-east-1", endpoint, invocationType);
+    }
+
+    private static LambdaInvokeTransport transport(LambdaInvokeSettings settings) {
+        return new LambdaInvokeTransport(settings, HttpClient.newHttpClient(), Duration.ofSeconds(5), null);
+    }
+
+    private static String exchange(LambdaInvokeTransport transport, String body, HttpHeaders headers) throws IOException {
+        return transport.exchange(new TransportRequest(body.getBytes(StandardCharsets.UTF_8), headers, false),
+                response -> new String(response.body().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private static HttpHeaders traceHeaders(String tracestate) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TraceContext.TRACEPARENT_HEADER, TRACEPARENT);
+        headers.set(TraceContext.TRACESTATE_HEADER, tracestate);
+        return headers;
+    }
+}
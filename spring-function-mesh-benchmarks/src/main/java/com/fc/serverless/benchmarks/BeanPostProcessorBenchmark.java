@@ -0,0 +1,115 @@
+package com.fc.serverless.benchmarks;
+
+import com.fc.serverless.config.RemoteFunctionBeanPostProcessor;
+import com.fc.serverless.core.annotation.RemoteFunction;
+import com.fc.serverless.proxy.RemoteFunctionProxyFactory;
+import com.fc.serverless.sample.domain.OrderRequest;
+import com.fc.serverless.sample.domain.OrderResult;
+import com.fc.serverless.sample.domain.PriceInfo;
+import com.fc.serverless.sample.domain.PricingConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * RemoteFunctionBeanPostProcessor over an application's worth of beans, one
+ * operation being the whole graph: most beans have no remote functions and
+ * only pay for the field scan, one in twenty gets three proxies injected.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanPostProcessorBenchmark {
+
+    private static final int REMOTE_BEAN_INTERVAL = 20;
+
+    @Param({"100", "1000"})
+    public int beans;
+
+    private RemoteFunctionProxyFactory proxyFactory;
+    private RemoteFunctionBeanPostProcessor postProcessor;
+    private Object[] graph;
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        // Proxies are created but never called, so the default local URLs need not answer
+        proxyFactory = new RemoteFunctionProxyFactory();
+        postProcessor = new RemoteFunctionBeanPostProcessor(proxyFactory, new StandardEnvironment());
+
+        graph = new Object[beans];
+        names = new String[beans];
+        for (int i = 0; i < beans; i++) {
+            graph[i] = i % REMOTE_BEAN_INTERVAL == 0 ? new OrderService() : new PlainService();
+            names[i] = "bean" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        proxyFactory.destroy();
+    }
+
+    @Benchmark
+    public void postProcessGraph(Blackhole blackhole) {
+        for (int i = 0; i < graph.length; i++) {
+            blackhole.consume(postProcessor.postProcessBeforeInitialization(graph[i], names[i]));
+        }
+    }
+
+    /**
+     * A typical service bean without remote functions
+     */
+    static class PlainService {
+
+        private String name = "plain";
+        private int retries = 3;
+        private long timeoutMillis = 5000;
+        private boolean enabled = true;
+        private List<String> tags = List.of("a", "b");
+        private Map<String, String> settings = Map.of("k", "v");
+        private OrderRequest lastRequest;
+        private OrderResult lastResult;
+        private PricingConfig pricingConfig;
+        private Function<String, String> formatter = String::trim;
+    }
+
+    /**
+     * A service bean calling other functions
+     */
+    static class OrderService extends PlainService {
+
+        @RemoteFunction(name = "priceCalculator")
+        private Function<OrderRequest, PriceInfo> priceCalculator;
+
+        @RemoteFunction(name = "priceCalculator")
+        private Function<OrderRequest, CompletableFuture<PriceInfo>> priceCalculatorAsync;
+
+        @RemoteFunction(name = "configSupplier")
+        private Supplier<PricingConfig> configSupplier;
+
+        private String region = "us-east-1";
+        private OrderResult fallback = OrderResult.failed("unavailable");
+    }
+}
@@ -0,0 +1,65 @@
+package com.fc.serverless.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fc.serverless.sample.domain.OrderRequest;
+import com.fc.serverless.sample.domain.OrderResult;
+import com.fc.serverless.sample.domain.PriceInfo;
+import com.fc.serverless.sample.domain.PricingConfig;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sample domain payloads shared by the benchmarks
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static OrderRequest orderRequest() {
+        return new OrderRequest("PROD-001", 12, "PREMIUM");
+    }
+
+    static PriceInfo priceInfo() {
+        return new PriceInfo(new BigDecimal("29.99"), new BigDecimal("323.89"), new BigDecimal("35.99"),
+                "Premium customer discount applied.");
+    }
+
+    static PricingConfig pricingConfig() {
+        return PricingConfig.defaultConfig();
+    }
+
+    static OrderResult orderResult() {
+        return OrderResult.success("ORD-1718000000000", new BigDecimal("323.89"), "Order processed successfully");
+    }
+
+    /**
+     * A price list of the given length, for payloads around and above the compression threshold
+     */
+    static List<PriceInfo> priceList(int items) {
+        List<PriceInfo> prices = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            BigDecimal unitPrice = new BigDecimal("29.99").add(BigDecimal.valueOf(i, 2));
+            prices.add(new PriceInfo(unitPrice, unitPrice.multiply(BigDecimal.valueOf(i + 1)), BigDecimal.ZERO,
+                    "Regular customer pricing."));
+        }
+        return prices;
+    }
+
+    /**
+     * Configured like the proxy factory's own mapper
+     */
+    static ObjectMapper objectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        mapper.configure(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT, true);
+        mapper.configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        return mapper;
+    }
+}
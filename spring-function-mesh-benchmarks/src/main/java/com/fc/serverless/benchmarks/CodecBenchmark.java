@@ -0,0 +1,144 @@
+package com.fc.serverless.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fc.serverless.codec.WireFormat;
+import com.fc.serverless.sample.domain.OrderRequest;
+import com.fc.serverless.sample.domain.PriceInfo;
+import com.fc.serverless.sample.domain.PricingConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of the sample domain types in each wire format, with
+ * the mapper configuration remote function proxies use.
+ *
+ * The mapper* methods go through objectMapper.readValue / writeValueAsBytes, as
+ * proxies did before codecs were precompiled; the precompiled* methods use an
+ * ObjectReader / ObjectWriter built once for the declared type, as proxies do now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public WireFormat format;
+
+    private ObjectMapper codec;
+    private JavaType orderRequestType;
+    private JavaType priceListType;
+    private ObjectReader orderRequestReader;
+    private ObjectWriter orderRequestWriter;
+    private ObjectReader priceListReader;
+    private ObjectWriter priceListWriter;
+    private OrderRequest orderRequest;
+    private PricingConfig pricingConfig;
+    private byte[] orderRequestBytes;
+    private byte[] pricingConfigBytes;
+
+    /**
+     * Price lists for the list benchmarks only, so their length does not multiply the others
+     */
+    @State(Scope.Benchmark)
+    public static class PriceLists {
+
+        /**
+         * 1 is a typical single result, 50 is above the compression threshold, 1000 a bulk response
+         */
+        @Param({"1", "50", "1000"})
+        public int items;
+
+        private List<PriceInfo> priceList;
+        private byte[] priceListBytes;
+
+        @Setup
+        public void setUp(CodecBenchmark benchmark) throws IOException {
+            priceList = BenchmarkData.priceList(items);
+            priceListBytes = benchmark.codec.writeValueAsBytes(priceList);
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        codec = format.codec(BenchmarkData.objectMapper());
+        orderRequestType = codec.constructType(OrderRequest.class);
+        priceListType = codec.getTypeFactory().constructCollectionType(List.class, PriceInfo.class);
+        orderRequestReader = codec.readerFor(orderRequestType);
+        orderRequestWriter = codec.writerFor(orderRequestType);
+        priceListReader = codec.readerFor(priceListType);
+        priceListWriter = codec.writerFor(priceListType);
+        orderRequest = BenchmarkData.orderRequest();
+        pricingConfig = BenchmarkData.pricingConfig();
+        orderRequestBytes = codec.writeValueAsBytes(orderRequest);
+        pricingConfigBytes = codec.writeValueAsBytes(pricingConfig);
+    }
+
+    @Benchmark
+    public byte[] mapperWriteOrderRequest() throws IOException {
+        return codec.writeValueAsBytes(orderRequest);
+    }
+
+    @Benchmark
+    public byte[] precompiledWriteOrderRequest() throws IOException {
+        return orderRequestWriter.writeValueAsBytes(orderRequest);
+    }
+
+    @Benchmark
+    public OrderRequest mapperReadOrderRequest() throws IOException {
+        return codec.readValue(orderRequestBytes, orderRequestType);
+    }
+
+    @Benchmark
+    public OrderRequest precompiledReadOrderRequest() throws IOException {
+        return orderRequestReader.readValue(orderRequestBytes);
+    }
+
+    @Benchmark
+    public byte[] encodePricingConfig() throws IOException {
+        return codec.writeValueAsBytes(pricingConfig);
+    }
+
+    @Benchmark
+    public PricingConfig decodePricingConfig() throws IOException {
+        return codec.readValue(pricingConfigBytes, PricingConfig.class);
+    }
+
+    @Benchmark
+    public byte[] mapperWriteValue(PriceLists lists) throws IOException {
+        return codec.writeValueAsBytes(lists.priceList);
+    }
+
+    @Benchmark
+    public byte[] precompiledWriter(PriceLists lists) throws IOException {
+        return priceListWriter.writeValueAsBytes(lists.priceList);
+    }
+
+    @Benchmark
+    public List<PriceInfo> mapperReadValue(PriceLists lists) throws IOException {
+        return codec.readValue(lists.priceListBytes, priceListType);
+    }
+
+    @Benchmark
+    public List<PriceInfo> precompiledReader(PriceLists lists) throws IOException {
+        return priceListReader.readValue(lists.priceListBytes);
+    }
+}
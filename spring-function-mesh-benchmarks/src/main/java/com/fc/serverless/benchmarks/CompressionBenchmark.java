@@ -0,0 +1,73 @@
+package com.fc.serverless.benchmarks;
+
+import com.fc.serverless.codec.ContentCoding;
+import com.fc.serverless.codec.WireFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size against CPU for each content coding on a JSON price list: the time to
+ * compress and inflate it, and the bytes it takes on the wire, printed when
+ * each trial starts. identity sends the payload as is and is the reference
+ * for both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+    @Param({"identity", "gzip", "zstd"})
+    public String coding;
+
+    /**
+     * Price list length: about 100 B, 1 KB, 20 KB and 200 KB of JSON
+     */
+    @Param({"1", "10", "200", "2000"})
+    public int items;
+
+    private ContentCoding contentCoding;
+    private byte[] payload;
+    private byte[] compressed;
+
+    @Setup
+    public void setUp() throws IOException {
+        contentCoding = ContentCoding.fromContentEncoding(coding);
+        payload = WireFormat.JSON.codec(BenchmarkData.objectMapper()).writeValueAsBytes(BenchmarkData.priceList(items));
+        compressed = contentCoding == null ? payload : contentCoding.compress(payload);
+        // Sizes do not vary between calls, so they are printed once rather than measured
+        System.out.printf("%ncoding=%s items=%d: payload %d bytes, wire %d bytes%n",
+                coding, items, payload.length, compressed.length);
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        return contentCoding == null ? payload : contentCoding.compress(payload);
+    }
+
+    @Benchmark
+    public byte[] decompress() throws IOException {
+        if (contentCoding == null) {
+            return compressed;
+        }
+        try (InputStream in = contentCoding.decompress(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.fc.serverless.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fc.serverless.core.annotation.RemoteFunction;
+import com.fc.serverless.lambda.FcLambdaHandler;
+import com.fc.serverless.lambda.FcLambdaStreamHandler;
+import com.fc.serverless.sample.domain.OrderRequest;
+import com.fc.serverless.sample.domain.PriceInfo;
+import com.fc.serverless.sample.domain.PricingConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * FcLambdaHandler.handleRequest round-trips through Spring Cloud Function for a
+ * price calculator that fetches its configuration from the stub server, as a
+ * direct invocation and as a Function URL event. The stream* benchmarks send the
+ * same events through FcLambdaStreamHandler as the runtime would, as JSON bytes.
+ *
+ * Console output is discarded while measuring, so the numbers include
+ * formatting it but not a terminal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 4)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LambdaHandlerBenchmark {
+
+    private StubFunctionServer server;
+    private FcLambdaHandler handler;
+    private FcLambdaStreamHandler streamHandler;
+    private Context context;
+    private Map<String, Object> invokeEvent;
+    private Map<String, Object> functionUrlEvent;
+    private byte[] invokeEventBytes;
+    private byte[] functionUrlEventBytes;
+    private ByteArrayOutputStream output;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new StubFunctionServer().respond("configSupplier", BenchmarkData.pricingConfig());
+
+        // FunctionInvoker reads its start class and the application properties from here
+        System.setProperty("MAIN_CLASS", HandlerApplication.class.getName());
+        System.setProperty("spring.cloud.function.definition", "priceCalculator");
+        System.setProperty("spring.main.banner-mode", "off");
+        System.setProperty("logging.level.root", "WARN");
+        System.setProperty("fc.functions.configSupplier.url", server.url("configSupplier"));
+        System.setProperty("fc.functions.configSupplier.cache.enabled", "false");
+        System.setProperty("fc.functions.configSupplier.coalesce", "false");
+
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        handler = new FcLambdaHandler();
+        streamHandler = new FcLambdaStreamHandler();
+        context = new StubContext("priceCalculator");
+
+        ObjectMapper objectMapper = BenchmarkData.objectMapper();
+        invokeEvent = objectMapper.convertValue(BenchmarkData.orderRequest(), new TypeReference<Map<String, Object>>() {});
+
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("content-type", "application/json");
+        headers.put("accept", "application/json");
+        Map<String, Object> http = new HashMap<>();
+        http.put("method", "POST");
+        http.put("path", "/");
+        functionUrlEvent = new HashMap<>();
+        functionUrlEvent.put("version", "2.0");
+        functionUrlEvent.put("routeKey", "$default");
+        functionUrlEvent.put("rawPath", "/");
+        functionUrlEvent.put("headers", headers);
+        functionUrlEvent.put("requestContext", Map.of("http", http, "requestId", "benchmark"));
+        functionUrlEvent.put("body", objectMapper.writeValueAsString(BenchmarkData.orderRequest()));
+        functionUrlEvent.put("isBase64Encoded", false);
+
+        invokeEventBytes = objectMapper.writeValueAsBytes(invokeEvent);
+        functionUrlEventBytes = objectMapper.writeValueAsBytes(functionUrlEvent);
+        output = new ByteArrayOutputStream();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+        server.close();
+    }
+
+    @Benchmark
+    public Object invoke() {
+        return handler.handleRequest(new HashMap<>(invokeEvent), context);
+    }
+
+    @Benchmark
+    public Object functionUrl() {
+        return handler.handleRequest(new HashMap<>(functionUrlEvent), context);
+    }
+
+    @Benchmark
+    public int streamInvoke() throws IOException {
+        output.reset();
+        streamHandler.handleRequest(new ByteArrayInputStream(invokeEventBytes), output, context);
+        return output.size();
+    }
+
+    @Benchmark
+    public int streamFunctionUrl() throws IOException {
+        output.reset();
+        streamHandler.handleRequest(new ByteArrayInputStream(functionUrlEventBytes), output, context);
+        return output.size();
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    public static class HandlerApplication {
+
+        @Bean
+        public Function<OrderRequest, PriceInfo> priceCalculator(PricingClient pricingClient) {
+            return request -> {
+                PricingConfig config = pricingClient.configSupplier.get();
+                BigDecimal subtotal = config.getBasePrice().multiply(BigDecimal.valueOf(request.getQuantity()));
+                BigDecimal discount = subtotal.multiply(config.getPremiumDiscount());
+                return new PriceInfo(config.getBasePrice(), subtotal.subtract(discount), discount,
+                        "Premium customer discount applied.");
+            };
+        }
+
+        @Bean
+        public PricingClient pricingClient() {
+            return new PricingClient();
+        }
+    }
+
+    public static class PricingClient {
+
+        @RemoteFunction(name = "configSupplier")
+        private Supplier<PricingConfig> configSupplier;
+    }
+
+    /**
+     * The parts of the Lambda runtime context the handler reads
+     */
+    private static final class StubContext implements Context {
+
+        private final String functionName;
+
+        StubContext(String functionName) {
+            this.functionName = functionName;
+        }
+
+        @Override
+        public String getAwsRequestId() {
+            return "00000000-0000-0000-0000-000000000000";
+        }
+
+        @Override
+        public String getLogGroupName() {
+            return "/aws/lambda/" + functionName;
+        }
+
+        @Override
+        public String getLogStreamName() {
+            return "benchmark";
+        }
+
+        @Override
+        public String getFunctionName() {
+            return functionName;
+        }
+
+        @Override
+        public String getFunctionVersion() {
+            return "$LATEST";
+        }
+
+        @Override
+        public String getInvokedFunctionArn() {
+            return "arn:aws:lambda:us-east-1:123456789012:function:" + functionName;
+        }
+
+        @Override
+        public CognitoIdentity getIdentity() {
+            return null;
+        }
+
+        @Override
+        public ClientContext getClientContext() {
+            return null;
+        }
+
+        @Override
+        public int getRemainingTimeInMillis() {
+            return 30_000;
+        }
+
+        @Override
+        public int getMemoryLimitInMB() {
+            return 1024;
+        }
+
+        @Override
+        public LambdaLogger getLogger() {
+            return new LambdaLogger() {
+                @Override
+                public void log(String message) {
+                }
+
+                @Override
+                public void log(byte[] message) {
+                }
+            };
+        }
+    }
+}
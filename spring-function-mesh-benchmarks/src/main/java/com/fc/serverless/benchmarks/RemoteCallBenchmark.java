@@ -0,0 +1,134 @@
+package com.fc.serverless.benchmarks;
+
+import com.fc.serverless.codec.WireFormat;
+import com.fc.serverless.config.RemoteFunctionBeanPostProcessor;
+import com.fc.serverless.core.annotation.RemoteFunction;
+import com.fc.serverless.proxy.RemoteFunctionProxyFactory;
+import com.fc.serverless.sample.domain.OrderRequest;
+import com.fc.serverless.sample.domain.PriceInfo;
+import com.fc.serverless.sample.domain.PricingConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Remote function proxies calling the stub server over loopback HTTP in each
+ * wire format and content coding: the whole client hop of a mesh call, from
+ * encoding the request to decoding the response.
+ *
+ * Caching and coalescing are off so every call reaches the server.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 4)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RemoteCallBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public WireFormat format;
+
+    @Param({"none", "gzip", "zstd"})
+    public String compression;
+
+    private StubFunctionServer server;
+    private RemoteFunctionProxyFactory proxyFactory;
+    private Clients clients;
+    private OrderRequest request;
+    private List<PriceInfo> priceList;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new StubFunctionServer()
+                .respond("priceCalculator", BenchmarkData.priceInfo())
+                .respond("repricePriceList", BenchmarkData.priceList(50))
+                .respond("configSupplier", BenchmarkData.pricingConfig());
+
+        Map<String, Object> properties = new HashMap<>();
+        for (String functionName : List.of("priceCalculator", "repricePriceList", "configSupplier")) {
+            properties.put("fc.functions." + functionName + ".url", server.url(functionName));
+        }
+        properties.put("fc.functions.default.cache.enabled", "false");
+        properties.put("fc.functions.default.coalesce", "false");
+        properties.put("fc.functions.default.wireFormat", format.name());
+        if (!compression.equals("none")) {
+            properties.put("fc.functions.default.compression.enabled", "true");
+            properties.put("fc.functions.default.compression.codec", compression);
+        }
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+
+        proxyFactory = new RemoteFunctionProxyFactory();
+        clients = new Clients();
+        new RemoteFunctionBeanPostProcessor(proxyFactory, environment).postProcessBeforeInitialization(clients, "clients");
+        request = BenchmarkData.orderRequest();
+        priceList = BenchmarkData.priceList(50);
+    }
+
+    @TearDown
+    public void tearDown() {
+        proxyFactory.destroy();
+        server.close();
+    }
+
+    @Benchmark
+    public PriceInfo call() {
+        return clients.priceCalculator.apply(request);
+    }
+
+    @Benchmark
+    public PriceInfo callAsync() {
+        return clients.priceCalculatorAsync.apply(request).join();
+    }
+
+    /**
+     * Request and response above the compression threshold; responses come back
+     * in the best coding the client accepts, so the codec setting only changes
+     * the request side
+     */
+    @Benchmark
+    public List<PriceInfo> callPriceList() {
+        return clients.repricePriceList.apply(priceList);
+    }
+
+    @Benchmark
+    public PricingConfig supplier() {
+        return clients.configSupplier.get();
+    }
+
+    static class Clients {
+
+        @RemoteFunction(name = "priceCalculator")
+        private Function<OrderRequest, PriceInfo> priceCalculator;
+
+        @RemoteFunction(name = "priceCalculator")
+        private Function<OrderRequest, CompletableFuture<PriceInfo>> priceCalculatorAsync;
+
+        @RemoteFunction(name = "repricePriceList")
+        private Function<List<PriceInfo>, List<PriceInfo>> repricePriceList;
+
+        @RemoteFunction(name = "configSupplier")
+        private Supplier<PricingConfig> configSupplier;
+    }
+}
@@ -0,0 +1,87 @@
+package com.fc.serverless.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fc.serverless.sample.domain.OrderRequest;
+import com.fc.serverless.sample.domain.PriceInfo;
+import com.fc.serverless.sample.domain.PricingConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The transport remote function proxies used before the pooled client: a bare
+ * RestTemplate on SimpleClientHttpRequestFactory, with the request and response
+ * as JSON strings. Calls the same stub server as RemoteCallBenchmark, so
+ * {@code call} and {@code supplier} compare with that suite's methods at
+ * format=JSON, compression=none.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 4)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RestTemplateBaselineBenchmark {
+
+    private StubFunctionServer server;
+    private RestTemplate restTemplate;
+    private ObjectMapper objectMapper;
+    private String priceCalculatorUrl;
+    private String configSupplierUrl;
+    private OrderRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new StubFunctionServer()
+                .respond("priceCalculator", BenchmarkData.priceInfo())
+                .respond("configSupplier", BenchmarkData.pricingConfig());
+        restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        objectMapper = BenchmarkData.objectMapper();
+        priceCalculatorUrl = server.url("priceCalculator");
+        configSupplierUrl = server.url("configSupplier");
+        request = BenchmarkData.orderRequest();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public PriceInfo call() throws IOException {
+        return post(priceCalculatorUrl, "priceCalculator", objectMapper.writeValueAsString(request), PriceInfo.class);
+    }
+
+    @Benchmark
+    public PricingConfig supplier() throws IOException {
+        return post(configSupplierUrl, "configSupplier", null, PricingConfig.class);
+    }
+
+    private <T> T post(String url, String functionName, String jsonInput, Class<T> returnType) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Accept", MediaType.APPLICATION_JSON_VALUE);
+        headers.set("X-FC-Framework", "true");
+        headers.set("X-FC-Function", functionName);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(url, new HttpEntity<>(jsonInput, headers), String.class);
+        return objectMapper.readValue(response.getBody(), returnType);
+    }
+}
@@ -0,0 +1,122 @@
+package com.fc.serverless.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fc.serverless.codec.ContentCoding;
+import com.fc.serverless.codec.WireFormat;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for deployed functions: answers every call to a function
+ * with a canned result, encoded in the format the caller accepts and compressed
+ * when it accepts an encoding, so benchmarks measure the client rather than a
+ * function body.
+ *
+ * Serves exported function paths ({@code /{name}}) and the Lambda Invoke API
+ * ({@code /2015-03-31/functions/{name}/invocations}). Request signatures are
+ * not checked.
+ */
+final class StubFunctionServer implements AutoCloseable {
+
+    private static final String INVOKE_PREFIX = "/2015-03-31/functions/";
+
+    private final HttpServer server;
+    private final ObjectMapper objectMapper = BenchmarkData.objectMapper();
+    private final Map<String, Object> results = new ConcurrentHashMap<>();
+    // Encoded once per function, format and coding; the stub should cost as little as possible
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+
+    static {
+        // Headers and body go out in separate writes; with Nagle on, each call waits out a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    StubFunctionServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // Handled on the dispatcher thread: responses are canned, a handoff to a pool would only add latency
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Answer calls to the function with the given result
+     */
+    StubFunctionServer respond(String functionName, Object result) {
+        results.put(functionName, result);
+        responses.keySet().removeIf(key -> key.startsWith(functionName + "|"));
+        return this;
+    }
+
+    String url(String functionName) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/" + functionName;
+    }
+
+    /**
+     * Endpoint to configure as fc.functions.{name}.lambda.endpoint
+     */
+    String lambdaEndpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+
+            String path = exchange.getRequestURI().getPath();
+            boolean invoke = path.startsWith(INVOKE_PREFIX);
+            String functionName = invoke
+                    ? path.substring(INVOKE_PREFIX.length(), path.indexOf('/', INVOKE_PREFIX.length()))
+                    : path.substring(1);
+            Object result = results.get(functionName);
+            if (result == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            // The Invoke API returns the function's JSON result as it is
+            WireFormat format = invoke ? WireFormat.JSON
+                    : WireFormat.fromAccept(exchange.getRequestHeaders().getFirst("Accept"));
+            ContentCoding coding = invoke ? null
+                    : ContentCoding.negotiate(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            Response response = responses.computeIfAbsent(functionName + "|" + format + "|" + coding,
+                    key -> encode(result, format, coding));
+
+            exchange.getResponseHeaders().set("Content-Type", format.getMediaType().toString());
+            if (response.coding() != null) {
+                exchange.getResponseHeaders().set("Content-Encoding", response.coding().getToken());
+            }
+            exchange.sendResponseHeaders(200, response.body().length);
+            exchange.getResponseBody().write(response.body());
+        }
+    }
+
+    /**
+     * Compressed above the same threshold as exported functions
+     */
+    private Response encode(Object result, WireFormat format, ContentCoding coding) {
+        try {
+            byte[] encoded = format.codec(objectMapper).writeValueAsBytes(result);
+            return coding != null && encoded.length >= ContentCoding.DEFAULT_MIN_SIZE
+                    ? new Response(coding.compress(encoded), coding)
+                    : new Response(encoded, null);
+        } catch (IOException e) {
+            throw new RuntimeException("FC Framework: Stub server could not encode " + result, e);
+        }
+    }
+
+    private record Response(byte[] body, ContentCoding coding) {
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
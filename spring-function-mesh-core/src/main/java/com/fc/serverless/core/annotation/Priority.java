@@ -0,0 +1,11 @@
+package com.fc.serverless.core.annotation;
+
+/**
+ * How important a remote call is when the function's concurrency limit is
+ * reached: background calls are shed first, critical calls last.
+ */
+public enum Priority {
+    CRITICAL,
+    NORMAL,
+    BACKGROUND
+}
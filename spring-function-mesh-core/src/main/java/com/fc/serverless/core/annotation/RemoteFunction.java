@@ -7,4 +7,16 @@ import java.lang.annotation.*;
 @Documented
 public @interface RemoteFunction {
     String name() default "";
+
+    /**
+     * Marks the remote function as safe to repeat: failed calls may be retried, slow
+     * calls hedged, and concurrent equal calls share one request. Results are only
+     * memoized when a cache.ttl is configured.
+     */
+    boolean idempotent() default false;
+
+    /**
+     * Priority of calls made through this proxy when a concurrency limit is enabled
+     */
+    Priority priority() default Priority.NORMAL;
 }
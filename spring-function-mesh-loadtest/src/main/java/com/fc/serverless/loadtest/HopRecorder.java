@@ -0,0 +1,72 @@
+package com.fc.serverless.loadtest;
+
+import com.fc.serverless.tracing.FunctionSpan;
+import com.fc.serverless.tracing.SpanReporter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the spans of every hop in the mesh into a latency histogram per
+ * side and function, e.g. "client priceCalculator" as seen by OrderProcessor
+ * and "server priceCalculator" as handled by PriceCalculator.
+ *
+ * One instance is shared by the three functions, which run in the same JVM.
+ */
+final class HopRecorder implements SpanReporter {
+
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Hop> hops = new ConcurrentHashMap<>();
+
+    @Override
+    public void report(FunctionSpan span) {
+        String name = span.kind().name().toLowerCase() + " " + span.functionName();
+        hops.computeIfAbsent(name, key -> new Hop()).record(span);
+    }
+
+    /**
+     * Forgets the warmup, so the breakdown covers the same window as the load generator
+     */
+    void reset() {
+        hops.values().forEach(Hop::reset);
+    }
+
+    /**
+     * Histograms by hop name, in name order so clients and servers of a function sit together
+     */
+    Map<String, Hop> snapshot() {
+        return new TreeMap<>(hops);
+    }
+
+    static final class Hop {
+
+        private final Histogram micros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+
+        private void record(FunctionSpan span) {
+            micros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(span.durationNanos()), HIGHEST_TRACKABLE_MICROS));
+            if (span.error() != null) {
+                errors.increment();
+            }
+        }
+
+        private void reset() {
+            micros.reset();
+            errors.reset();
+        }
+
+        Histogram getMicros() {
+            return micros;
+        }
+
+        long getErrors() {
+            return errors.sum();
+        }
+    }
+}
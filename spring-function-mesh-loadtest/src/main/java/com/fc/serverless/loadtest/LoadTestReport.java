@@ -0,0 +1,161 @@
+package com.fc.serverless.loadtest;
+
+import com.fc.serverless.loadtest.OpenModelLoadGenerator.Outcome;
+import com.fc.serverless.loadtest.OpenModelLoadGenerator.Result;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of a run: end-to-end latency at /orderProcessor, the same broken down
+ * by hop from the mesh's spans, the mean time per phase of each hop from its
+ * meters, and what the IAM stand-ins accepted and rejected.
+ *
+ * Written to report.txt, with each latency distribution also written as an
+ * HdrHistogram .hgrm percentile file for plotting.
+ */
+final class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestSettings settings;
+    private final Result result;
+    private final Map<String, HopRecorder.Hop> hops;
+    private final Map<String, Map<String, PhaseTime>> phases;
+    private final Map<String, SigV4VerifyingFilter> iamStandIns;
+
+    LoadTestReport(LoadTestSettings settings, Result result, Map<String, HopRecorder.Hop> hops,
+                   Map<String, Map<String, PhaseTime>> phases, Map<String, SigV4VerifyingFilter> iamStandIns) {
+        this.settings = settings;
+        this.result = result;
+        this.hops = hops;
+        this.phases = phases;
+        this.iamStandIns = iamStandIns;
+    }
+
+    /**
+     * Total time and count of every fc.remote.phase and fc.export.phase timer, by hop and phase
+     */
+    static Map<String, Map<String, PhaseTime>> phases(MeterRegistry registry) {
+        Map<String, Map<String, PhaseTime>> phases = new TreeMap<>();
+        collect(registry, "fc.remote.phase", "client ", phases);
+        collect(registry, "fc.export.phase", "server ", phases);
+        return phases;
+    }
+
+    private static void collect(MeterRegistry registry, String name, String side,
+                                Map<String, Map<String, PhaseTime>> phases) {
+        for (Timer timer : registry.find(name).timers()) {
+            String hop = side + timer.getId().getTag("function");
+            phases.computeIfAbsent(hop, key -> new LinkedHashMap<>())
+                    .put(timer.getId().getTag("phase"), new PhaseTime(timer.count(), timer.totalTime(TimeUnit.NANOSECONDS)));
+        }
+    }
+
+    /**
+     * The phase times recorded between two snapshots
+     */
+    static Map<String, Map<String, PhaseTime>> since(Map<String, Map<String, PhaseTime>> before,
+                                                     Map<String, Map<String, PhaseTime>> after) {
+        Map<String, Map<String, PhaseTime>> delta = new TreeMap<>();
+        after.forEach((hop, hopPhases) -> hopPhases.forEach((phase, time) -> {
+            PhaseTime earlier = before.getOrDefault(hop, Map.of()).getOrDefault(phase, PhaseTime.ZERO);
+            delta.computeIfAbsent(hop, key -> new LinkedHashMap<>()).put(phase,
+                    new PhaseTime(time.count() - earlier.count(), time.totalNanos() - earlier.totalNanos()));
+        }));
+        return delta;
+    }
+
+    void print(PrintStream out) {
+        out.println();
+        out.println("📈 FC Load Test: POST /orderProcessor, open model");
+        out.println("   " + settings);
+        out.println();
+
+        double seconds = result.getMeasuredNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        out.printf("Throughput  %.1f req/s ok of %.1f req/s target over %.1fs%n",
+                result.getThroughput(), settings.getRate(), seconds);
+        out.printf("Requests    %d sent, %d ok, %d failed orders, %d HTTP errors, %d timeouts, %d other errors%n",
+                result.getSent(), result.getCount(Outcome.OK), result.getCount(Outcome.FAILED_ORDER),
+                result.getCount(Outcome.HTTP_ERROR), result.getCount(Outcome.TIMEOUT), result.getCount(Outcome.ERROR));
+        out.println();
+
+        out.printf("%-28s %9s %9s %9s %9s %9s %9s%n", "Latency (ms)", "count", "p50", "p90", "p99", "p99.9", "max");
+        printRow(out, "response time (corrected)", result.getResponseTime());
+        printRow(out, "service time (uncorrected)", result.getServiceTime());
+        out.println();
+
+        out.printf("%-28s %9s %9s %9s %9s %9s %9s%n", "Per hop (ms)", "count", "p50", "p90", "p99", "p99.9", "max");
+        hops.forEach((hop, recorded) -> {
+            printRow(out, hop, recorded.getMicros());
+            if (recorded.getErrors() > 0) {
+                out.println("  " + recorded.getErrors() + " failed");
+            }
+        });
+        out.println();
+
+        out.println("Mean per call (ms)");
+        phases.forEach((hop, hopPhases) -> {
+            StringBuilder line = new StringBuilder(String.format("  %-26s", hop));
+            int length = line.length();
+            hopPhases.forEach((phase, time) -> {
+                if (time.count() > 0) {
+                    line.append(String.format(" %s %.3f", phase, time.totalNanos() / time.count() / 1_000_000.0));
+                }
+            });
+            // Functions served by the web export rather than the Lambda handler time no phases
+            if (line.length() > length) {
+                out.println(line);
+            }
+        });
+        out.println();
+
+        iamStandIns.forEach((function, standIn) -> out.printf("SigV4 stand-in for %s: %d verified, %d rejected%n",
+                function, standIn.getVerified(), standIn.getRejected()));
+    }
+
+    private static void printRow(PrintStream out, String label, Histogram micros) {
+        StringBuilder row = new StringBuilder(String.format("  %-26s %9d", label, micros.getTotalCount()));
+        for (double percentile : PERCENTILES) {
+            row.append(String.format(" %9.3f", micros.getValueAtPercentile(percentile) / 1000.0));
+        }
+        row.append(String.format(" %9.3f", micros.getMaxValue() / 1000.0));
+        out.println(row);
+    }
+
+    /**
+     * report.txt plus one .hgrm per latency distribution, in milliseconds
+     */
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("report.txt")))) {
+            print(out);
+        }
+        writeDistribution(directory.resolve("response-time.hgrm"), result.getResponseTime());
+        writeDistribution(directory.resolve("service-time.hgrm"), result.getServiceTime());
+        for (Map.Entry<String, HopRecorder.Hop> hop : hops.entrySet()) {
+            writeDistribution(directory.resolve("hop-" + hop.getKey().replace(' ', '-') + ".hgrm"),
+                    hop.getValue().getMicros());
+        }
+    }
+
+    private static void writeDistribution(Path file, Histogram micros) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            micros.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    record PhaseTime(long count, double totalNanos) {
+
+        static final PhaseTime ZERO = new PhaseTime(0, 0);
+    }
+}
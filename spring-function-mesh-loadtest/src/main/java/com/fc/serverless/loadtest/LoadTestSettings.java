@@ -0,0 +1,128 @@
+package com.fc.serverless.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test options, given as --name=value arguments:
+ *
+ * --rate         requests per second sent to /orderProcessor (default 100)
+ * --warmup       time at the same rate before measuring (default 15s)
+ * --duration     measured time (default 60s)
+ * --maxInFlight  outstanding requests before sending waits; waiting still counts
+ *                toward response time (default 1000)
+ * --timeout      per-request timeout (default 10s)
+ * --seed         seed of the order mix, for repeatable runs (default 42)
+ * --output       directory for report.txt and the .hgrm latency distributions
+ *                (default target/loadtest)
+ *
+ * Any other dotted argument, such as --fc.functions.default.compression.enabled=true,
+ * is passed to all three functions of the mesh.
+ */
+final class LoadTestSettings {
+
+    private final double rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final Duration timeout;
+    private final long seed;
+    private final Path output;
+    private final Map<String, String> meshProperties;
+
+    private LoadTestSettings(double rate, Duration warmup, Duration duration, int maxInFlight, Duration timeout,
+                             long seed, Path output, Map<String, String> meshProperties) {
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.maxInFlight = maxInFlight;
+        this.timeout = timeout;
+        this.seed = seed;
+        this.output = output;
+        this.meshProperties = meshProperties;
+    }
+
+    static LoadTestSettings parse(String[] args) {
+        double rate = 100;
+        Duration warmup = Duration.ofSeconds(15);
+        Duration duration = Duration.ofSeconds(60);
+        int maxInFlight = 1000;
+        Duration timeout = Duration.ofSeconds(10);
+        long seed = 42;
+        Path output = Path.of("target", "loadtest");
+        Map<String, String> meshProperties = new LinkedHashMap<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("FC Framework: Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "rate" -> rate = Double.parseDouble(value);
+                case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+                case "duration" -> duration = DurationStyle.detectAndParse(value);
+                case "maxInFlight" -> maxInFlight = Integer.parseInt(value);
+                case "timeout" -> timeout = DurationStyle.detectAndParse(value);
+                case "seed" -> seed = Long.parseLong(value);
+                case "output" -> output = Path.of(value);
+                default -> {
+                    if (name.indexOf('.') < 0) {
+                        throw new IllegalArgumentException("FC Framework: Unknown load test option --" + name);
+                    }
+                    meshProperties.put(name, value);
+                }
+            }
+        }
+        if (rate <= 0 || duration.isZero() || duration.isNegative() || warmup.isNegative() || maxInFlight < 1) {
+            throw new IllegalArgumentException("FC Framework: rate, duration and maxInFlight must be positive");
+        }
+        return new LoadTestSettings(rate, warmup, duration, maxInFlight, timeout, seed, output,
+                Collections.unmodifiableMap(meshProperties));
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    Duration getWarmup() {
+        return warmup;
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    Duration getTimeout() {
+        return timeout;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    Path getOutput() {
+        return output;
+    }
+
+    Map<String, String> getMeshProperties() {
+        return meshProperties;
+    }
+
+    @Override
+    public String toString() {
+        return "rate=" + rate + "/s, warmup=" + warmup.toSeconds() + "s, duration=" + duration.toSeconds() + "s" +
+                ", maxInFlight=" + maxInFlight + ", timeout=" + timeout.toMillis() + "ms, seed=" + seed +
+                (meshProperties.isEmpty() ? "" : ", mesh=" + meshProperties);
+    }
+}
@@ -0,0 +1,55 @@
+package com.fc.serverless.loadtest;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * Boots the sample mesh locally and drives /orderProcessor at a constant
+ * arrival rate, then reports end-to-end and per-hop latency:
+ *
+ *   java -jar spring-function-mesh-loadtest/target/loadtest.jar --rate=200 --duration=60s
+ *
+ * Exits with 1 when any request failed or any signature was rejected, so a
+ * run can gate a build. See {@link LoadTestSettings} for the options.
+ */
+public final class MeshLoadTest {
+
+    private MeshLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        PrintStream console = System.out;
+        console.println("🚀 FC Load Test: starting ConfigSupplier, PriceCalculator and OrderProcessor...");
+
+        boolean passed;
+        try (LocalMesh mesh = LocalMesh.start(settings.getMeshProperties())) {
+            console.println("📨 FC Load Test: " + settings + " against " + mesh.getOrderProcessorUrl());
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(settings, mesh.getOrderProcessorUrl(), console);
+
+            PhaseSnapshot phasesAtStart = new PhaseSnapshot();
+            OpenModelLoadGenerator.Result result = generator.run(() -> {
+                mesh.getHops().reset();
+                phasesAtStart.taken = LoadTestReport.phases(mesh.getMeterRegistry());
+            });
+
+            LoadTestReport report = new LoadTestReport(settings, result, mesh.getHops().snapshot(),
+                    LoadTestReport.since(phasesAtStart.taken, LoadTestReport.phases(mesh.getMeterRegistry())),
+                    mesh.getIamStandIns());
+            report.print(console);
+            report.write(settings.getOutput());
+            console.println();
+            console.println("📄 FC Load Test: report and latency distributions written to " +
+                    settings.getOutput().toAbsolutePath());
+
+            long rejected = mesh.getIamStandIns().values().stream().mapToLong(SigV4VerifyingFilter::getRejected).sum();
+            passed = result.getErrors() == 0 && rejected == 0;
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static final class PhaseSnapshot {
+
+        private Map<String, Map<String, LoadTestReport.PhaseTime>> taken = Map.of();
+    }
+}
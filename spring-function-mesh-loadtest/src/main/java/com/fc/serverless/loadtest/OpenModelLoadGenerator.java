@@ -0,0 +1,272 @@
+package com.fc.serverless.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fc.serverless.sample.domain.OrderRequest;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends orders to /orderProcessor at a constant arrival rate, whether or not
+ * earlier requests have completed (an open model, like traffic from many
+ * independent users).
+ *
+ * Each request has an intended send time on a fixed schedule, and its response
+ * time is measured from then rather than from when it actually went out. When
+ * the generator falls behind, because the mesh stalls or maxInFlight requests
+ * are outstanding, the requests it could not send on time are charged for the
+ * wait instead of dropping out of the results (coordinated omission). Service
+ * time, from the actual send, is recorded alongside for comparison.
+ */
+final class OpenModelLoadGenerator {
+
+    private static final int DISTINCT_ORDERS = 1024;
+    private static final long PROGRESS_INTERVAL_SECONDS = 5;
+    private static final String[] CUSTOMER_TYPES = {"REGULAR", "REGULAR", "REGULAR", "PREMIUM", "PREMIUM", "VIP"};
+
+    private final LoadTestSettings settings;
+    private final URI target;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<byte[]> orders;
+    private final HttpClient client;
+    private final PrintStream console;
+
+    OpenModelLoadGenerator(LoadTestSettings settings, String targetUrl, PrintStream console) {
+        this.settings = settings;
+        this.target = URI.create(targetUrl);
+        this.console = console;
+        this.orders = orders(settings.getSeed());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.getTimeout())
+                .build();
+    }
+
+    /**
+     * The same order mix for the same seed: mostly regular customers, quantities
+     * on both sides of the bulk discount threshold
+     */
+    private List<byte[]> orders(long seed) {
+        Random random = new Random(seed);
+        List<byte[]> bodies = new ArrayList<>(DISTINCT_ORDERS);
+        for (int i = 0; i < DISTINCT_ORDERS; i++) {
+            OrderRequest order = new OrderRequest(String.format("PROD-%03d", 1 + random.nextInt(100)),
+                    1 + random.nextInt(20), CUSTOMER_TYPES[random.nextInt(CUSTOMER_TYPES.length)]);
+            try {
+                bodies.add(objectMapper.writeValueAsBytes(order));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return bodies;
+    }
+
+    /**
+     * Runs the warmup and then the measured window
+     *
+     * @param onMeasurementStart called once, on the sending thread, when the first measured request is due
+     */
+    Result run(Runnable onMeasurementStart) throws InterruptedException {
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.getRate();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureStart = start + settings.getWarmup().toNanos();
+        long end = measureStart + settings.getDuration().toNanos();
+
+        Result result = new Result();
+        Recorder progress = new Recorder(HopRecorder.HIGHEST_TRACKABLE_MICROS, 3);
+        Semaphore inFlight = new Semaphore(settings.getMaxInFlight());
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> printProgress(progress, start, measureStart, result),
+                PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        boolean measuring = false;
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= end) {
+                    break;
+                }
+                if (!measuring && intended >= measureStart) {
+                    measuring = true;
+                    onMeasurementStart.run();
+                }
+                waitUntil(intended);
+                // Waiting for a slot delays this request past its intended time, which its response time includes
+                inFlight.acquire();
+                send(orders.get((int) (i % orders.size())), intended, measuring, inFlight, progress, result);
+            }
+            // Let the stragglers finish or time out before the books are closed
+            long drainSeconds = settings.getTimeout().toSeconds() + 5;
+            if (!inFlight.tryAcquire(settings.getMaxInFlight(), drainSeconds, TimeUnit.SECONDS)) {
+                console.println("⚠️ FC Framework: " + (settings.getMaxInFlight() - inFlight.availablePermits()) +
+                        " requests still outstanding after " + drainSeconds + "s");
+            }
+        } finally {
+            reporter.shutdownNow();
+        }
+        result.measuredNanos = Math.max(result.lastCompletion.get(), end) - measureStart;
+        return result;
+    }
+
+    private void send(byte[] order, long intended, boolean measured, Semaphore inFlight, Recorder progress,
+                      Result result) {
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .timeout(settings.getTimeout())
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(order))
+                .build();
+        long sent = System.nanoTime();
+        if (measured) {
+            result.sent.increment();
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+            long done = System.nanoTime();
+            try {
+                long responseMicros = clamp(TimeUnit.NANOSECONDS.toMicros(done - intended));
+                progress.recordValue(responseMicros);
+                if (measured) {
+                    result.record(outcome(response, error), responseMicros,
+                            clamp(TimeUnit.NANOSECONDS.toMicros(done - sent)));
+                    result.lastCompletion.accumulateAndGet(done, Math::max);
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private Outcome outcome(HttpResponse<byte[]> response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            return cause instanceof HttpTimeoutException ? Outcome.TIMEOUT : Outcome.ERROR;
+        }
+        if (response.statusCode() != 200) {
+            return Outcome.HTTP_ERROR;
+        }
+        // OrderProcessor reports downstream failures as an unsuccessful order rather than an error status
+        try {
+            JsonNode order = objectMapper.readTree(response.body());
+            return order.path("success").asBoolean(false) ? Outcome.OK : Outcome.FAILED_ORDER;
+        } catch (Exception e) {
+            return Outcome.ERROR;
+        }
+    }
+
+    private void printProgress(Recorder progress, long start, long measureStart, Result result) {
+        Histogram interval = progress.getIntervalHistogram();
+        long now = System.nanoTime();
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(now - start);
+        String phase = now < measureStart ? "warmup " : "measure";
+        console.printf("⏱️ %s %4ds  %8.1f req/s  p50 %8.3fms  p99 %8.3fms  max %8.3fms  errors %d%n",
+                phase, elapsed, interval.getTotalCount() / (double) PROGRESS_INTERVAL_SECONDS,
+                interval.getValueAtPercentile(50) / 1000.0, interval.getValueAtPercentile(99) / 1000.0,
+                interval.getMaxValue() / 1000.0, result.getErrors());
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static long clamp(long micros) {
+        return Math.min(Math.max(micros, 0), HopRecorder.HIGHEST_TRACKABLE_MICROS);
+    }
+
+    enum Outcome {
+        OK,
+        // 200 with success=false from OrderProcessor
+        FAILED_ORDER,
+        HTTP_ERROR,
+        TIMEOUT,
+        ERROR
+    }
+
+    /**
+     * Requests of the measured window. Failed and timed-out requests count toward
+     * latency too, so failing fast cannot make the percentiles look better.
+     */
+    static final class Result {
+
+        private final Histogram responseTime = new ConcurrentHistogram(HopRecorder.HIGHEST_TRACKABLE_MICROS, 3);
+        private final Histogram serviceTime = new ConcurrentHistogram(HopRecorder.HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder[] outcomes = new LongAdder[Outcome.values().length];
+        private final AtomicLong lastCompletion = new AtomicLong(Long.MIN_VALUE);
+        private long measuredNanos;
+
+        private Result() {
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] = new LongAdder();
+            }
+        }
+
+        private void record(Outcome outcome, long responseMicros, long serviceMicros) {
+            outcomes[outcome.ordinal()].increment();
+            responseTime.recordValue(responseMicros);
+            serviceTime.recordValue(serviceMicros);
+        }
+
+        /**
+         * Response time in microseconds from the intended send time, corrected for coordinated omission
+         */
+        Histogram getResponseTime() {
+            return responseTime;
+        }
+
+        /**
+         * Service time in microseconds from the actual send time, uncorrected
+         */
+        Histogram getServiceTime() {
+            return serviceTime;
+        }
+
+        long getSent() {
+            return sent.sum();
+        }
+
+        long getCount(Outcome outcome) {
+            return outcomes[outcome.ordinal()].sum();
+        }
+
+        long getErrors() {
+            return getCount(Outcome.FAILED_ORDER) + getCount(Outcome.HTTP_ERROR) +
+                    getCount(Outcome.TIMEOUT) + getCount(Outcome.ERROR);
+        }
+
+        /**
+         * From the first measured request's intended time to the last completion
+         */
+        long getMeasuredNanos() {
+            return measuredNanos;
+        }
+
+        double getThroughput() {
+            return getCount(Outcome.OK) / (measuredNanos / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
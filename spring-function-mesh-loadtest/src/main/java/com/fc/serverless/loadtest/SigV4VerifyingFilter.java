@@ -0,0 +1,323 @@
+package com.fc.serverless.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the IAM check in front of a Function URL: rejects requests
+ * whose SigV4 signature does not verify against the mesh's credentials with 403,
+ * as AWS would.
+ *
+ * The canonical request is rebuilt from the headers the caller declares as
+ * signed, the way the service side does it, independently of the starter's
+ * signer so a signing bug shows up as rejected requests.
+ */
+final class SigV4VerifyingFilter extends OncePerRequestFilter {
+
+    private static final Log log = LogFactory.getLog(SigV4VerifyingFilter.class);
+
+    private static final Pattern AUTHORIZATION = Pattern.compile(
+            "AWS4-HMAC-SHA256 Credential=([^/]+)/(\\d{8})/([^/]+)/([^/]+)/aws4_request,\\s*" +
+                    "SignedHeaders=([a-z0-9;\\-]+),\\s*Signature=([0-9a-f]{64})");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(5);
+    private static final String SERVICE = "lambda";
+
+    private final String accessKeyId;
+    private final String secretAccessKey;
+    private final LongAdder verified = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    SigV4VerifyingFilter(String accessKeyId, String secretAccessKey) {
+        this.accessKeyId = accessKeyId;
+        this.secretAccessKey = secretAccessKey;
+    }
+
+    long getVerified() {
+        return verified.sum();
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        String failure = verify(request, body);
+        if (failure != null) {
+            rejected.increment();
+            log.warn("🔒 FC Framework: Rejected " + request.getMethod() + " " + request.getRequestURI() + ": " + failure);
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"Message\":\"" + failure + "\"}");
+            return;
+        }
+        verified.increment();
+        chain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    /**
+     * The reason the request is rejected, or null when its signature verifies
+     */
+    String verify(HttpServletRequest request, byte[] body) {
+        String authorization = request.getHeader("Authorization");
+        if (authorization == null) {
+            return "Missing Authentication Token";
+        }
+        Matcher matcher = AUTHORIZATION.matcher(authorization);
+        if (!matcher.matches()) {
+            return "Malformed Authorization header";
+        }
+        String credentialDate = matcher.group(2);
+        String region = matcher.group(3);
+        String service = matcher.group(4);
+        List<String> signedHeaders = List.of(matcher.group(5).split(";"));
+        if (!accessKeyId.equals(matcher.group(1))) {
+            return "The security token included in the request is invalid";
+        }
+        if (!SERVICE.equals(service)) {
+            return "Credential should be scoped to correct service: '" + SERVICE + "'";
+        }
+        if (!signedHeaders.contains("host") || !signedHeaders.contains("x-amz-date")) {
+            return "Host and X-Amz-Date must be signed";
+        }
+        if (!sorted(signedHeaders)) {
+            return "SignedHeaders must be in lower-case alphabetical order";
+        }
+
+        String amzDate = request.getHeader("X-Amz-Date");
+        Instant signedAt;
+        try {
+            signedAt = Instant.from(AMZ_DATE.parse(amzDate));
+        } catch (DateTimeParseException | NullPointerException e) {
+            return "Missing or malformed X-Amz-Date";
+        }
+        if (!amzDate.startsWith(credentialDate)) {
+            return "Credential date does not match X-Amz-Date";
+        }
+        if (Duration.between(signedAt, Instant.now()).abs().compareTo(MAX_CLOCK_SKEW) > 0) {
+            return "Signature expired: " + amzDate + " is more than 5 minutes from now";
+        }
+
+        String payloadHash = HexFormat.of().formatHex(sha256(body));
+        String declaredHash = request.getHeader("X-Amz-Content-Sha256");
+        if (declaredHash != null && !declaredHash.equals(payloadHash) && !declaredHash.equals("UNSIGNED-PAYLOAD")) {
+            return "X-Amz-Content-Sha256 does not match the body";
+        }
+
+        StringBuilder canonicalRequest = new StringBuilder(512)
+                .append(request.getMethod()).append('\n')
+                .append(canonicalUri(request.getRequestURI())).append('\n')
+                .append(canonicalQuery(request.getQueryString())).append('\n');
+        for (String name : signedHeaders) {
+            List<String> values = Collections.list(request.getHeaders(name));
+            if (values.isEmpty()) {
+                return "Signed header " + name + " is missing from the request";
+            }
+            List<String> trimmed = new ArrayList<>(values.size());
+            values.forEach(value -> trimmed.add(WHITESPACE.matcher(value.trim()).replaceAll(" ")));
+            canonicalRequest.append(name).append(':').append(String.join(",", trimmed)).append('\n');
+        }
+        canonicalRequest.append('\n')
+                .append(String.join(";", signedHeaders)).append('\n')
+                .append(declaredHash != null ? declaredHash : payloadHash);
+
+        String scope = credentialDate + "/" + region + "/" + service + "/aws4_request";
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n" +
+                HexFormat.of().formatHex(sha256(canonicalRequest.toString().getBytes(StandardCharsets.UTF_8)));
+
+        byte[] key = hmac(("AWS4" + secretAccessKey).getBytes(StandardCharsets.UTF_8), credentialDate);
+        key = hmac(key, region);
+        key = hmac(key, service);
+        key = hmac(key, "aws4_request");
+        byte[] expected = HexFormat.of().formatHex(hmac(key, stringToSign)).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = matcher.group(6).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return "The request signature we calculated does not match the signature you provided";
+        }
+        return null;
+    }
+
+    private static boolean sorted(List<String> names) {
+        for (int i = 1; i < names.size(); i++) {
+            if (names.get(i - 1).compareTo(names.get(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The path as sent, with each segment URI-encoded once more, as every service but S3 expects
+     */
+    private static String canonicalUri(String rawPath) {
+        if (rawPath == null || rawPath.isEmpty()) {
+            return "/";
+        }
+        String[] segments = rawPath.split("/", -1);
+        StringBuilder uri = new StringBuilder(rawPath.length() + 16);
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                uri.append('/');
+            }
+            uri.append(uriEncode(segments[i]));
+        }
+        return uri.toString();
+    }
+
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        List<Map.Entry<String, String>> parameters = new ArrayList<>();
+        for (String parameter : rawQuery.split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            String value = separator < 0 ? "" : parameter.substring(separator + 1);
+            parameters.add(Map.entry(uriEncode(URLDecoder.decode(name, StandardCharsets.UTF_8)),
+                    uriEncode(URLDecoder.decode(value, StandardCharsets.UTF_8))));
+        }
+        parameters.sort(Map.Entry.<String, String>comparingByKey().thenComparing(Map.Entry.comparingByValue()));
+        StringBuilder query = new StringBuilder(rawQuery.length() + 16);
+        for (Map.Entry<String, String> parameter : parameters) {
+            if (!query.isEmpty()) {
+                query.append('&');
+            }
+            query.append(parameter.getKey()).append('=').append(parameter.getValue());
+        }
+        return query.toString();
+    }
+
+    private static String uriEncode(String value) {
+        StringBuilder encoded = new StringBuilder(value.length() + 8);
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~') {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(HexFormat.of().withUpperCase().toHexDigits(b));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The request with its body read once for hashing and replayed to the function
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.fc.serverless.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.function.context.FunctionCatalog;
+import org.springframework.cloud.function.context.catalog.SimpleFunctionRegistry.FunctionInvocationWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A Function URL invokes a supplier whatever the method, and supplier proxies
+ * POST like every other call, but Spring Cloud Function's web export only maps
+ * GET to suppliers. POSTs to a supplier are passed on as GETs so the local
+ * mesh serves them the way the deployed function would.
+ *
+ * The export copies request headers onto the response, so the empty body's
+ * Content-Length is dropped too; left in, it would truncate the result.
+ */
+final class SupplierPostFilter extends OncePerRequestFilter {
+
+    private final ObjectProvider<FunctionCatalog> functionCatalog;
+
+    SupplierPostFilter(ObjectProvider<FunctionCatalog> functionCatalog) {
+        this.functionCatalog = functionCatalog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if ("POST".equals(request.getMethod()) && isSupplier(request.getRequestURI().substring(1))) {
+            request = new SupplierGetRequest(request);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean isSupplier(String functionName) {
+        FunctionCatalog catalog = functionCatalog.getIfAvailable();
+        if (catalog == null || functionName.isEmpty() || functionName.indexOf('/') >= 0) {
+            return false;
+        }
+        Object function = catalog.lookup(functionName);
+        return function instanceof FunctionInvocationWrapper wrapper && wrapper.isSupplier()
+                && functionName.equals(wrapper.getFunctionDefinition());
+    }
+
+    private static final class SupplierGetRequest extends HttpServletRequestWrapper {
+
+        private static final Set<String> BODY_HEADERS = Set.of("content-length", "content-type", "content-encoding");
+
+        SupplierGetRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getMethod() {
+            return "GET";
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isBodyHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isBodyHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(SupplierGetRequest::isBodyHeader);
+            return Collections.enumeration(names);
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getContentType() {
+            return null;
+        }
+
+        private static boolean isBodyHeader(String name) {
+            return BODY_HEADERS.contains(name.toLowerCase(Locale.ROOT));
+        }
+    }
+}